@@ -3,9 +3,7 @@ package mcinterface1122;
 import java.util.ArrayList;
 import java.util.List;
 
-import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
-import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
@@ -64,16 +62,15 @@ public abstract class ABuilderEntityBase extends Entity{
     		//entities on the client.  By waiting for an update, we will know we're valid.
     		//I'm looking at YOU: The One Probe!
     		if(needDataFromServer){
-    			InterfaceManager.packetInterface.sendToServer(new PacketEntityCSHandshakeClient(InterfaceManager.clientInterface.getClientPlayer(), this));
+    			PacketEntityCSHandshakeClient.queueRequest(this);
     			needDataFromServer = false;
     		}
     	}else if(loadedFromSavedNBT){
-    		//Send any packets to clients that requested them.
+    		//Queue data to send to clients that requested it.  All players get the same data, so only write it once.
     		if(!playersRequestingData.isEmpty()){
+    			NBTTagCompound data = PacketEntityCSHandshakeServer.removeDefaultValues(writeToNBT(new NBTTagCompound()));
 	    		for(IWrapperPlayer player : playersRequestingData){
-	    			IWrapperNBT data = InterfaceManager.coreInterface.getNewNBTWrapper();
-	    			writeToNBT(((WrapperNBT) data).tag);
-	    			player.sendPacket(new PacketEntityCSHandshakeServer(this, data));
+	    			PacketEntityCSHandshakeServer.queueData(player, this, data);
 	    		}
 	    		playersRequestingData.clear();
     		}
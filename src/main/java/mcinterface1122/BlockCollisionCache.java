@@ -0,0 +1,285 @@
+package mcinterface1122;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+
+/**Cache of block collision boxes for a world.  Getting collision boxes from MC requires a state
+ * lookup, a bunch of checks, and a new AABB for every box, every tick, for every box on every vehicle.
+ * Since blocks rarely change, we store the boxes for each block in 16x16x16 sections in primitive arrays,
+ * and only re-create them when a block (or a neighbor of a block, as some blocks connect) changes.
+ * The block state is also stored and checked on lookup.  This catches any changes that were made without
+ * notifying listeners, which MC and mods are both known to do.
+ * <br><br>
+ * Boxes that collide with a query are put into a result buffer as six doubles, in the order of
+ * minX, minY, minZ, maxX, maxY, maxZ.  Blocks with tile entities are never cached, as their
+ * collision may depend on the tile entity rather than the block state.
+ *
+ * @author don_bruce
+ */
+class BlockCollisionCache implements IWorldEventListener{
+	/**Max size of box data for a section before it is cleared to remove stale boxes.**/
+	private static final int MAX_SECTION_BOX_DATA = 6*4096*2;
+
+	private final World world;
+	private final Map<Long, CacheSection> sections = new HashMap<Long, CacheSection>();
+	private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+	private final List<AxisAlignedBB> mutableBoxes = new ArrayList<AxisAlignedBB>();
+	private long lastSectionKey;
+	private CacheSection lastSection;
+
+	private double[] results = new double[6*16];
+	private int resultCount;
+
+	BlockCollisionCache(World world){
+		this.world = world;
+	}
+
+	/**
+	 *  Clears the result buffer.  Should be called prior to any set of calls to {@link #addCollidingBoxes(int, int, int, double, double, double, double, double, double, boolean)}.
+	 */
+	void clearResults(){
+		resultCount = 0;
+	}
+
+	/**
+	 *  Returns the number of boxes in the result buffer.
+	 */
+	int getResultCount(){
+		return resultCount;
+	}
+
+	/**
+	 *  Returns the result buffer.  Only the first {@link #getResultCount()}*6 values are valid.
+	 */
+	double[] getResults(){
+		return results;
+	}
+
+	/**
+	 *  Adds all collision boxes for the block at the passed-in position that intersect the passed-in bounds to the
+	 *  result buffer.  If includeLiquids is true, liquid blocks will also have their bounds added.  Returns the number
+	 *  of boxes added.  Unloaded blocks will never have any boxes.
+	 */
+	int addCollidingBoxes(int x, int y, int z, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, boolean includeLiquids){
+		mutablePos.setPos(x, y, z);
+		if(!world.isBlockLoaded(mutablePos)){
+			return 0;
+		}
+		IBlockState state = world.getBlockState(mutablePos);
+		if(state.getBlock().hasTileEntity(state)){
+			//Can't cache this block, just add the boxes directly.
+			int oldResultCount = resultCount;
+			AxisAlignedBB liquidBox = collectBoxes(state);
+			for(AxisAlignedBB box : mutableBoxes){
+				addResult(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, minX, minY, minZ, maxX, maxY, maxZ);
+			}
+			if(includeLiquids && liquidBox != null){
+				addResult(liquidBox.minX, liquidBox.minY, liquidBox.minZ, liquidBox.maxX, liquidBox.maxY, liquidBox.maxZ, minX, minY, minZ, maxX, maxY, maxZ);
+			}
+			return resultCount - oldResultCount;
+		}
+
+		CacheSection section = getSection(x, y, z);
+		int blockIndex = getBlockIndex(x, y, z);
+		if(section.states[blockIndex] != state){
+			//Block is new, or changed since we last cached it.
+			AxisAlignedBB liquidBox = collectBoxes(state);
+			int boxCount = mutableBoxes.size() + (liquidBox != null ? 1 : 0);
+			int boxDataNeeded = section.boxDataUsed + boxCount*6;
+			if(boxDataNeeded > section.boxData.length){
+				if(section.boxData.length >= MAX_SECTION_BOX_DATA){
+					//Too many stale boxes from changed blocks.  Clear out the section and start over.
+					Arrays.fill(section.states, null);
+					section.boxDataUsed = 0;
+					boxDataNeeded = boxCount*6;
+				}
+				//Blocks with lots of boxes may need more than double the space.
+				if(boxDataNeeded > section.boxData.length){
+					section.boxData = Arrays.copyOf(section.boxData, Math.max(section.boxData.length*2, boxDataNeeded));
+				}
+			}
+			section.states[blockIndex] = state;
+			section.boxStarts[blockIndex] = section.boxDataUsed;
+			section.boxCounts[blockIndex] = mutableBoxes.size();
+			section.liquids[blockIndex] = liquidBox != null;
+			for(AxisAlignedBB box : mutableBoxes){
+				section.addBox(box);
+			}
+			if(liquidBox != null){
+				section.addBox(liquidBox);
+			}
+		}
+
+		int oldResultCount = resultCount;
+		int boxCount = section.boxCounts[blockIndex];
+		if(includeLiquids && section.liquids[blockIndex]){
+			++boxCount;
+		}
+		double[] boxData = section.boxData;
+		for(int index=section.boxStarts[blockIndex], endIndex = index + boxCount*6; index<endIndex; index+=6){
+			addResult(boxData[index], boxData[index + 1], boxData[index + 2], boxData[index + 3], boxData[index + 4], boxData[index + 5], minX, minY, minZ, maxX, maxY, maxZ);
+		}
+		return resultCount - oldResultCount;
+	}
+
+	/**
+	 *  Removes all cached data for the passed-in chunk.  Should be called when the chunk is unloaded,
+	 *  as the blocks in it may be changed before it is loaded again.
+	 */
+	void removeChunk(int chunkX, int chunkZ){
+		for(int sectionY=0; sectionY<16; ++sectionY){
+			sections.remove(getSectionKey(chunkX, sectionY, chunkZ));
+		}
+		lastSection = null;
+	}
+
+	/**
+	 *  Invalidates all cached blocks in the passed-in range, inclusive.
+	 */
+	private void invalidateRange(int minX, int minY, int minZ, int maxX, int maxY, int maxZ){
+		for(int sectionX=minX >> 4; sectionX<=maxX >> 4; ++sectionX){
+			for(int sectionY=Math.max(minY, 0) >> 4; sectionY<=Math.min(maxY, 255) >> 4; ++sectionY){
+				for(int sectionZ=minZ >> 4; sectionZ<=maxZ >> 4; ++sectionZ){
+					CacheSection section = sections.get(getSectionKey(sectionX, sectionY, sectionZ));
+					if(section != null){
+						for(int x=Math.max(minX, sectionX << 4); x<=Math.min(maxX, (sectionX << 4) + 15); ++x){
+							for(int y=Math.max(minY, sectionY << 4); y<=Math.min(maxY, (sectionY << 4) + 15); ++y){
+								for(int z=Math.max(minZ, sectionZ << 4); z<=Math.min(maxZ, (sectionZ << 4) + 15); ++z){
+									section.states[getBlockIndex(x, y, z)] = null;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Populates the mutable box list with the collision boxes for the block at the mutable position.
+	 *  Boxes are obtained with a mask one block larger than the block, as some blocks, like fences,
+	 *  have collision outside their block space.  If the block is a liquid, its bounds are returned.
+	 */
+	private AxisAlignedBB collectBoxes(IBlockState state){
+		mutableBoxes.clear();
+		BlockPos pos = mutablePos.toImmutable();
+		if(state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null){
+			state.addCollisionBoxToList(world, pos, new AxisAlignedBB(pos).grow(1), mutableBoxes, null, false);
+		}
+		return state.getMaterial().isLiquid() ? state.getBoundingBox(world, pos).offset(pos) : null;
+	}
+
+	private void addResult(double boxMinX, double boxMinY, double boxMinZ, double boxMaxX, double boxMaxY, double boxMaxZ, double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+		if(boxMinX < maxX && boxMaxX > minX && boxMinY < maxY && boxMaxY > minY && boxMinZ < maxZ && boxMaxZ > minZ){
+			if((resultCount + 1)*6 > results.length){
+				results = Arrays.copyOf(results, results.length*2);
+			}
+			int index = resultCount*6;
+			results[index] = boxMinX;
+			results[index + 1] = boxMinY;
+			results[index + 2] = boxMinZ;
+			results[index + 3] = boxMaxX;
+			results[index + 4] = boxMaxY;
+			results[index + 5] = boxMaxZ;
+			++resultCount;
+		}
+	}
+
+	private CacheSection getSection(int x, int y, int z){
+		long key = getSectionKey(x >> 4, y >> 4, z >> 4);
+		if(lastSection != null && lastSectionKey == key){
+			return lastSection;
+		}
+		CacheSection section = sections.get(key);
+		if(section == null){
+			section = new CacheSection();
+			sections.put(key, section);
+		}
+		lastSectionKey = key;
+		lastSection = section;
+		return section;
+	}
+
+	private static long getSectionKey(int sectionX, int sectionY, int sectionZ){
+		return ((sectionX & 0xFFFFFFL) << 40) | ((sectionZ & 0xFFFFFFL) << 16) | (sectionY & 0xFFFFL);
+	}
+
+	private static int getBlockIndex(int x, int y, int z){
+		return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+	}
+
+	@Override
+	public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags){
+		//Need to invalidate neighbors too, as their collision may depend on this block.
+		invalidateRange(pos.getX() - 1, pos.getY() - 1, pos.getZ() - 1, pos.getX() + 1, pos.getY() + 1, pos.getZ() + 1);
+	}
+
+	@Override
+	public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2){
+		//Called when clients get chunk data from the server, so we need to invalidate the range as it may have changed.
+		invalidateRange(x1, y1, z1, x2, y2, z2);
+	}
+
+	@Override
+	public void notifyLightSet(BlockPos pos){}
+
+	@Override
+	public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch){}
+
+	@Override
+	public void playRecord(SoundEvent soundIn, BlockPos pos){}
+
+	@Override
+	public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters){}
+
+	@Override
+	public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters){}
+
+	@Override
+	public void onEntityAdded(Entity entityIn){}
+
+	@Override
+	public void onEntityRemoved(Entity entityIn){}
+
+	@Override
+	public void broadcastSound(int soundID, BlockPos pos, int data){}
+
+	@Override
+	public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data){}
+
+	@Override
+	public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress){}
+
+	private static class CacheSection{
+		private final IBlockState[] states = new IBlockState[4096];
+		private final int[] boxStarts = new int[4096];
+		private final int[] boxCounts = new int[4096];
+		private final boolean[] liquids = new boolean[4096];
+		private double[] boxData = new double[6*64];
+		private int boxDataUsed;
+
+		private void addBox(AxisAlignedBB box){
+			boxData[boxDataUsed++] = box.minX;
+			boxData[boxDataUsed++] = box.minY;
+			boxData[boxDataUsed++] = box.minZ;
+			boxData[boxDataUsed++] = box.maxX;
+			boxData[boxDataUsed++] = box.maxY;
+			boxData[boxDataUsed++] = box.maxZ;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package mcinterface1122;
+
+import java.util.Arrays;
+
+/**Cache of values for blocks that only lasts for a single tick.  Used for things like light and rain,
+ * which animations and entities check many times a tick (and every frame on clients) for the same few
+ * blocks, but which MC only updates once a tick at most.  Values are keyed by the packed block position.
+ * <br><br>
+ * Each key maps to a single slot, and a new key in a used slot replaces the old one.  Slots store the
+ * tick they were set on and are only valid for that tick, so the cache never needs to be cleared.
+ *
+ * @author don_bruce
+ */
+class BlockValueCache{
+	/**Number of slots.  Must be a power of 2.**/
+	private static final int SLOTS = 256;
+	
+	private final long[] keys = new long[SLOTS];
+	private final long[] ticks = new long[SLOTS];
+	private final float[] values = new float[SLOTS];
+	
+	BlockValueCache(){
+		Arrays.fill(ticks, -1);
+	}
+	
+	/**
+	 *  Returns the value for the passed-in key if it was set on the passed-in tick, or NaN if it wasn't.
+	 */
+	float get(long key, long tick){
+		int slot = getSlot(key);
+		return keys[slot] == key && ticks[slot] == tick ? values[slot] : Float.NaN;
+	}
+	
+	/**
+	 *  Sets the value for the passed-in key for the passed-in tick.
+	 */
+	void set(long key, long tick, float value){
+		int slot = getSlot(key);
+		keys[slot] = key;
+		ticks[slot] = tick;
+		values[slot] = value;
+	}
+	
+	private static int getSlot(long key){
+		//Mix the bits, as packed positions keep X and Y in the high bits, which the slot mask would otherwise ignore.
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key >>> 32) & (SLOTS - 1);
+	}
+}
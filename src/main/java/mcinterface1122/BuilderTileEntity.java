@@ -6,7 +6,6 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.blocks.components.ABlockBaseTileEntity;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
-import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import net.minecraft.nbt.NBTTagCompound;
@@ -93,16 +92,16 @@ public class BuilderTileEntity<TileEntityType extends ATileEntityBase<?>> extend
 	    		///Although we could call this in the constructor, Minecraft changes the
 	    		//entity IDs after spawning and that fouls things up.
 	    		if(needDataFromServer){
-	    			InterfaceManager.packetInterface.sendToServer(new PacketEntityCSHandshakeClient(InterfaceManager.clientInterface.getClientPlayer(), this));
+	    			PacketEntityCSHandshakeClient.queueRequest(this);
 	    			needDataFromServer = false;
 	    		}
 	    	}else{
-	    		//Send any packets to clients that requested them.
+	    		//Queue data to send to clients that requested it.  All players get the same data, so only write it once.
+	    		//Need to copy the data, as we might not have a TE yet, in which case we get our last loaded NBT back.
 	    		if(!playersRequestingData.isEmpty()){
+	    			NBTTagCompound data = PacketEntityCSHandshakeServer.removeDefaultValues(writeToNBT(new NBTTagCompound()).copy());
 		    		for(IWrapperPlayer player : playersRequestingData){
-		    			IWrapperNBT data = InterfaceManager.coreInterface.getNewNBTWrapper();
-		    			writeToNBT(((WrapperNBT) data).tag);
-		    			player.sendPacket(new PacketEntityCSHandshakeServer(this, data));
+		    			PacketEntityCSHandshakeServer.queueData(player, this, data);
 		    		}
 		    		playersRequestingData.clear();
 	    		}
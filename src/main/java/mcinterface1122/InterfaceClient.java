@@ -1,15 +1,16 @@
 package mcinterface1122;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityBullet;
-import minecrafttransportsimulator.entities.instances.EntityParticle;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.guis.components.AGUIBase;
 import minecrafttransportsimulator.guis.instances.GUIPackMissing;
@@ -51,6 +52,7 @@ public class InterfaceClient implements IInterfaceClient{
 	private static boolean changeCameraRequest;
 	private static BuilderEntityRenderForwarder activeFollower;
 	private static int ticksSincePlayerJoin;
+	private static final List<BoundingBox> mousedOverBoxes = new ArrayList<BoundingBox>();
 
 	@Override
 	public boolean isGamePaused(){
@@ -139,12 +141,11 @@ public class InterfaceClient implements IInterfaceClient{
 					AEntityB_Existing mousedOverEntity = ((BuilderEntityExisting) lastHit.entityHit).entity;
 					if(mousedOverEntity instanceof EntityVehicleF_Physics){
 						EntityVehicleF_Physics vehicle = (EntityVehicleF_Physics) mousedOverEntity;
-						for(BoundingBox box : vehicle.allInteractionBoxes){
-							if(box.isPointInside(mousedOverPoint)){
-								APart part = vehicle.getPartWithBox(box);
-								if(part != null){
-									return part;
-								}
+						vehicle.boxTree.getBoxesAtPoint(mousedOverPoint, BoundingBoxTree.INTERACTION, mousedOverBoxes);
+						for(BoundingBox box : mousedOverBoxes){
+							APart part = vehicle.getPartWithBox(box);
+							if(part != null){
+								return part;
 							}
 						}
 					}
@@ -254,9 +255,10 @@ public class InterfaceClient implements IInterfaceClient{
 	           }
 		           
 				clientWorld.beginProfiling("MTS_ParticleUpdates", false);
-				for(EntityParticle particle : clientWorld.getEntitiesOfType(EntityParticle.class)){
-					particle.update();
-				}
+				clientWorld.particles.update();
+				
+				clientWorld.beginProfiling("MTS_HandshakeRequests", false);
+				PacketEntityCSHandshakeClient.sendQueuedRequests();
 				clientWorld.endProfiling();
 				
 				IWrapperPlayer player = InterfaceManager.clientInterface.getClientPlayer();
@@ -37,6 +37,11 @@ class InterfaceCore implements IInterfaceCore{
 		return Loader.instance().getIndexedModList().get(modID).getName();
 	}
 	
+	@Override
+	public String getModVersion(String modID){
+		return Loader.instance().getIndexedModList().get(modID).getVersion();
+	}
+	
 	@Override
 	public IWrapperNBT getNewNBTWrapper(){
 		return new WrapperNBT();
@@ -88,6 +93,14 @@ class InterfaceCore implements IInterfaceCore{
 		}
 	}
 	
+	@Override
+	public void logInfo(String message){
+		//Info messages aren't important enough to queue, so only log them if we have a logger.
+		if(InterfaceLoader.logger != null){
+			InterfaceLoader.logger.info(InterfaceLoader.MODID.toUpperCase() + ": " + message);
+		}
+	}
+	
 	@Override
     public void flushLogQueue(){
     	for(String log : queuedLogs){
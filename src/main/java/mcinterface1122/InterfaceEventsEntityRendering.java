@@ -203,6 +203,19 @@ public class InterfaceEventsEntityRendering{
     	}
     }
 	
+	/**
+     * Adds particle metrics to the debug screen.  Helps track down packs that spawn excessive particles.
+     */
+	@SubscribeEvent
+    public static void on(RenderGameOverlayEvent.Text event){
+		if(Minecraft.getMinecraft().gameSettings.showDebugInfo){
+			WrapperWorld world = WrapperWorld.getWrapperFor(Minecraft.getMinecraft().world);
+			if(world != null){
+				event.getLeft().add(String.format("MTS Particles: %d (%.2fms)", world.particles.getParticleCount(), world.particles.getUpdateTime()/1000000D));
+			}
+		}
+	}
+	
 	/**
      * Pre-post methods for adjusting entity angles while seated.
      */
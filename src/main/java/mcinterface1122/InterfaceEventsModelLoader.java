@@ -23,9 +23,11 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packloading.PackParser;
 import minecrafttransportsimulator.packloading.PackResourceLoader;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ResourceType;
+import minecrafttransportsimulator.rendering.RenderCuller;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.block.model.ModelResourceLocation;
+import net.minecraft.client.renderer.culling.ClippingHelperImpl;
 import net.minecraft.client.renderer.culling.ICamera;
 import net.minecraft.client.renderer.entity.Render;
 import net.minecraft.client.renderer.entity.RenderManager;
@@ -52,6 +54,7 @@ import net.minecraftforge.fml.relauncher.Side;
  */
 @EventBusSubscriber(Side.CLIENT)
 public class InterfaceEventsModelLoader{
+	private static final RenderCuller culler = new RenderCuller();
 	
 	/**
 	 *  Event that's called to register models.  We register our render wrapper
@@ -73,6 +76,7 @@ public class InterfaceEventsModelLoader{
 				@Override
 				public boolean shouldRender(BuilderEntityRenderForwarder builder, ICamera camera, double camX, double camY, double camZ){
 					//Always render the forwarder, no matter where the camera is.
+					//Culling of the entities it renders is done by the culler in doRender.
 					return true;
 				}
 				
@@ -96,13 +100,26 @@ public class InterfaceEventsModelLoader{
 							//This prevents bad lighting.
 							GlStateManager.enableRescaleNormal();
 							
+							//Get the visible entities on the solid pass.  The blended pass is in the same frame, so it re-uses that list.
+							if(!blendingEnabled){
+								culler.setCamera(InterfaceManager.clientInterface.getRenderViewEntity().getRenderedPosition(partialTicks), ClippingHelperImpl.getInstance().frustum, Minecraft.getMinecraft().gameSettings.fovSetting);
+								culler.updateVisibleEntities(allEntities);
+							}
+							
 							//Start master profiling section.
-							for(AEntityC_Renderable entity : allEntities){
+							for(AEntityC_Renderable entity : culler.getVisibleEntities()){
 								world.beginProfiling("MTSRendering", true);
 								entity.render(blendingEnabled, partialTicks);
 								world.endProfiling();
 							}
 							
+							//Render particles.  These are all translucent, so only render on the blended pass.
+							if(blendingEnabled){
+								world.beginProfiling("MTSParticles", true);
+								world.particles.render(partialTicks);
+								world.endProfiling();
+							}
+							
 							//Reset states.
 							GL11.glShadeModel(GL11.GL_FLAT);
 							if(blendingEnabled){
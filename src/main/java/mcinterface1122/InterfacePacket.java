@@ -1,19 +1,35 @@
 package mcinterface1122;
 
 import java.io.IOException;
-
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
+import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityPole_Component;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfacePacket;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.components.APacketBase;
+import minecrafttransportsimulator.packets.components.PacketSession;
+import minecrafttransportsimulator.systems.ConfigSystem;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.INetHandler;
 import net.minecraft.network.PacketBuffer;
+import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -24,7 +40,18 @@ import net.minecraftforge.fml.relauncher.Side;
 
 class InterfacePacket implements IInterfacePacket{
 	private static final SimpleNetworkWrapper network = NetworkRegistry.INSTANCE.newSimpleChannel(InterfaceLoader.MODID);
-	private static final BiMap<Byte, Class<? extends APacketBase>> packetMappings = HashBiMap.create();
+	private static final MethodType PACKET_CONSTRUCTOR_TYPE = MethodType.methodType(APacketBase.class, ByteBuf.class);
+	/**Constructors for packets, indexed by packet index.  These are made once on registration, as reflection is slow.**/
+	private static final MethodHandle[] packetConstructors = new MethodHandle[256];
+	private static final Map<Class<? extends APacketBase>, Byte> packetIndexes = new IdentityHashMap<Class<? extends APacketBase>, Byte>();
+	private static final MainThreadPacketQueue clientPacketQueue = new MainThreadPacketQueue();
+	private static final MainThreadPacketQueue serverPacketQueue = new MainThreadPacketQueue();
+	/**Range our entity builders are registered to be tracked at.  Must match the tracker range of the builders.**/
+	private static final int BUILDER_TRACKING_RANGE = 32*16;
+	/**Extra range to add to tracking checks.  MC updates trackers after entities move, so we could be a tick ahead of it.**/
+	private static final int TRACKING_RANGE_MARGIN = 16;
+	/**Sessions for each connection, keyed by their network handler.  Weak so closed connections don't stick around.**/
+	private static final Map<INetHandler, PacketSession> sessions = new WeakHashMap<INetHandler, PacketSession>();
 	
 	/**
 	 *  Called to init this network.  Needs to be done after networking is ready.
@@ -44,12 +71,17 @@ class InterfacePacket implements IInterfacePacket{
 	
 	@Override
 	public void registerPacket(byte packetIndex, Class<? extends APacketBase> packetClass){
-		packetMappings.put(packetIndex, packetClass);
+		try{
+			packetConstructors[packetIndex & 0xFF] = MethodHandles.lookup().findConstructor(packetClass, MethodType.methodType(void.class, ByteBuf.class)).asType(PACKET_CONSTRUCTOR_TYPE);
+			packetIndexes.put(packetClass, packetIndex);
+		}catch(Exception e){
+			throw new IllegalArgumentException("Could not register packet " + packetClass.getSimpleName() + ".  It must have a public constructor that takes a ByteBuf.", e);
+		}
 	}
 	
 	@Override
 	public byte getPacketIndex(APacketBase packet){
-		return packetMappings.inverse().get(packet.getClass());
+		return packetIndexes.get(packet.getClass());
 	}
 	
 	@Override
@@ -62,9 +94,72 @@ class InterfacePacket implements IInterfacePacket{
 		network.sendToAll(new WrapperPacket(packet));
 	}
 	
+	@Override
+	public void sendToTrackingClients(APacketBase packet, AEntityB_Existing entity){
+		WorldServer world = (WorldServer) ((WrapperWorld) entity.world).world;
+		if(entity instanceof ATileEntityBase || entity instanceof ATileEntityPole_Component){
+			//Tile entities are sent with their chunk, so anyone watching the chunk has them.
+			//Pole components live in their pole's tile entity, so they use the chunk of their pole.
+			AEntityB_Existing chunkEntity = entity instanceof ATileEntityPole_Component ? ((ATileEntityPole_Component) entity).core : entity;
+			PlayerChunkMap chunkMap = world.getPlayerChunkMap();
+			int chunkX = ((int) Math.floor(chunkEntity.position.x)) >> 4;
+			int chunkZ = ((int) Math.floor(chunkEntity.position.z)) >> 4;
+			for(EntityPlayer player : world.playerEntities){
+				if(player instanceof EntityPlayerMP && chunkMap.isPlayerWatchingChunk((EntityPlayerMP) player, chunkX, chunkZ)){
+					sendToPlayerInternal(packet, (EntityPlayerMP) player);
+				}
+			}
+		}else{
+			//Entities are tracked by their builders, or by the builder of what they are on.  MC tracks in a square
+			//around the player, limited by the view distance, so we do the same here with a bit of extra range.
+			double range = Math.min(BUILDER_TRACKING_RANGE, world.getMinecraftServer().getPlayerList().getEntityViewDistance()) + TRACKING_RANGE_MARGIN;
+			for(EntityPlayer player : world.playerEntities){
+				if(player instanceof EntityPlayerMP && Math.abs(player.posX - entity.position.x) <= range && Math.abs(player.posZ - entity.position.z) <= range){
+					sendToPlayerInternal(packet, (EntityPlayerMP) player);
+				}
+			}
+		}
+	}
+	
+	@Override
+	public void sendToClientsNear(APacketBase packet, AWrapperWorld world, Point3D point, double radius){
+		double radiusSquared = radius*radius;
+		for(EntityPlayer player : ((WrapperWorld) world).world.playerEntities){
+			if(player instanceof EntityPlayerMP && player.getDistanceSq(point.x, point.y, point.z) <= radiusSquared){
+				sendToPlayerInternal(packet, (EntityPlayerMP) player);
+			}
+		}
+	}
+	
 	@Override
 	public void sendToPlayer(APacketBase packet, IWrapperPlayer player){
-		network.sendTo(new WrapperPacket(packet), (EntityPlayerMP) ((WrapperPlayer) player).player);
+		sendToPlayerInternal(packet, (EntityPlayerMP) ((WrapperPlayer) player).player);
+	}
+	
+	/**
+	 *  Sends the packet to the player with the {@link PacketSession} for their connection.
+	 *  We hold the session while sending, as the packet that first sends a value must
+	 *  get to the player before any packets that only send its index.
+	 */
+	private static void sendToPlayerInternal(APacketBase packet, EntityPlayerMP player){
+		PacketSession session = getSession(player.connection);
+		synchronized(session){
+			network.sendTo(new WrapperPacket(packet, session), player);
+		}
+	}
+	
+	/**
+	 *  Returns the session for the connection with the passed-in handler, creating it if required.
+	 */
+	private static PacketSession getSession(INetHandler netHandler){
+		synchronized(sessions){
+			PacketSession session = sessions.get(netHandler);
+			if(session == null){
+				session = new PacketSession();
+				sessions.put(netHandler, session);
+			}
+			return session;
+		}
 	}
 	
 	/**
@@ -75,6 +170,21 @@ class InterfacePacket implements IInterfacePacket{
 		return WrapperWorld.getWrapperFor(ctx.getServerHandler().player.world);
 	}
 	
+	/**
+	 *  Gets the world to handle a packet in from the passed-in context.
+	 *  Only call this from the main thread.
+	 */
+	private static AWrapperWorld getMainThreadWorld(MessageContext ctx){
+		//We need to use side-specific getters here to avoid side-specific classes from trying to be loaded
+		//by the JVM when this method is created.  Failure to do this will result in network faults.
+		//For this, we use abstract methods that are extended in our sub-classes.
+		if(ctx.side.isServer()){
+			return getServerWorld(ctx);
+		}else{
+			return InterfaceManager.clientInterface.getClientWorld();
+		}
+	}
+	
 	@Override
 	public void writeDataToBuffer(IWrapperNBT data, ByteBuf buf){
 		PacketBuffer pb = new PacketBuffer(buf);
@@ -99,9 +209,14 @@ class InterfacePacket implements IInterfacePacket{
 	 *  arrives on the other side of the pipeline, MC won't know what class to construct.
 	 *  That's up to us to handle via the packet's first byte.  Also note that this class
 	 *  must be public, as if it is private MC won't be able to construct it due to access violations.
+	 *  <br><br>
+	 *  We don't know what connection a packet came in on until it gets to the handler, so we hold
+	 *  onto the data and construct the packet there, once we know which {@link PacketSession} to use.
 	 */
 	public static class WrapperPacket implements IMessage{
 		private APacketBase packet;
+		private PacketSession session;
+		private ByteBuf data;
 		
 		/**Do NOT call!  Required to keep Forge from crashing.**/
 		public WrapperPacket(){}
@@ -109,21 +224,45 @@ class InterfacePacket implements IInterfacePacket{
 		public WrapperPacket(APacketBase packet){
 			this.packet = packet;
 		}
+		
+		public WrapperPacket(APacketBase packet, PacketSession session){
+			this.packet = packet;
+			this.session = session;
+		}
 				
 		@Override
 		public void fromBytes(ByteBuf buf){
-			byte packetIndex = buf.readByte();
-			try{
-				Class<? extends APacketBase> packetClass = packetMappings.get(packetIndex);
-				packet = packetClass.getConstructor(ByteBuf.class).newInstance(buf);
-			}catch(Exception e){
-				e.printStackTrace();
-			}
+			//Slice rather than copy.  We release the slice once we construct the packet.
+			data = buf.readRetainedSlice(buf.readableBytes());
 		}
 
 		@Override
 		public void toBytes(ByteBuf buf){
-			packet.writeToBuffer(buf);
+			PacketSession.setActiveSession(session);
+			try{
+				packet.writeToBuffer(buf);
+			}finally{
+				PacketSession.setActiveSession(null);
+			}
+		}
+		
+		/**
+		 *  Constructs the packet from the data we got, using the passed-in session.
+		 *  Returns true if the packet was constructed.
+		 */
+		private boolean constructPacket(PacketSession session){
+			PacketSession.setActiveSession(session);
+			try{
+				MethodHandle constructor = packetConstructors[data.readByte() & 0xFF];
+				packet = (APacketBase) constructor.invokeExact(data);
+				return true;
+			}catch(Throwable e){
+				e.printStackTrace();
+				return false;
+			}finally{
+				PacketSession.setActiveSession(null);
+				data.release();
+			}
 		}
 	};
 	
@@ -134,25 +273,25 @@ class InterfacePacket implements IInterfacePacket{
 	public static class WrapperHandler implements IMessageHandler<WrapperPacket, IMessage>{
 		@Override
 		public IMessage onMessage(WrapperPacket message, MessageContext ctx){
+			//Only clients get packets with indexed values, so only they need sessions.
+			if(!message.constructPacket(ctx.side.isClient() ? getSession(ctx.netHandler) : null)){
+				return null;
+			}
 			if(message.packet.runOnMainThread()){
-				//Need to put this in a runnable to not run it on the network thread and get a CME.
-				FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(new Runnable(){
-					@Override
-					public void run(){
-						//We need to use side-specific getters here to avoid side-specific classes from trying to be loaded
-						//by the JVM when this method is created.  Failure to do this will result in network faults.
-						//For this, we use abstract methods that are extended in our sub-classes.
-						AWrapperWorld world;
-						if(ctx.side.isServer()){
-							world = getServerWorld(ctx);
-						}else{
-							world = InterfaceManager.clientInterface.getClientWorld();
-						}
-						if(world != null){
-							message.packet.handle(world);
+				if(ConfigSystem.settings.general.batchPacketHandling.value){
+					(ctx.side.isServer() ? serverPacketQueue : clientPacketQueue).add(message.packet, ctx);
+				}else{
+					//Need to put this in a runnable to not run it on the network thread and get a CME.
+					FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(new Runnable(){
+						@Override
+						public void run(){
+							AWrapperWorld world = getMainThreadWorld(ctx);
+							if(world != null){
+								message.packet.handle(world);
+							}
 						}
-					}
-				});
+					});
+				}
 			}else{
 				if(ctx.side.isServer()){
 					message.packet.handle(getServerWorld(ctx));
@@ -163,4 +302,44 @@ class InterfacePacket implements IInterfacePacket{
 			return null;
 		}
 	};
+	
+	/**
+	 *  Queue of packets to handle on the main thread.  Packets are added as they come in, and a single
+	 *  task is scheduled to handle all of them.  Any packets that come in before the task runs are handled
+	 *  by that same task, so we only schedule one task per tick rather than one per packet.
+	 */
+	private static class MainThreadPacketQueue implements Runnable{
+		private final Queue<QueuedPacket> packets = new ConcurrentLinkedQueue<QueuedPacket>();
+		private final AtomicBoolean taskScheduled = new AtomicBoolean();
+		
+		private void add(APacketBase packet, MessageContext ctx){
+			packets.add(new QueuedPacket(packet, ctx));
+			if(taskScheduled.compareAndSet(false, true)){
+				FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(this);
+			}
+		}
+		
+		@Override
+		public void run(){
+			//Clear the flag first.  Packets that come in after this will either get handled here, or schedule a new task.
+			taskScheduled.set(false);
+			QueuedPacket queuedPacket;
+			while((queuedPacket = packets.poll()) != null){
+				AWrapperWorld world = getMainThreadWorld(queuedPacket.ctx);
+				if(world != null){
+					queuedPacket.packet.handle(world);
+				}
+			}
+		}
+	}
+	
+	private static class QueuedPacket{
+		private final APacketBase packet;
+		private final MessageContext ctx;
+		
+		private QueuedPacket(APacketBase packet, MessageContext ctx){
+			this.packet = packet;
+			this.ctx = ctx;
+		}
+	}
 }
@@ -135,6 +135,8 @@ public class InterfaceRender implements IInterfaceRender{
 			renderVertices(object.cachedVertexIndex);
 		}else if(object.lineWidth != 0){
 			renderLines(object.vertices, object.lineWidth);
+		}else if(object.colors != null){
+			renderVertices(object.vertices, object.colors, !object.disableLighting);
 		}else{
 			renderVertices(object.vertices);
 		}
@@ -213,6 +215,28 @@ public class InterfaceRender implements IInterfaceRender{
 		vertices.rewind();
 	}
 	
+	/**
+	 *  Renders a set of raw vertices with per-vertex colors.  Lightmaps are only set if
+	 *  lighting is enabled, as otherwise they'd override the full-bright lightmap.
+	 */
+	private static void renderVertices(FloatBuffer vertices, FloatBuffer colors, boolean applyLightmaps){
+		GL11.glBegin(GL11.GL_TRIANGLES);
+		while(vertices.hasRemaining()){
+			GL11.glColor4f(colors.get(), colors.get(), colors.get(), colors.get());
+			int lightVar = (int) colors.get();
+			if(applyLightmaps){
+				OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, lightVar%65536, lightVar/65536);
+			}
+			GL11.glNormal3f(vertices.get(), vertices.get(), vertices.get());
+			GL11.glTexCoord2f(vertices.get(), vertices.get());
+			GL11.glVertex3f(vertices.get(), vertices.get(), vertices.get());
+		}
+		GL11.glEnd();
+		//Rewind buffers for next read.
+		vertices.rewind();
+		colors.rewind();
+	}
+	
 	/**
 	 *  Renders a set of vertices previously cached with {@link #cacheVertices(FloatBuffer)}
 	 */
@@ -393,11 +417,16 @@ public class InterfaceRender implements IInterfaceRender{
 	
 	@Override
 	public void setLightingToPosition(Point3D position){
-		//Get lighting 1 block above position, as actual position will result in blocked light.
-		int lightVar = Minecraft.getMinecraft().world.getCombinedLight(new BlockPos(position.x, position.y + 1, position.z), 0);
+		int lightVar = getLightmap(position);
         OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, lightVar%65536, lightVar/65536);
 	}
 	
+	@Override
+	public int getLightmap(Point3D position){
+		//Get lighting 1 block above position, as actual position will result in blocked light.
+		return Minecraft.getMinecraft().world.getCombinedLight(new BlockPos(position.x, position.y + 1, position.z), 0);
+	}
+	
 	@Override
 	public void setBlend(boolean enabled){
 		if(enabled){
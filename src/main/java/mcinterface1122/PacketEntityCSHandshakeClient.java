@@ -1,60 +1,121 @@
 package mcinterface1122;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.components.APacketPlayer;
 import net.minecraft.entity.Entity;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 
-/**Packet used to request NBT data for entities from the server.  Used when an entity is first created 
- * on a client, as MC is too dumb to let us simply set a flag to get the NBT data from the server in an 
+/**Packet used to request NBT data for entities from the server.  Used when an entity is first created
+ * on a client, as MC is too dumb to let us simply set a flag to get the NBT data from the server in an
  * easy way.  Once on the server, it will send back a {@link PacketEntityCSHandshakeServer}.
- * 
+ * <br><br>
+ * Requests are queued by builders as they are created, and sent once per tick via {@link #sendQueuedRequests()}.
+ * This way logging into an area with lots of entities sends a few packets rather than one per entity.
+ * Entities are sent by their MC entity ID, and tile entities by their packed position, so the server
+ * can look them up directly rather than searching for them.
+ *
  * @author don_bruce
  */
 public class PacketEntityCSHandshakeClient extends APacketPlayer{
-	private final String builderID;
+	/**Max builders to request per packet.  Packets to the server have a far smaller size limit than ones to clients.**/
+	private static final int MAX_REQUESTS = 1024;
+	private static final List<Integer> queuedEntityIDs = new ArrayList<Integer>();
+	private static final List<Long> queuedPositions = new ArrayList<Long>();
 	
-	public PacketEntityCSHandshakeClient(IWrapperPlayer player, ABuilderEntityBase builder){
-		super(player);
-		this.builderID = builder.getCachedUniqueIdString();
-	}
+	private final List<Integer> entityIDs;
+	private final List<Long> positions;
 	
-	public PacketEntityCSHandshakeClient(IWrapperPlayer player, BuilderTileEntity<?> builder){
+	public PacketEntityCSHandshakeClient(IWrapperPlayer player, List<Integer> entityIDs, List<Long> positions){
 		super(player);
-		this.builderID = builder.getPos().getX() + "," + builder.getPos().getY() + "," + builder.getPos().getZ();
+		this.entityIDs = entityIDs;
+		this.positions = positions;
 	}
 	
 	public PacketEntityCSHandshakeClient(ByteBuf buf){
 		super(buf);
-		this.builderID = readStringFromBuffer(buf);
+		int entityCount = readVarIntFromBuffer(buf);
+		this.entityIDs = new ArrayList<Integer>(entityCount);
+		for(int i=0; i<entityCount; ++i){
+			entityIDs.add(readVarIntFromBuffer(buf));
+		}
+		int positionCount = readVarIntFromBuffer(buf);
+		this.positions = new ArrayList<Long>(positionCount);
+		for(int i=0; i<positionCount; ++i){
+			positions.add(buf.readLong());
+		}
 	}
 	
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeStringToBuffer(builderID, buf);
+		writeVarIntToBuffer(entityIDs.size(), buf);
+		for(int entityID : entityIDs){
+			writeVarIntToBuffer(entityID, buf);
+		}
+		writeVarIntToBuffer(positions.size(), buf);
+		for(long position : positions){
+			buf.writeLong(position);
+		}
 	}
 	
 	@Override
 	public void handle(AWrapperWorld world, IWrapperPlayer player){
 		//Need to do null checks here as some entities may not exist due to them being unloaded during packet transfer.
-		//Queue up the builder to send the player data back next update.
-		if(builderID.contains(",")){
-			String[] stringPos = builderID.split(",");
-			BuilderTileEntity<?> tile = (BuilderTileEntity<?>) ((WrapperWorld) world).world.getTileEntity(new BlockPos(Integer.valueOf(stringPos[0]), Integer.valueOf(stringPos[1]), Integer.valueOf(stringPos[2])));
-			if(tile != null){
-				tile.playersRequestingData.add(player);
+		//Queue up the builders to send the player data back next update.
+		for(int entityID : entityIDs){
+			Entity entity = ((WrapperWorld) world).world.getEntityByID(entityID);
+			if(entity instanceof ABuilderEntityBase){
+				((ABuilderEntityBase) entity).playersRequestingData.add(player);
+			}
+		}
+		for(long position : positions){
+			TileEntity tile = ((WrapperWorld) world).world.getTileEntity(BlockPos.fromLong(position));
+			if(tile instanceof BuilderTileEntity){
+				((BuilderTileEntity<?>) tile).playersRequestingData.add(player);
 			}
-		}else{
-			for(Entity entity : ((WrapperWorld) world).world.loadedEntityList){
-				if(entity.getCachedUniqueIdString().equals(builderID)){
-					//Queue up the builder to send the player data back next update.
-					((ABuilderEntityBase) entity).playersRequestingData.add(player);
-					break;
-				}
+		}
+	}
+	
+	/**
+	 *  Queues a request for the data of the passed-in builder.  Sent on the next {@link #sendQueuedRequests()} call.
+	 */
+	public static void queueRequest(ABuilderEntityBase builder){
+		queuedEntityIDs.add(builder.getEntityId());
+	}
+	
+	/**
+	 *  Queues a request for the data of the passed-in builder.  Sent on the next {@link #sendQueuedRequests()} call.
+	 */
+	public static void queueRequest(BuilderTileEntity<?> builder){
+		queuedPositions.add(builder.getPos().toLong());
+	}
+	
+	/**
+	 *  Sends all queued requests to the server.  Should be called once per tick on clients.
+	 */
+	public static void sendQueuedRequests(){
+		IWrapperPlayer player = InterfaceManager.clientInterface.getClientPlayer();
+		if(player != null && (!queuedEntityIDs.isEmpty() || !queuedPositions.isEmpty())){
+			int entityIndex = 0;
+			int positionIndex = 0;
+			while(entityIndex < queuedEntityIDs.size() || positionIndex < queuedPositions.size()){
+				int entityCount = Math.min(MAX_REQUESTS, queuedEntityIDs.size() - entityIndex);
+				int positionCount = Math.min(MAX_REQUESTS - entityCount, queuedPositions.size() - positionIndex);
+				List<Integer> entityIDs = new ArrayList<Integer>(queuedEntityIDs.subList(entityIndex, entityIndex + entityCount));
+				List<Long> positions = new ArrayList<Long>(queuedPositions.subList(positionIndex, positionIndex + positionCount));
+				InterfaceManager.packetInterface.sendToServer(new PacketEntityCSHandshakeClient(player, entityIDs, positions));
+				entityIndex += entityCount;
+				positionIndex += positionCount;
 			}
+			queuedEntityIDs.clear();
+			queuedPositions.clear();
 		}
 	}
 }
@@ -1,65 +1,205 @@
 package mcinterface1122;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.mcinterface.IWrapperNBT;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.packets.components.APacketBase;
 import net.minecraft.entity.Entity;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTPrimitive;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 
 /**Packet used to send NBT data to clients when requested for it.  Driven by the arrival of a
  * {@link PacketEntityCSHandshakeClient} on the server.  This is used for both normal and tile
- * entities, depending on the format of the string passed-in.
- * 
+ * entities, which are sent by MC entity ID and packed position respectively.
+ * <br><br>
+ * Builders queue their data via {@link #queueData(IWrapperPlayer, ABuilderEntityBase, NBTTagCompound)}
+ * as they get requests, and all data for a player is sent at the end of the tick via {@link #sendQueuedPackets()}.
+ * The data for all builders in a packet is compressed together, as entities of the same type have most
+ * of their data in common.  Values equal to what the NBT getters return for missing values, such as 0 and
+ * empty strings, are removed before sending as the client will load them the same either way.
+ *
  * @author don_bruce
  */
 public class PacketEntityCSHandshakeServer extends APacketBase{
-	private final String builderID;
-	private final IWrapperNBT data;
+	/**Max builders to send per packet.  Keeps single packets from getting too large when lots of builders are requested at once.**/
+	private static final int MAX_ENTRIES = 128;
+	private static final Map<IWrapperPlayer, List<PacketEntityCSHandshakeServer>> queuedPackets = new HashMap<IWrapperPlayer, List<PacketEntityCSHandshakeServer>>();
 	
-	public PacketEntityCSHandshakeServer(ABuilderEntityBase builder, IWrapperNBT data){
-		super(null);
-		this.builderID = builder.getCachedUniqueIdString();
-		this.data = data;
-	}
+	private final List<Integer> entityIDs;
+	private final List<Long> positions;
+	private final List<NBTTagCompound> entityData;
+	private final List<NBTTagCompound> tileData;
 	
-	public PacketEntityCSHandshakeServer(BuilderTileEntity<?> builder, IWrapperNBT data){
+	private PacketEntityCSHandshakeServer(){
 		super(null);
-		this.builderID = builder.getPos().getX() + "," + builder.getPos().getY() + "," + builder.getPos().getZ();
-		this.data = data;
+		this.entityIDs = new ArrayList<Integer>();
+		this.positions = new ArrayList<Long>();
+		this.entityData = new ArrayList<NBTTagCompound>();
+		this.tileData = new ArrayList<NBTTagCompound>();
 	}
 	
 	public PacketEntityCSHandshakeServer(ByteBuf buf){
 		super(buf);
-		this.builderID = readStringFromBuffer(buf);
-		this.data = readDataFromBuffer(buf);
+		int entityCount = readVarIntFromBuffer(buf);
+		this.entityIDs = new ArrayList<Integer>(entityCount);
+		for(int i=0; i<entityCount; ++i){
+			entityIDs.add(readVarIntFromBuffer(buf));
+		}
+		int positionCount = readVarIntFromBuffer(buf);
+		this.positions = new ArrayList<Long>(positionCount);
+		for(int i=0; i<positionCount; ++i){
+			positions.add(buf.readLong());
+		}
+		
+		//Data is last, as the decompressor may read past the end of it.
+		this.entityData = new ArrayList<NBTTagCompound>(entityCount);
+		this.tileData = new ArrayList<NBTTagCompound>(positionCount);
+		try{
+			NBTTagList dataList = CompressedStreamTools.readCompressed(new ByteBufInputStream(buf)).getTagList("data", 10);
+			for(int i=0; i<entityCount; ++i){
+				entityData.add(dataList.getCompoundTagAt(i));
+			}
+			for(int i=0; i<positionCount; ++i){
+				tileData.add(dataList.getCompoundTagAt(entityCount + i));
+			}
+		}catch(IOException e){
+			throw new RuntimeException(e);
+		}
 	}
 	
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeStringToBuffer(builderID, buf);
-		writeDataToBuffer(data, buf);
+		writeVarIntToBuffer(entityIDs.size(), buf);
+		for(int entityID : entityIDs){
+			writeVarIntToBuffer(entityID, buf);
+		}
+		writeVarIntToBuffer(positions.size(), buf);
+		for(long position : positions){
+			buf.writeLong(position);
+		}
+		
+		NBTTagList dataList = new NBTTagList();
+		for(NBTTagCompound data : entityData){
+			dataList.appendTag(data);
+		}
+		for(NBTTagCompound data : tileData){
+			dataList.appendTag(data);
+		}
+		NBTTagCompound container = new NBTTagCompound();
+		container.setTag("data", dataList);
+		try{
+			CompressedStreamTools.writeCompressed(container, new ByteBufOutputStream(buf));
+		}catch(IOException e){
+			throw new RuntimeException(e);
+		}
 	}
 	
 	@Override
 	public void handle(AWrapperWorld world){
-		if(builderID.contains(",")){
-			String[] stringPos = builderID.split(",");
-			BuilderTileEntity<?> tile = (BuilderTileEntity<?>) ((WrapperWorld) world).world.getTileEntity(new BlockPos(Integer.valueOf(stringPos[0]), Integer.valueOf(stringPos[1]), Integer.valueOf(stringPos[2])));
-			if(tile != null){
-				tile.lastLoadedNBT = ((WrapperNBT) data).tag;
-				tile.loadFromSavedNBT = true;
+		//Need to do null checks here as some entities may not exist due to them being unloaded during packet transfer.
+		for(int i=0; i<entityIDs.size(); ++i){
+			Entity entity = ((WrapperWorld) world).world.getEntityByID(entityIDs.get(i));
+			if(entity instanceof ABuilderEntityBase){
+				((ABuilderEntityBase) entity).lastLoadedNBT = entityData.get(i);
+				((ABuilderEntityBase) entity).loadFromSavedNBT = true;
+			}
+		}
+		for(int i=0; i<positions.size(); ++i){
+			TileEntity tile = ((WrapperWorld) world).world.getTileEntity(BlockPos.fromLong(positions.get(i)));
+			if(tile instanceof BuilderTileEntity){
+				((BuilderTileEntity<?>) tile).lastLoadedNBT = tileData.get(i);
+				((BuilderTileEntity<?>) tile).loadFromSavedNBT = true;
+			}
+		}
+	}
+	
+	/**
+	 *  Queues the passed-in data to be sent to the player for the passed-in builder.
+	 *  The data may be shared between players, so it must not be modified after this call.
+	 */
+	public static void queueData(IWrapperPlayer player, ABuilderEntityBase builder, NBTTagCompound data){
+		PacketEntityCSHandshakeServer packet = getPacketFor(player);
+		packet.entityIDs.add(builder.getEntityId());
+		packet.entityData.add(data);
+	}
+	
+	/**
+	 *  Queues the passed-in data to be sent to the player for the passed-in builder.
+	 *  The data may be shared between players, so it must not be modified after this call.
+	 */
+	public static void queueData(IWrapperPlayer player, BuilderTileEntity<?> builder, NBTTagCompound data){
+		PacketEntityCSHandshakeServer packet = getPacketFor(player);
+		packet.positions.add(builder.getPos().toLong());
+		packet.tileData.add(data);
+	}
+	
+	/**
+	 *  Sends all queued data to the players that requested it.  Should be called at the end of every server tick.
+	 */
+	public static void sendQueuedPackets(){
+		if(!queuedPackets.isEmpty()){
+			for(Entry<IWrapperPlayer, List<PacketEntityCSHandshakeServer>> playerEntry : queuedPackets.entrySet()){
+				for(PacketEntityCSHandshakeServer packet : playerEntry.getValue()){
+					playerEntry.getKey().sendPacket(packet);
+				}
 			}
-		}else{
-			for(Entity entity : ((WrapperWorld) world).world.loadedEntityList){
-				if(entity.getCachedUniqueIdString().equals(builderID)){
-					//Set last loaded NBT.
-					((ABuilderEntityBase) entity).lastLoadedNBT = ((WrapperNBT) data).tag;
-					((ABuilderEntityBase) entity).loadFromSavedNBT = true;
-					break;
+			queuedPackets.clear();
+		}
+	}
+	
+	/**
+	 *  Returns the packet to add data for the passed-in player to, starting a new one if the last one is full.
+	 */
+	private static PacketEntityCSHandshakeServer getPacketFor(IWrapperPlayer player){
+		List<PacketEntityCSHandshakeServer> packets = queuedPackets.get(player);
+		if(packets == null){
+			packets = new ArrayList<PacketEntityCSHandshakeServer>();
+			queuedPackets.put(player, packets);
+		}
+		PacketEntityCSHandshakeServer packet = packets.isEmpty() ? null : packets.get(packets.size() - 1);
+		if(packet == null || packet.entityIDs.size() + packet.positions.size() == MAX_ENTRIES){
+			packet = new PacketEntityCSHandshakeServer();
+			packets.add(packet);
+		}
+		return packet;
+	}
+	
+	/**
+	 *  Removes all values from the passed-in tag, and any tags in it, that are the same as the
+	 *  values the NBT getters return when a value is missing.  Returns the passed-in tag for chaining.
+	 *  Lists aren't checked, as MC code reads items and such from them by index.
+	 */
+	public static NBTTagCompound removeDefaultValues(NBTTagCompound tag){
+		for(String name : new ArrayList<String>(tag.getKeySet())){
+			NBTBase value = tag.getTag(name);
+			if(value instanceof NBTPrimitive){
+				if(((NBTPrimitive) value).getDouble() == 0){
+					tag.removeTag(name);
+				}
+			}else if(value instanceof NBTTagString){
+				if(((NBTTagString) value).getString().isEmpty()){
+					tag.removeTag(name);
 				}
+			}else if(value instanceof NBTTagCompound){
+				removeDefaultValues((NBTTagCompound) value);
 			}
 		}
+		return tag;
 	}
 }
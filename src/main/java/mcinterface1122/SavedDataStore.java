@@ -0,0 +1,136 @@
+package mcinterface1122;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packets.instances.PacketWorldSavedDataUpdate;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**Write-behind store for the saved data of a server world.  Setting data only flags its name as changed.
+ * Once per tick, {@link #update()} sends each changed block of data to clients once, no matter how many times
+ * it was set that tick, and then hands a copy of all the data to a background thread to write to disk.
+ * If the background thread hasn't gotten to the last copy by the time a new one comes in, the new copy
+ * replaces it, so we never queue up more than one write per world.
+ * <br><br>
+ * Writes go to a temp file that is then moved over the data file, so a crash during a write never leaves a
+ * partial file.  Any pending write is finished via {@link #flush()} when the world is unloaded.
+ * Writes that take longer than {@link #SLOW_WRITE_TIME} are logged, as they mean the disk can't keep up.
+ *
+ * @author don_bruce
+ */
+class SavedDataStore{
+	/**Single thread for all writes.  Dimensions share the data file, so this keeps their writes in order.**/
+	private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "MTS Saved Data Writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/**Time, in nanoseconds, over which writes are logged as slow.**/
+	private static final long SLOW_WRITE_TIME = 500_000_000L;
+	
+	private final File dataFile;
+	private final NBTTagCompound data;
+	private final Set<String> changedNames = new LinkedHashSet<String>();
+	private final AtomicReference<NBTTagCompound> pendingData = new AtomicReference<NBTTagCompound>();
+	private Future<?> lastWrite;
+	
+	SavedDataStore(File dataFile, NBTTagCompound data){
+		this.dataFile = dataFile;
+		this.data = data;
+	}
+	
+	/**
+	 *  Flags the data with the passed-in name as changed.  It will be sent and saved on the next {@link #update()}.
+	 */
+	void markChanged(String name){
+		changedNames.add(name);
+	}
+	
+	/**
+	 *  Sends all changed data to clients, and queues the data to be written to disk if any changed.
+	 *  Should be called once per tick on the server.
+	 */
+	void update(){
+		if(!changedNames.isEmpty()){
+			for(String name : changedNames){
+				InterfaceManager.packetInterface.sendToAllClients(new PacketWorldSavedDataUpdate(name, data.hasKey(name) ? new WrapperNBT(data.getCompoundTag(name)) : null));
+			}
+			changedNames.clear();
+			queueWrite();
+		}
+	}
+	
+	/**
+	 *  Queues any changed data to be written, and waits for all writes to finish.
+	 *  Should be called when the world is unloaded to make sure no data is lost.
+	 */
+	void flush(){
+		if(!changedNames.isEmpty()){
+			changedNames.clear();
+			queueWrite();
+		}
+		if(lastWrite != null){
+			try{
+				lastWrite.get();
+			}catch(Exception e){
+				InterfaceManager.coreInterface.logError("Interrupted while waiting for saved data to write.  Some data may be lost!");
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 *  Queues a copy of the data to be written.  The copy is made here as the data is only safe to read on the server thread.
+	 *  If a copy is still waiting to be written, it's replaced rather than queuing another write.
+	 */
+	private void queueWrite(){
+		if(pendingData.getAndSet(data.copy()) == null){
+			lastWrite = writer.submit(() -> {
+				NBTTagCompound dataToWrite = pendingData.getAndSet(null);
+				if(dataToWrite != null){
+					long startTime = System.nanoTime();
+					try{
+						write(dataToWrite);
+					}catch(Exception e){
+						InterfaceManager.coreInterface.logError("Could not save data to disk!  This will result in data loss if not corrected!");
+						e.printStackTrace();
+					}
+					long writeTime = System.nanoTime() - startTime;
+					if(writeTime > SLOW_WRITE_TIME){
+						InterfaceManager.coreInterface.logInfo("Saving world data to " + dataFile.getName() + " took " + writeTime/1000000 + "ms.  Changes made during the write will be saved together once it's done.");
+					}
+				}
+			});
+		}
+	}
+	
+	/**
+	 *  Writes the passed-in data to a temp file, and then moves it over the data file.
+	 */
+	private void write(NBTTagCompound dataToWrite) throws IOException{
+		File tempFile = new File(dataFile.getParentFile(), dataFile.getName() + ".tmp");
+		FileOutputStream stream = new FileOutputStream(tempFile);
+		try{
+			CompressedStreamTools.writeCompressed(dataToWrite, stream);
+		}finally{
+			stream.close();
+		}
+		try{
+			Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}catch(AtomicMoveNotSupportedException e){
+			Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
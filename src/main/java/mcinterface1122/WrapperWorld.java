@@ -2,16 +2,14 @@ package mcinterface1122;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxSweeper;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
@@ -36,7 +34,6 @@ import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketWorldSavedDataRequest;
-import minecrafttransportsimulator.packets.instances.PacketWorldSavedDataUpdate;
 import minecrafttransportsimulator.packloading.PackParser;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraft.block.Block;
@@ -74,6 +71,7 @@ import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
 import net.minecraftforge.common.IPlantable;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
@@ -91,13 +89,18 @@ import net.minecraftforge.items.IItemHandler;
  */
 public class WrapperWorld extends AWrapperWorld{
 	private static final Map<World, WrapperWorld> worldWrappers = new HashMap<World, WrapperWorld>();
+	/**Positions for block queries.  One per thread, as the client and integrated server threads both use this class.**/
+	private static final ThreadLocal<BlockPos.MutableBlockPos> mutablePositions = ThreadLocal.withInitial(BlockPos.MutableBlockPos::new);
 	private final Map<UUID, BuilderEntityExisting> playerServerGunBuilders = new HashMap<UUID, BuilderEntityExisting>();
 	private final Map<UUID, Integer> ticksSincePlayerJoin = new HashMap<UUID, Integer>();
-	private final List<AxisAlignedBB> mutableCollidingAABBs = new ArrayList<AxisAlignedBB>();
-	private final Set<BlockPos> knownAirBlocks = new HashSet<BlockPos>();
 	
 	protected final World world;
+	private final BlockCollisionCache collisionCache;
 	private final IWrapperNBT savedData;
+	private final SavedDataStore savedDataStore;
+	private final BlockValueCache sunLightCache = new BlockValueCache();
+	private final BlockValueCache totalLightCache = new BlockValueCache();
+	private final BlockValueCache rainCache = new BlockValueCache();
 	
 	/**
 	 *  Returns a wrapper instance for the passed-in world instance.
@@ -118,9 +121,12 @@ public class WrapperWorld extends AWrapperWorld{
 
 	private WrapperWorld(World world){
 		this.world = world;
+		this.collisionCache = new BlockCollisionCache(world);
+		world.addEventListener(collisionCache);
 		if(world.isRemote){
 			//Send packet to server to request data for this world.
 			this.savedData = InterfaceManager.coreInterface.getNewNBTWrapper();
+			this.savedDataStore = null;
 			InterfaceManager.packetInterface.sendToServer(new PacketWorldSavedDataRequest(InterfaceManager.clientInterface.getClientPlayer()));
 		}else{
 			//Load data from disk.
@@ -134,6 +140,7 @@ public class WrapperWorld extends AWrapperWorld{
 				e.printStackTrace();
 				throw new IllegalStateException("Could not load saved data from disk!  This will result in data loss if we continue!");
 			}
+			this.savedDataStore = new SavedDataStore(getDataFile(), ((WrapperNBT) savedData).tag);
 		}
 		MinecraftForge.EVENT_BUS.register(this);
 	}
@@ -148,6 +155,11 @@ public class WrapperWorld extends AWrapperWorld{
 		return world.getWorldTime();
 	}
 	
+	@Override
+	public long getTick(){
+		return world.getTotalWorldTime();
+	}
+	
 	@Override
 	public String getName(){
 		return world.provider.getDimensionType().getName();
@@ -185,13 +197,8 @@ public class WrapperWorld extends AWrapperWorld{
 	public void setData(String name, IWrapperNBT value){
 		savedData.setData(name, value);
 		if(!isClient()){
-			try{
-				CompressedStreamTools.writeCompressed(((WrapperNBT) savedData).tag, new FileOutputStream(getDataFile()));
-				InterfaceManager.packetInterface.sendToAllClients(new PacketWorldSavedDataUpdate(name, value));
-			}catch(Exception e){
-				e.printStackTrace();
-				throw new IllegalStateException("Could not save data to disk!  This will result in data loss if we continue!");
-			}
+			//Sending and saving is done at the end of the tick, so data set multiple times in a tick is only sent and saved once.
+			savedDataStore.markChanged(name);
 		}
 	}
 	
@@ -362,15 +369,23 @@ public class WrapperWorld extends AWrapperWorld{
 		}
 	}
 	
+	/**
+	 *  Returns the mutable position for this thread, set to the block at the passed-in coordinates.
+	 *  Only valid until the next call on this thread, so don't hold onto it or pass it to anything that might.
+	 */
+	private static BlockPos.MutableBlockPos getMutablePos(double x, double y, double z){
+		return mutablePositions.get().setPos(x, y, z);
+	}
+	
 	@Override
-	public ABlockBase getBlock(Point3D position){
-		Block block = world.getBlockState(new BlockPos(position.x, position.y, position.z)).getBlock();
+	public ABlockBase getBlock(double x, double y, double z){
+		Block block = world.getBlockState(getMutablePos(x, y, z)).getBlock();
 		return block instanceof BuilderBlock ? ((BuilderBlock) block).block : null;
 	}
 	
 	@Override
-	public float getBlockHardness(Point3D position){
-		BlockPos pos = new BlockPos(position.x, position.y, position.z);
+	public float getBlockHardness(double x, double y, double z){
+		BlockPos pos = getMutablePos(x, y, z);
 		return world.getBlockState(pos).getBlockHardness(world, pos);
 	}
 	
@@ -425,9 +440,9 @@ public class WrapperWorld extends AWrapperWorld{
 	}
 	
     @Override
-	public boolean isBlockSolid(Point3D position, Axis axis){
+	public boolean isBlockSolid(double x, double y, double z, Axis axis){
 		if(axis.blockBased){
-			BlockPos pos = new BlockPos(position.x, position.y, position.z);
+			BlockPos pos = getMutablePos(x, y, z);
 			IBlockState state = world.getBlockState(pos);
 			Block offsetMCBlock = state.getBlock();
 			EnumFacing facing = EnumFacing.valueOf(axis.name());
@@ -438,8 +453,8 @@ public class WrapperWorld extends AWrapperWorld{
 	}
 	
 	@Override
-	public boolean isBlockLiquid(Point3D position){
-        return world.getBlockState(new BlockPos(position.x, position.y, position.z)).getMaterial().isLiquid();
+	public boolean isBlockLiquid(double x, double y, double z){
+        return world.getBlockState(getMutablePos(x, y, z)).getMaterial().isLiquid();
 	}
 	
 	@Override
@@ -457,32 +472,25 @@ public class WrapperWorld extends AWrapperWorld{
 	}
 	
 	@Override
-	public double getHeight(Point3D position){
-		return position.y - world.getHeight(new BlockPos(position.x, 0, position.z)).getY();
+	public double getHeight(double x, double y, double z){
+		return y - world.getHeight(getMutablePos(x, 0, z)).getY();
 	}
 	
 	@Override
 	public void updateBoundingBoxCollisions(BoundingBox box, Point3D collisionMotion, boolean ignoreIfGreater){
-		AxisAlignedBB mcBox = box.convert();
+		double minX = box.globalCenter.x - box.widthRadius;
+		double minY = box.globalCenter.y - box.heightRadius;
+		double minZ = box.globalCenter.z - box.depthRadius;
+		double maxX = box.globalCenter.x + box.widthRadius;
+		double maxY = box.globalCenter.y + box.heightRadius;
+		double maxZ = box.globalCenter.z + box.depthRadius;
 		box.collidingBlockPositions.clear();
-		mutableCollidingAABBs.clear();
-		for(int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i){
-    		for(int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j){
-    			for(int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k){
-    				BlockPos pos = new BlockPos(i, j, k);
-    				if(world.isBlockLoaded(pos)){
-	    				IBlockState state = world.getBlockState(pos);
-	    				if(state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null){
-	    					int oldCollidingBlockCount = mutableCollidingAABBs.size();
-	    					state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
-	    					if(mutableCollidingAABBs.size() > oldCollidingBlockCount){
-	    						box.collidingBlockPositions.add(new Point3D(i, j, k));
-	    					}
-	    				}
-						if(box.collidesWithLiquids && state.getMaterial().isLiquid()){
-							mutableCollidingAABBs.add(state.getBoundingBox(world, pos).offset(pos));
-							box.collidingBlockPositions.add(new Point3D(i, j, k));
-						}
+		collisionCache.clearResults();
+		for(int i = (int) Math.floor(minX); i < Math.ceil(maxX); ++i){
+    		for(int j = (int) Math.floor(minY); j < Math.ceil(maxY); ++j){
+    			for(int k = (int) Math.floor(minZ); k < Math.ceil(maxZ); ++k){
+    				if(collisionCache.addCollidingBoxes(i, j, k, minX, minY, minZ, maxX, maxY, maxZ, box.collidesWithLiquids) > 0){
+    					box.collidingBlockPositions.add(new Point3D(i, j, k));
     				}
     			}
     		}
@@ -492,36 +500,43 @@ public class WrapperWorld extends AWrapperWorld{
 		box.currentCollisionDepth.set(0D, 0D, 0D);
 		double boxCollisionDepth;
 		double minDelta = 0.0;
-		for(AxisAlignedBB colBox : mutableCollidingAABBs){
+		double[] collidingBoxes = collisionCache.getResults();
+		for(int index=0, endIndex=collisionCache.getResultCount()*6; index<endIndex; index+=6){
+			double colMinX = collidingBoxes[index];
+			double colMinY = collidingBoxes[index + 1];
+			double colMinZ = collidingBoxes[index + 2];
+			double colMaxX = collidingBoxes[index + 3];
+			double colMaxY = collidingBoxes[index + 4];
+			double colMaxZ = collidingBoxes[index + 5];
 			if(collisionMotion.x > 0){
-				boxCollisionDepth = mcBox.maxX - colBox.minX;
+				boxCollisionDepth = maxX - colMinX;
 				if(!ignoreIfGreater || collisionMotion.x - boxCollisionDepth > -minDelta){
 					box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
 				}
 			}else if(collisionMotion.x < 0){
-				boxCollisionDepth = colBox.maxX - mcBox.minX;
+				boxCollisionDepth = colMaxX - minX;
 				if(!ignoreIfGreater || collisionMotion.x + boxCollisionDepth < minDelta){
 					box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
 				}
 			}
 			if(collisionMotion.y > 0){
-				boxCollisionDepth = mcBox.maxY - colBox.minY;
+				boxCollisionDepth = maxY - colMinY;
 				if(!ignoreIfGreater || collisionMotion.y - boxCollisionDepth > -minDelta){
 					box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
 				}
 			}else if(collisionMotion.y < 0){
-				boxCollisionDepth = colBox.maxY - mcBox.minY;
+				boxCollisionDepth = colMaxY - minY;
 				if(!ignoreIfGreater || collisionMotion.y + boxCollisionDepth < minDelta){
 					box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
 				}
 			}
 			if(collisionMotion.z > 0){
-				boxCollisionDepth = mcBox.maxZ - colBox.minZ;
+				boxCollisionDepth = maxZ - colMinZ;
 				if(!ignoreIfGreater || collisionMotion.z - boxCollisionDepth > -minDelta){
 					box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
 				}
 			}else if(collisionMotion.z < 0){
-				boxCollisionDepth = colBox.maxZ - mcBox.minZ;
+				boxCollisionDepth = colMaxZ - minZ;
 				if(!ignoreIfGreater || collisionMotion.z + boxCollisionDepth < minDelta){
 					box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
 				}
@@ -533,34 +548,19 @@ public class WrapperWorld extends AWrapperWorld{
 	}
 	
 	@Override
-	public boolean checkForCollisions(BoundingBox box, Point3D offset, boolean clearCache){
-		if(clearCache){
-			knownAirBlocks.clear();
-		}
-		mutableCollidingAABBs.clear();
-		AxisAlignedBB mcBox = box.convertWithOffset(offset.x, offset.y, offset.z);
-		for(int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i){
-    		for(int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j){
-    			for(int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k){
-    				BlockPos pos = new BlockPos(i, j, k);
-    				if(!knownAirBlocks.contains(pos)){
-    					if(world.isBlockLoaded(pos)){
-    	    				IBlockState state = world.getBlockState(pos);
-    	    				if(state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null){
-    	    					int oldCollidingBlockCount = mutableCollidingAABBs.size();
-    	    					state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
-    	    					if(mutableCollidingAABBs.size() > oldCollidingBlockCount){
-    	    						return true;
-    	    					}
-    	    				}else{
-    	    					knownAirBlocks.add(pos);
-    	    				}
-    						if(box.collidesWithLiquids && state.getMaterial().isLiquid()){
-    							if(mcBox.intersects(state.getBoundingBox(world, pos).offset(pos))){
-    								return true;
-    							}
-    						}
-        				}
+	public boolean checkForCollisions(BoundingBox box, Point3D offset){
+		double minX = offset.x + box.globalCenter.x - box.widthRadius;
+		double minY = offset.y + box.globalCenter.y - box.heightRadius;
+		double minZ = offset.z + box.globalCenter.z - box.depthRadius;
+		double maxX = offset.x + box.globalCenter.x + box.widthRadius;
+		double maxY = offset.y + box.globalCenter.y + box.heightRadius;
+		double maxZ = offset.z + box.globalCenter.z + box.depthRadius;
+		collisionCache.clearResults();
+		for(int i = (int) Math.floor(minX); i < Math.ceil(maxX); ++i){
+    		for(int j = (int) Math.floor(minY); j < Math.ceil(maxY); ++j){
+    			for(int k = (int) Math.floor(minZ); k < Math.ceil(maxZ); ++k){
+    				if(collisionCache.addCollidingBoxes(i, j, k, minX, minY, minZ, maxX, maxY, maxZ, box.collidesWithLiquids) > 0){
+    					return true;
     				}
     			}
     		}
@@ -568,14 +568,38 @@ public class WrapperWorld extends AWrapperWorld{
 		return false;
 	}
 	
+	@Override
+	public void addBlockObstacles(BoundingBoxSweeper sweeper, double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+		collisionCache.clearResults();
+		for(int i = (int) Math.floor(minX); i < Math.ceil(maxX); ++i){
+    		for(int j = (int) Math.floor(minY); j < Math.ceil(maxY); ++j){
+    			for(int k = (int) Math.floor(minZ); k < Math.ceil(maxZ); ++k){
+    				collisionCache.addCollidingBoxes(i, j, k, minX, minY, minZ, maxX, maxY, maxZ, false);
+    			}
+    		}
+    	}
+		double[] collidingBoxes = collisionCache.getResults();
+		for(int index=0, endIndex=collisionCache.getResultCount()*6; index<endIndex; index+=6){
+			sweeper.addObstacle(collidingBoxes[index], collidingBoxes[index + 1], collidingBoxes[index + 2], collidingBoxes[index + 3], collidingBoxes[index + 4], collidingBoxes[index + 5]);
+		}
+	}
+	
 	@Override
 	public int getRedstonePower(Point3D position){
 		return world.getRedstonePowerFromNeighbors(new BlockPos(position.x, position.y, position.z));
 	}
 
 	@Override
-	public float getRainStrength(Point3D position){
-		return world.isRainingAt(new BlockPos(position.x, position.y + 1, position.z)) ? world.getRainStrength(1.0F) + world.getThunderStrength(1.0F) : 0.0F;
+	public float getRainStrength(double x, double y, double z){
+		BlockPos pos = getMutablePos(x, y + 1, z);
+		long key = pos.toLong();
+		long time = world.getTotalWorldTime();
+		float rainStrength = rainCache.get(key, time);
+		if(Float.isNaN(rainStrength)){
+			rainStrength = world.isRainingAt(pos) ? world.getRainStrength(1.0F) + world.getThunderStrength(1.0F) : 0.0F;
+			rainCache.set(key, time, rainStrength);
+		}
+		return rainStrength;
 	}
 	
 	@Override
@@ -641,11 +665,19 @@ public class WrapperWorld extends AWrapperWorld{
 	}
 	
 	@Override
-	public float getLightBrightness(Point3D position, boolean calculateBlock){
-		BlockPos pos = new BlockPos(position.x, position.y, position.z);
-		float sunLight = world.getSunBrightness(0)*(world.getLightFor(EnumSkyBlock.SKY, pos) - world.getSkylightSubtracted())/15F;
-		float blockLight = calculateBlock ? world.getLightFromNeighborsFor(EnumSkyBlock.BLOCK, pos)/15F : 0.0F;
-		return Math.max(sunLight, blockLight);
+	public float getLightBrightness(double x, double y, double z, boolean calculateBlock){
+		BlockPos pos = getMutablePos(x, y, z);
+		BlockValueCache lightCache = calculateBlock ? totalLightCache : sunLightCache;
+		long key = pos.toLong();
+		long time = world.getTotalWorldTime();
+		float brightness = lightCache.get(key, time);
+		if(Float.isNaN(brightness)){
+			float sunLight = world.getSunBrightness(0)*(world.getLightFor(EnumSkyBlock.SKY, pos) - world.getSkylightSubtracted())/15F;
+			float blockLight = calculateBlock ? world.getLightFromNeighborsFor(EnumSkyBlock.BLOCK, pos)/15F : 0.0F;
+			brightness = Math.max(sunLight, blockLight);
+			lightCache.set(key, time, brightness);
+		}
+		return brightness;
 	}
 	
 	@Override
@@ -662,8 +694,8 @@ public class WrapperWorld extends AWrapperWorld{
 	}
 	
 	@Override
-	public boolean isAir(Point3D position){
-		BlockPos pos = new BlockPos(position.x, position.y, position.z);
+	public boolean isAir(double x, double y, double z){
+		BlockPos pos = getMutablePos(x, y, z);
 		IBlockState state = world.getBlockState(pos); 
 		Block block = state.getBlock();
 		return block.isAir(state, world, pos);
@@ -909,9 +941,28 @@ public class WrapperWorld extends AWrapperWorld{
            for(EntityBullet bullet : getEntitiesOfType(EntityBullet.class)){
                bullet.update();
            }
+           
+           //Send data to clients that requested it this tick.
+           beginProfiling("MTS_HandshakeData", false);
+           PacketEntityCSHandshakeServer.sendQueuedPackets();
+           
+           //Send and save changed data.
+           beginProfiling("MTS_SavedData", false);
+           savedDataStore.update();
+           endProfiling();
        }
    }
 	
+   /**
+    * Remove cached collisions for chunks that unload.  Blocks in them may change before they are loaded again.
+    */
+   @SubscribeEvent
+   public void on(ChunkEvent.Unload event){
+	   if(event.getWorld() == world){
+		   collisionCache.removeChunk(event.getChunk().x, event.getChunk().z);
+	   }
+   }
+	
 	/**
     * Remove all entities from our maps if we unload the world.  This will cause duplicates if we don't.
     * Also remove this wrapper from the created lists, as it's invalid.
@@ -923,6 +974,11 @@ public class WrapperWorld extends AWrapperWorld{
 	    	for(AEntityA_Base entity : allEntities){
 	    		entity.remove();
 	    	}
+	    	particles.clear();
+	    	if(savedDataStore != null){
+	    		savedDataStore.flush();
+	    	}
+	    	world.removeEventListener(collisionCache);
 	    	worldWrappers.remove(world);
 	   	}
    }
@@ -0,0 +1,132 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+
+/**Class that does swept collision checks for a {@link BoundingBox}.  Rather than moving a box to where
+ * it wants to go and checking if it collided, this class gets all block collisions in the area the box
+ * will cover over its entire motion, and then finds how far the box can move on each axis before it hits one.
+ * This prevents fast-moving boxes from going through thin walls, and only requires a single block query per box.
+ * <br><br>
+ * Axis are moved in X, Z, then Y order, with each axis starting where the prior one stopped.  This is the
+ * same order that vehicles use for collision correction.  Blocks the box is already inside of at the start
+ * of the motion are ignored, as there's no face to stop on.  Those have to be handled by depth-based checks.
+ * Instances are re-usable, and should be re-used, as they keep an internal buffer for block boxes.
+ *
+ * @author don_bruce
+ */
+public class BoundingBoxSweeper{
+	/**True if the box in the last sweep started inside a block.  As those blocks are ignored, callers need to check the box some other way.**/
+	public boolean startedInBlock;
+	
+	private double[] obstacles = new double[6*32];
+	private int obstacleCount;
+
+	//Current box bounds.  These move as each axis is swept.
+	private double minX;
+	private double minY;
+	private double minZ;
+	private double maxX;
+	private double maxY;
+	private double maxZ;
+
+	/**
+	 *  Adds an obstacle to this sweeper.  Called by the world when populating block collisions.
+	 */
+	public void addObstacle(double obstacleMinX, double obstacleMinY, double obstacleMinZ, double obstacleMaxX, double obstacleMaxY, double obstacleMaxZ){
+		if((obstacleCount + 1)*6 > obstacles.length){
+			obstacles = Arrays.copyOf(obstacles, obstacles.length*2);
+		}
+		int index = obstacleCount*6;
+		obstacles[index] = obstacleMinX;
+		obstacles[index + 1] = obstacleMinY;
+		obstacles[index + 2] = obstacleMinZ;
+		obstacles[index + 3] = obstacleMaxX;
+		obstacles[index + 4] = obstacleMaxY;
+		obstacles[index + 5] = obstacleMaxZ;
+		++obstacleCount;
+	}
+
+	/**
+	 *  Sweeps the passed-in box, offset by the passed-in offset, along the passed-in motion.
+	 *  The motion is clamped on each axis so the box stops when it touches a block.  Returns true
+	 *  if any axis was clamped, false if the box can move the full motion without a collision.
+	 */
+	public boolean sweep(AWrapperWorld world, BoundingBox box, Point3D offset, Point3D motion){
+		minX = box.globalCenter.x + offset.x - box.widthRadius;
+		minY = box.globalCenter.y + offset.y - box.heightRadius;
+		minZ = box.globalCenter.z + offset.z - box.depthRadius;
+		maxX = box.globalCenter.x + offset.x + box.widthRadius;
+		maxY = box.globalCenter.y + offset.y + box.heightRadius;
+		maxZ = box.globalCenter.z + offset.z + box.depthRadius;
+
+		//Get all blocks in the area covered by the motion.
+		obstacleCount = 0;
+		startedInBlock = false;
+		world.addBlockObstacles(this, minX + Math.min(motion.x, 0), minY + Math.min(motion.y, 0), minZ + Math.min(motion.z, 0), maxX + Math.max(motion.x, 0), maxY + Math.max(motion.y, 0), maxZ + Math.max(motion.z, 0));
+		if(obstacleCount == 0){
+			return false;
+		}
+		for(int index=0, endIndex=obstacleCount*6; index<endIndex; index+=6){
+			if(obstacles[index] < maxX && obstacles[index + 3] > minX && obstacles[index + 1] < maxY && obstacles[index + 4] > minY && obstacles[index + 2] < maxZ && obstacles[index + 5] > minZ){
+				startedInBlock = true;
+				break;
+			}
+		}
+
+		boolean clamped = false;
+		if(motion.x != 0){
+			double allowedMotion = sweepAxis(0, motion.x);
+			if(allowedMotion != motion.x){
+				motion.x = allowedMotion;
+				clamped = true;
+			}
+			minX += motion.x;
+			maxX += motion.x;
+		}
+		if(motion.z != 0){
+			double allowedMotion = sweepAxis(2, motion.z);
+			if(allowedMotion != motion.z){
+				motion.z = allowedMotion;
+				clamped = true;
+			}
+			minZ += motion.z;
+			maxZ += motion.z;
+		}
+		if(motion.y != 0){
+			double allowedMotion = sweepAxis(1, motion.y);
+			if(allowedMotion != motion.y){
+				motion.y = allowedMotion;
+				clamped = true;
+			}
+		}
+		return clamped;
+	}
+
+	/**
+	 *  Returns the motion the box can go on the passed-in axis before hitting an obstacle.
+	 *  Axis are 0 for X, 1 for Y, and 2 for Z, which matches the obstacle buffer layout.
+	 */
+	private double sweepAxis(int axis, double axisMotion){
+		double boxMin = axis == 0 ? minX : (axis == 1 ? minY : minZ);
+		double boxMax = axis == 0 ? maxX : (axis == 1 ? maxY : maxZ);
+		for(int index=0, endIndex=obstacleCount*6; index<endIndex; index+=6){
+			//Obstacle has to overlap on the other two axis to be hit.
+			if((axis == 0 || (obstacles[index] < maxX && obstacles[index + 3] > minX)) && (axis == 1 || (obstacles[index + 1] < maxY && obstacles[index + 4] > minY)) && (axis == 2 || (obstacles[index + 2] < maxZ && obstacles[index + 5] > minZ))){
+				if(axisMotion > 0){
+					double distance = obstacles[index + axis] - boxMax;
+					if(distance >= 0 && distance < axisMotion){
+						axisMotion = distance;
+					}
+				}else{
+					double distance = obstacles[index + axis + 3] - boxMin;
+					if(distance <= 0 && distance > axisMotion){
+						axisMotion = distance;
+					}
+				}
+			}
+		}
+		return axisMotion;
+	}
+}
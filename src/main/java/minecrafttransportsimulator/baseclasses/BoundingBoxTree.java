@@ -0,0 +1,345 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.entities.instances.APart;
+
+/**Tree of bounding boxes.  Used by multiparts to find which of their boxes are in an area, at a point,
+ * or along a line without checking every box.  Each node holds the bounds of all boxes below it, so whole
+ * branches can be skipped with a single check.  Boxes also know the part they belong to, so queries don't
+ * need to search the parts to find it.
+ * <br><br>
+ * The shape of the tree is only made in {@link #build()}, which is only needed when the boxes in the tree change,
+ * as happens when parts are added or removed.  When boxes move, {@link #refit()} updates the node bounds
+ * in-place.  Boxes also have flags for the lists they are currently in, as boxes may be turned on and off by
+ * animations or held items.  Queries only return boxes with the flags they ask for, and nodes hold the flags
+ * of all the boxes below them, so branches with no boxes of the requested type are skipped.
+ *
+ * @author don_bruce
+ */
+public class BoundingBoxTree{
+	/**Flag for boxes that other entities collide with.**/
+	public static final int COLLISION = 1;
+	/**Flag for boxes that players can interact with.**/
+	public static final int INTERACTION = 2;
+	/**Flag for boxes that only bullets collide with.**/
+	public static final int BULLET = 4;
+	/**Flag for boxes of part slots.**/
+	public static final int PART_SLOT = 8;
+	
+	private final List<BoundingBox> boxes = new ArrayList<BoundingBox>();
+	private final List<APart> owners = new ArrayList<APart>();
+	private final Map<BoundingBox, Integer> boxIndexes = new HashMap<BoundingBox, Integer>();
+	private int[] boxFlags = new int[0];
+	private boolean built;
+	
+	//Node data.  Nodes are stored depth-first, so the left child of a node is always the next node,
+	//and both children always come after their parent.  Bounds are stored as minX, minY, minZ, maxX, maxY, maxZ.
+	private int nodeCount;
+	private double[] nodeBounds = new double[0];
+	private int[] nodeFlags = new int[0];
+	private int[] nodeRightChildren = new int[0];
+	private int[] nodeBoxes = new int[0];
+	
+	//Line query variables.  Used to prevent passing the line around every node check.
+	private double lineStartX;
+	private double lineStartY;
+	private double lineStartZ;
+	private double lineDeltaX;
+	private double lineDeltaY;
+	private double lineDeltaZ;
+	
+	/**
+	 *  Removes all boxes from this tree.  Boxes need to be added and {@link #build()} called before it can be used again.
+	 */
+	public void clear(){
+		boxes.clear();
+		owners.clear();
+		boxIndexes.clear();
+		built = false;
+		nodeCount = 0;
+	}
+	
+	/**
+	 *  Adds the passed-in boxes to this tree.  Boxes already in the tree are not added twice.
+	 *  Boxes have no owner until one is set with {@link #setOwner(Collection, APart)}.
+	 */
+	public void addBoxes(Collection<BoundingBox> boxesToAdd){
+		for(BoundingBox box : boxesToAdd){
+			if(!boxIndexes.containsKey(box)){
+				boxIndexes.put(box, boxes.size());
+				boxes.add(box);
+				owners.add(null);
+			}
+		}
+		built = false;
+	}
+	
+	/**
+	 *  Sets the owner of the passed-in boxes to the passed-in part.  Boxes not in this tree are ignored.
+	 */
+	public void setOwner(Collection<BoundingBox> ownedBoxes, APart owner){
+		for(BoundingBox box : ownedBoxes){
+			Integer boxIndex = boxIndexes.get(box);
+			if(boxIndex != null){
+				owners.set(boxIndex, owner);
+			}
+		}
+	}
+	
+	/**
+	 *  Makes the tree for all added boxes.  Boxes are split by their current positions, so
+	 *  this should be called after they are updated.  Flags are cleared by this call.
+	 */
+	public void build(){
+		int boxCount = boxes.size();
+		int maxNodes = Math.max(2*boxCount - 1, 0);
+		if(nodeBoxes.length < maxNodes){
+			nodeBounds = new double[maxNodes*6];
+			nodeFlags = new int[maxNodes];
+			nodeRightChildren = new int[maxNodes];
+			nodeBoxes = new int[maxNodes];
+		}
+		boxFlags = new int[boxCount];
+		nodeCount = 0;
+		if(boxCount > 0){
+			Integer[] order = new Integer[boxCount];
+			for(int i=0; i<boxCount; ++i){
+				order[i] = i;
+			}
+			buildNode(order, 0, boxCount);
+		}
+		built = true;
+		refit();
+	}
+	
+	/**
+	 *  Clears the flags of all boxes.  Should be called before re-flagging boxes.
+	 */
+	public void clearFlags(){
+		Arrays.fill(boxFlags, 0);
+	}
+	
+	/**
+	 *  Adds the passed-in flag to the passed-in boxes.  Returns false if any of the boxes isn't in this tree,
+	 *  in which case the tree needs to be re-made for it to contain them.
+	 */
+	public boolean addFlags(Collection<BoundingBox> flaggedBoxes, int flag){
+		for(BoundingBox box : flaggedBoxes){
+			Integer boxIndex = boxIndexes.get(box);
+			if(boxIndex == null || boxIndex >= boxFlags.length){
+				return false;
+			}
+			boxFlags[boxIndex] |= flag;
+		}
+		return true;
+	}
+	
+	/**
+	 *  Updates the bounds and flags of all nodes to the current box positions and flags.
+	 *  The shape of the tree doesn't change, so this is far cheaper than a build, but
+	 *  queries may check more nodes if boxes have moved a lot relative to each other.
+	 */
+	public void refit(){
+		for(int node=nodeCount-1; node>=0; --node){
+			int offset = node*6;
+			int boxIndex = nodeBoxes[node];
+			if(boxIndex != -1){
+				BoundingBox box = boxes.get(boxIndex);
+				nodeBounds[offset] = box.globalCenter.x - box.widthRadius;
+				nodeBounds[offset + 1] = box.globalCenter.y - box.heightRadius;
+				nodeBounds[offset + 2] = box.globalCenter.z - box.depthRadius;
+				nodeBounds[offset + 3] = box.globalCenter.x + box.widthRadius;
+				nodeBounds[offset + 4] = box.globalCenter.y + box.heightRadius;
+				nodeBounds[offset + 5] = box.globalCenter.z + box.depthRadius;
+				nodeFlags[node] = boxFlags[boxIndex];
+			}else{
+				int leftOffset = offset + 6;
+				int rightOffset = nodeRightChildren[node]*6;
+				for(int i=0; i<3; ++i){
+					nodeBounds[offset + i] = Math.min(nodeBounds[leftOffset + i], nodeBounds[rightOffset + i]);
+					nodeBounds[offset + 3 + i] = Math.max(nodeBounds[leftOffset + 3 + i], nodeBounds[rightOffset + 3 + i]);
+				}
+				nodeFlags[node] = nodeFlags[node + 1] | nodeFlags[nodeRightChildren[node]];
+			}
+		}
+	}
+	
+	/**
+	 *  Returns true if the passed-in box is in this tree.
+	 */
+	public boolean containsBox(BoundingBox box){
+		return boxIndexes.containsKey(box);
+	}
+	
+	/**
+	 *  Returns the part that owns the passed-in box, or null if the box isn't owned by a part or isn't in this tree.
+	 */
+	public APart getOwner(BoundingBox box){
+		Integer boxIndex = boxIndexes.get(box);
+		return boxIndex != null ? owners.get(boxIndex) : null;
+	}
+	
+	/**
+	 *  Populates the passed-in list with all boxes with any of the passed-in flags that intersect the
+	 *  passed-in bounds, as defined by {@link BoundingBox#intersects(BoundingBox)}.  The list is cleared prior to populating.
+	 */
+	public void getBoxesInBounds(BoundingBox bounds, int flags, List<BoundingBox> foundBoxes){
+		foundBoxes.clear();
+		if(built && nodeCount > 0){
+			addBoxesInBounds(0, bounds, flags, foundBoxes);
+		}
+	}
+	
+	/**
+	 *  Populates the passed-in list with all boxes with any of the passed-in flags that the passed-in point
+	 *  is inside, as defined by {@link BoundingBox#isPointInside(Point3D)}.  The list is cleared prior to populating.
+	 */
+	public void getBoxesAtPoint(Point3D point, int flags, List<BoundingBox> foundBoxes){
+		foundBoxes.clear();
+		if(built && nodeCount > 0){
+			addBoxesAtPoint(0, point, flags, foundBoxes);
+		}
+	}
+	
+	/**
+	 *  Populates the passed-in list with all boxes with any of the passed-in flags that the line between the
+	 *  passed-in points passes through.  The list is cleared prior to populating.  Boxes are not sorted, and
+	 *  callers that need the point where the line hits a box should get it from {@link BoundingBox#getIntersectionPoint(Point3D, Point3D)}.
+	 */
+	public void getBoxesAlongLine(Point3D start, Point3D end, int flags, List<BoundingBox> foundBoxes){
+		foundBoxes.clear();
+		if(built && nodeCount > 0){
+			lineStartX = start.x;
+			lineStartY = start.y;
+			lineStartZ = start.z;
+			lineDeltaX = end.x - start.x;
+			lineDeltaY = end.y - start.y;
+			lineDeltaZ = end.z - start.z;
+			addBoxesAlongLine(0, flags, foundBoxes);
+		}
+	}
+	
+	private int buildNode(Integer[] order, int start, int end){
+		int node = nodeCount++;
+		if(end - start == 1){
+			nodeBoxes[node] = order[start];
+			nodeRightChildren[node] = -1;
+		}else{
+			//Split the boxes in half along the axis their centers are most spread out on.
+			double minX = Double.MAX_VALUE;
+			double minY = Double.MAX_VALUE;
+			double minZ = Double.MAX_VALUE;
+			double maxX = -Double.MAX_VALUE;
+			double maxY = -Double.MAX_VALUE;
+			double maxZ = -Double.MAX_VALUE;
+			for(int i=start; i<end; ++i){
+				Point3D center = boxes.get(order[i]).globalCenter;
+				minX = Math.min(minX, center.x);
+				minY = Math.min(minY, center.y);
+				minZ = Math.min(minZ, center.z);
+				maxX = Math.max(maxX, center.x);
+				maxY = Math.max(maxY, center.y);
+				maxZ = Math.max(maxZ, center.z);
+			}
+			double spreadX = maxX - minX;
+			double spreadY = maxY - minY;
+			double spreadZ = maxZ - minZ;
+			if(spreadX >= spreadY && spreadX >= spreadZ){
+				Arrays.sort(order, start, end, (first, second) -> Double.compare(boxes.get(first).globalCenter.x, boxes.get(second).globalCenter.x));
+			}else if(spreadY >= spreadZ){
+				Arrays.sort(order, start, end, (first, second) -> Double.compare(boxes.get(first).globalCenter.y, boxes.get(second).globalCenter.y));
+			}else{
+				Arrays.sort(order, start, end, (first, second) -> Double.compare(boxes.get(first).globalCenter.z, boxes.get(second).globalCenter.z));
+			}
+			int middle = (start + end)/2;
+			nodeBoxes[node] = -1;
+			buildNode(order, start, middle);
+			nodeRightChildren[node] = buildNode(order, middle, end);
+		}
+		return node;
+	}
+	
+	private void addBoxesInBounds(int node, BoundingBox bounds, int flags, List<BoundingBox> foundBoxes){
+		int offset = node*6;
+		if((nodeFlags[node] & flags) != 0 &&
+				nodeBounds[offset] < bounds.globalCenter.x + bounds.widthRadius &&
+				nodeBounds[offset + 3] > bounds.globalCenter.x - bounds.widthRadius &&
+				nodeBounds[offset + 1] < bounds.globalCenter.y + bounds.heightRadius &&
+				nodeBounds[offset + 4] > bounds.globalCenter.y - bounds.heightRadius &&
+				nodeBounds[offset + 2] < bounds.globalCenter.z + bounds.depthRadius &&
+				nodeBounds[offset + 5] > bounds.globalCenter.z - bounds.depthRadius){
+			if(nodeBoxes[node] != -1){
+				foundBoxes.add(boxes.get(nodeBoxes[node]));
+			}else{
+				addBoxesInBounds(node + 1, bounds, flags, foundBoxes);
+				addBoxesInBounds(nodeRightChildren[node], bounds, flags, foundBoxes);
+			}
+		}
+	}
+	
+	private void addBoxesAtPoint(int node, Point3D point, int flags, List<BoundingBox> foundBoxes){
+		int offset = node*6;
+		if((nodeFlags[node] & flags) != 0 &&
+				nodeBounds[offset] <= point.x && nodeBounds[offset + 3] >= point.x &&
+				nodeBounds[offset + 1] <= point.y && nodeBounds[offset + 4] >= point.y &&
+				nodeBounds[offset + 2] <= point.z && nodeBounds[offset + 5] >= point.z){
+			if(nodeBoxes[node] != -1){
+				foundBoxes.add(boxes.get(nodeBoxes[node]));
+			}else{
+				addBoxesAtPoint(node + 1, point, flags, foundBoxes);
+				addBoxesAtPoint(nodeRightChildren[node], point, flags, foundBoxes);
+			}
+		}
+	}
+	
+	private void addBoxesAlongLine(int node, int flags, List<BoundingBox> foundBoxes){
+		if((nodeFlags[node] & flags) != 0 && isLineInNode(node*6)){
+			if(nodeBoxes[node] != -1){
+				foundBoxes.add(boxes.get(nodeBoxes[node]));
+			}else{
+				addBoxesAlongLine(node + 1, flags, foundBoxes);
+				addBoxesAlongLine(nodeRightChildren[node], flags, foundBoxes);
+			}
+		}
+	}
+	
+	/**
+	 *  Returns true if the current query line passes through the node bounds at the passed-in offset.
+	 *  This clips the line to the bounds one axis at a time, and fails if nothing of the line is left.
+	 */
+	private boolean isLineInNode(int offset){
+		double lineMin = 0;
+		double lineMax = 1;
+		for(int i=0; i<3; ++i){
+			double start = i == 0 ? lineStartX : (i == 1 ? lineStartY : lineStartZ);
+			double delta = i == 0 ? lineDeltaX : (i == 1 ? lineDeltaY : lineDeltaZ);
+			double boundsMin = nodeBounds[offset + i];
+			double boundsMax = nodeBounds[offset + 3 + i];
+			if(delta == 0){
+				if(start < boundsMin || start > boundsMax){
+					return false;
+				}
+			}else{
+				double minHit = (boundsMin - start)/delta;
+				double maxHit = (boundsMax - start)/delta;
+				if(minHit > maxHit){
+					double temp = minHit;
+					minHit = maxHit;
+					maxHit = temp;
+				}
+				lineMin = Math.max(lineMin, minHit);
+				lineMax = Math.min(lineMax, maxHit);
+				if(lineMin > lineMax){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,241 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
+
+/**Uniform grid used to find entities near a point, box, or line without checking every entity in the world.
+ * Entities are placed in every XZ column cell that their {@link AEntityE_Interactable#encompassingBox} touches.
+ * Y isn't split as entities are rarely stacked, and it keeps the cell count for tall entities low.
+ * Entities are only moved between cells when the range of cells they touch changes, so most updates
+ * for slow-moving entities are just a bounds check.
+ * <br><br>
+ * Queries return the entities whose encompassing box actually overlaps the query area, not just those in
+ * the same cells.  This class isn't thread-safe, so it should only be used from the thread that updates the world.
+ *
+ * @author don_bruce
+ */
+public class EntityGrid{
+	private static final int CELL_BITS = 4;
+
+	private final Map<Long, List<GridEntry>> cells = new HashMap<Long, List<GridEntry>>();
+	private final Map<AEntityE_Interactable<?>, GridEntry> entries = new HashMap<AEntityE_Interactable<?>, GridEntry>();
+	private int currentQuery;
+
+	/**
+	 *  Adds the entity to this grid, or updates its cells if it is already in the grid.
+	 */
+	public void addEntity(AEntityE_Interactable<?> entity){
+		GridEntry entry = entries.get(entity);
+		if(entry == null){
+			entry = new GridEntry(entity);
+			entries.put(entity, entry);
+			entry.setCells();
+			addToCells(entry);
+		}else{
+			updateEntity(entity);
+		}
+	}
+
+	/**
+	 *  Updates the cells the entity is in to match its current encompassing box.
+	 *  Entities that haven't been added to this grid are ignored.  This allows this method
+	 *  to be called during entity construction prior to the entity being added to the world.
+	 */
+	public void updateEntity(AEntityE_Interactable<?> entity){
+		GridEntry entry = entries.get(entity);
+		if(entry != null){
+			BoundingBox box = entity.encompassingBox;
+			if(entry.minX != getCell(box.globalCenter.x - box.widthRadius) || entry.maxX != getCell(box.globalCenter.x + box.widthRadius) || entry.minZ != getCell(box.globalCenter.z - box.depthRadius) || entry.maxZ != getCell(box.globalCenter.z + box.depthRadius)){
+				removeFromCells(entry);
+				entry.setCells();
+				addToCells(entry);
+			}
+		}
+	}
+
+	/**
+	 *  Removes the entity from this grid.
+	 */
+	public void removeEntity(AEntityE_Interactable<?> entity){
+		GridEntry entry = entries.remove(entity);
+		if(entry != null){
+			removeFromCells(entry);
+		}
+	}
+
+	/**
+	 *  Populates the passed-in list with all entities of the passed-in class whose encompassing box intersects the passed-in box.
+	 *  The list is cleared prior to populating.
+	 */
+	public <EntityType extends AEntityE_Interactable<?>> void getEntitiesInBounds(Class<EntityType> entityClass, BoundingBox bounds, List<EntityType> entityList){
+		entityList.clear();
+		++currentQuery;
+		int maxX = getCell(bounds.globalCenter.x + bounds.widthRadius);
+		int maxZ = getCell(bounds.globalCenter.z + bounds.depthRadius);
+		for(int cellX=getCell(bounds.globalCenter.x - bounds.widthRadius); cellX<=maxX; ++cellX){
+			for(int cellZ=getCell(bounds.globalCenter.z - bounds.depthRadius); cellZ<=maxZ; ++cellZ){
+				List<GridEntry> cell = cells.get(getKey(cellX, cellZ));
+				if(cell != null){
+					for(GridEntry entry : cell){
+						if(entry.lastQuery != currentQuery){
+							entry.lastQuery = currentQuery;
+							if(entityClass.isInstance(entry.entity) && entry.entity.encompassingBox.intersects(bounds)){
+								entityList.add(entityClass.cast(entry.entity));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Populates the passed-in list with all entities of the passed-in class whose encompassing box is within the passed-in radius of the passed-in point.
+	 *  The list is cleared prior to populating.
+	 */
+	public <EntityType extends AEntityE_Interactable<?>> void getEntitiesInRadius(Class<EntityType> entityClass, Point3D center, double radius, List<EntityType> entityList){
+		entityList.clear();
+		++currentQuery;
+		int maxX = getCell(center.x + radius);
+		int maxZ = getCell(center.z + radius);
+		double radiusSquared = radius*radius;
+		for(int cellX=getCell(center.x - radius); cellX<=maxX; ++cellX){
+			for(int cellZ=getCell(center.z - radius); cellZ<=maxZ; ++cellZ){
+				List<GridEntry> cell = cells.get(getKey(cellX, cellZ));
+				if(cell != null){
+					for(GridEntry entry : cell){
+						if(entry.lastQuery != currentQuery){
+							entry.lastQuery = currentQuery;
+							if(entityClass.isInstance(entry.entity)){
+								//Get the distance from the closest point on the box to the center.
+								BoundingBox box = entry.entity.encompassingBox;
+								double deltaX = Math.max(Math.abs(center.x - box.globalCenter.x) - box.widthRadius, 0);
+								double deltaY = Math.max(Math.abs(center.y - box.globalCenter.y) - box.heightRadius, 0);
+								double deltaZ = Math.max(Math.abs(center.z - box.globalCenter.z) - box.depthRadius, 0);
+								if(deltaX*deltaX + deltaY*deltaY + deltaZ*deltaZ <= radiusSquared){
+									entityList.add(entityClass.cast(entry.entity));
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Populates the passed-in list with all entities of the passed-in class whose encompassing box is crossed by the line between the passed-in points.
+	 *  The list is cleared prior to populating.
+	 */
+	public <EntityType extends AEntityE_Interactable<?>> void getEntitiesAlongLine(Class<EntityType> entityClass, Point3D start, Point3D end, List<EntityType> entityList){
+		entityList.clear();
+		++currentQuery;
+		int maxX = getCell(Math.max(start.x, end.x));
+		int maxZ = getCell(Math.max(start.z, end.z));
+		for(int cellX=getCell(Math.min(start.x, end.x)); cellX<=maxX; ++cellX){
+			for(int cellZ=getCell(Math.min(start.z, end.z)); cellZ<=maxZ; ++cellZ){
+				List<GridEntry> cell = cells.get(getKey(cellX, cellZ));
+				if(cell != null){
+					for(GridEntry entry : cell){
+						if(entry.lastQuery != currentQuery){
+							entry.lastQuery = currentQuery;
+							if(entityClass.isInstance(entry.entity) && isLineInBox(entry.entity.encompassingBox, start, end)){
+								entityList.add(entityClass.cast(entry.entity));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Slab test for a line and a box.  Returns true if any part of the line is inside the box.
+	 */
+	private static boolean isLineInBox(BoundingBox box, Point3D start, Point3D end){
+		double minFactor = 0;
+		double maxFactor = 1;
+		for(int axis=0; axis<3; ++axis){
+			double startValue = axis == 0 ? start.x : (axis == 1 ? start.y : start.z);
+			double delta = (axis == 0 ? end.x : (axis == 1 ? end.y : end.z)) - startValue;
+			double center = axis == 0 ? box.globalCenter.x : (axis == 1 ? box.globalCenter.y : box.globalCenter.z);
+			double radius = axis == 0 ? box.widthRadius : (axis == 1 ? box.heightRadius : box.depthRadius);
+			if(delta == 0){
+				if(startValue < center - radius || startValue > center + radius){
+					return false;
+				}
+			}else{
+				double firstFactor = (center - radius - startValue)/delta;
+				double secondFactor = (center + radius - startValue)/delta;
+				minFactor = Math.max(minFactor, Math.min(firstFactor, secondFactor));
+				maxFactor = Math.min(maxFactor, Math.max(firstFactor, secondFactor));
+				if(minFactor > maxFactor){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private void addToCells(GridEntry entry){
+		for(int cellX=entry.minX; cellX<=entry.maxX; ++cellX){
+			for(int cellZ=entry.minZ; cellZ<=entry.maxZ; ++cellZ){
+				Long key = getKey(cellX, cellZ);
+				List<GridEntry> cell = cells.get(key);
+				if(cell == null){
+					cell = new ArrayList<GridEntry>();
+					cells.put(key, cell);
+				}
+				cell.add(entry);
+			}
+		}
+	}
+
+	private void removeFromCells(GridEntry entry){
+		for(int cellX=entry.minX; cellX<=entry.maxX; ++cellX){
+			for(int cellZ=entry.minZ; cellZ<=entry.maxZ; ++cellZ){
+				Long key = getKey(cellX, cellZ);
+				List<GridEntry> cell = cells.get(key);
+				if(cell != null){
+					cell.remove(entry);
+					if(cell.isEmpty()){
+						cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	private static int getCell(double coord){
+		return ((int) Math.floor(coord)) >> CELL_BITS;
+	}
+
+	private static long getKey(int cellX, int cellZ){
+		return (((long) cellX) << 32) | (cellZ & 0xFFFFFFFFL);
+	}
+
+	private static class GridEntry{
+		private final AEntityE_Interactable<?> entity;
+		private int minX;
+		private int maxX;
+		private int minZ;
+		private int maxZ;
+		private int lastQuery;
+
+		private GridEntry(AEntityE_Interactable<?> entity){
+			this.entity = entity;
+		}
+
+		private void setCells(){
+			BoundingBox box = entity.encompassingBox;
+			minX = getCell(box.globalCenter.x - box.widthRadius);
+			maxX = getCell(box.globalCenter.x + box.widthRadius);
+			minZ = getCell(box.globalCenter.z - box.depthRadius);
+			maxZ = getCell(box.globalCenter.z + box.depthRadius);
+		}
+	}
+}
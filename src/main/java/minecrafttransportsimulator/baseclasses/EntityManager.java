@@ -1,5 +1,7 @@
 package minecrafttransportsimulator.baseclasses;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -18,6 +20,8 @@ public class EntityManager{
 	public final ConcurrentLinkedQueue<AEntityC_Renderable> renderableEntities = new ConcurrentLinkedQueue<AEntityC_Renderable>();
 	private final ConcurrentHashMap<Class<? extends AEntityA_Base>, ConcurrentLinkedQueue<? extends AEntityA_Base>> entitiesByClass = new ConcurrentHashMap<Class<? extends AEntityA_Base>, ConcurrentLinkedQueue<? extends AEntityA_Base>>();
 	private final ConcurrentHashMap<UUID, AEntityA_Base> trackedEntityMap = new ConcurrentHashMap<UUID, AEntityA_Base>();
+	private final EntityGrid entityGrid = new EntityGrid();
+	private final EntitySensorGrid sensorGrid = new EntitySensorGrid();
 	
    
    /**
@@ -43,6 +47,20 @@ public class EntityManager{
 	   if(entity.shouldSync()){
 		   trackedEntityMap.put(entity.uniqueUUID, entity);
 	   }
+	   if(entity instanceof AEntityE_Interactable){
+		   entityGrid.addEntity((AEntityE_Interactable<?>) entity);
+		   sensorGrid.updateEntity((AEntityE_Interactable<?>) entity);
+	   }
+   }
+   
+   /**
+    * Updates the spatial grid position of the entity.  This should be called any time
+    * the entity's encompassing box changes, otherwise the entity may be missed in the
+    * various bounds queries.  Entities not yet added to the world are ignored.
+    */
+   public void updateEntityBounds(AEntityE_Interactable<?> entity){
+	   entityGrid.updateEntity(entity);
+	   sensorGrid.updateEntity(entity);
    }
    
    /**
@@ -75,8 +93,10 @@ public class EntityManager{
 	   BoundingBox closestBox = null;
 	   EntityType closestEntity = null;
 	   BoundingBox clickBounds = new BoundingBox(start, end);
-	   for(EntityType entity : getEntitiesOfType(entityClass)){
-		   if(!entity.equals(entityToIgnore) && entity.encompassingBox.intersects(clickBounds)){
+	   List<EntityType> nearbyEntities = new ArrayList<EntityType>();
+	   getEntitiesInBounds(entityClass, clickBounds, nearbyEntities);
+	   for(EntityType entity : nearbyEntities){
+		   if(!entity.equals(entityToIgnore)){
 				//Could have hit this entity, check if we did via raytracing.
 				for(BoundingBox box : entity.getInteractionBoxes()){
 					boolean intersects;
@@ -103,6 +123,50 @@ public class EntityManager{
 	   return closestEntity;
    }
    
+   /**
+    * Populates the passed-in list with all entities of the specified class whose encompassing
+    * box intersects the passed-in box.  The list is cleared prior to populating.  This only
+    * checks entities near the box, so it should be used over iterating {@link #getEntitiesOfType(Class)}
+    * for any area-based checks.
+    */
+   public <EntityType extends AEntityE_Interactable<?>> void getEntitiesInBounds(Class<EntityType> entityClass, BoundingBox bounds, List<EntityType> entityList){
+	   entityGrid.getEntitiesInBounds(entityClass, bounds, entityList);
+   }
+   
+   /**
+    * Like {@link #getEntitiesInBounds(Class, BoundingBox, List)}, but for a sphere about the passed-in point.
+    */
+   public <EntityType extends AEntityE_Interactable<?>> void getEntitiesInRadius(Class<EntityType> entityClass, Point3D center, double radius, List<EntityType> entityList){
+	   entityGrid.getEntitiesInRadius(entityClass, center, radius, entityList);
+   }
+   
+   /**
+    * Like {@link #getEntitiesInBounds(Class, BoundingBox, List)}, but for the line between the passed-in points.
+    */
+   public <EntityType extends AEntityE_Interactable<?>> void getEntitiesAlongLine(Class<EntityType> entityClass, Point3D start, Point3D end, List<EntityType> entityList){
+	   entityGrid.getEntitiesAlongLine(entityClass, start, end, entityList);
+   }
+   
+   /**
+    * Adds the sensor to the world.  Its sensed entities will be kept current from this point
+    * on, including any entities already in its area, until it is removed.
+    */
+   public <EntityType extends AEntityE_Interactable<?>> void addSensor(EntitySensor<EntityType> sensor){
+	   sensorGrid.addSensor(sensor);
+	   List<EntityType> entitiesInBounds = new ArrayList<EntityType>();
+	   entityGrid.getEntitiesInBounds(sensor.entityClass, sensor.bounds, entitiesInBounds);
+	   for(EntityType entity : entitiesInBounds){
+		   sensorGrid.updateEntity(entity);
+	   }
+   }
+   
+   /**
+    * Removes the sensor from the world.  Its sensed entities will be cleared.
+    */
+   public void removeSensor(EntitySensor<?> sensor){
+	   sensorGrid.removeSensor(sensor);
+   }
+   
    /**
     * Removes this entity from the world.  Taking it off the update/functional lists.
     */
@@ -115,5 +179,9 @@ public class EntityManager{
 	   if(entity.shouldSync()){
 		   trackedEntityMap.remove(entity.uniqueUUID);
 	   }
+	   if(entity instanceof AEntityE_Interactable){
+		   entityGrid.removeEntity((AEntityE_Interactable<?>) entity);
+		   sensorGrid.removeEntity((AEntityE_Interactable<?>) entity);
+	   }
    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
+
+/**Sensor for entities in an area of the world.  Sensors are added to the world once, and the world keeps
+ * {@link #sensedEntities} current as entities move in and out of the sensor, so owners can simply check that
+ * set rather than searching for entities every time they need to know what's in their area.
+ * <br><br>
+ * The {@link #bounds} is used to find which sensors an entity could be in, so it must contain the whole area
+ * that {@link #isEntityInside(AEntityE_Interactable)} can return true for.  If the area changes, the sensor
+ * must be removed from the world and a new one added.
+ *
+ * @author don_bruce
+ */
+public abstract class EntitySensor<EntityType extends AEntityE_Interactable<?>>{
+	public final Class<EntityType> entityClass;
+	public final BoundingBox bounds;
+	/**Entities currently in this sensor.  Do NOT modify this set, it is maintained by the world.**/
+	public final Set<EntityType> sensedEntities = new HashSet<EntityType>();
+	
+	public EntitySensor(Class<EntityType> entityClass, BoundingBox bounds){
+		this.entityClass = entityClass;
+		this.bounds = bounds;
+	}
+	
+	/**
+	 *  Returns true if the passed-in entity is in this sensor's area.
+	 */
+	public abstract boolean isEntityInside(EntityType entity);
+}
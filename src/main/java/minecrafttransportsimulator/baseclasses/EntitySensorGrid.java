@@ -0,0 +1,137 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
+
+/**Uniform grid of {@link EntitySensor}s.  Sensors are placed in every XZ column cell their bounds touch, and entities
+ * are checked against the sensors in the cell of their position when they move.  This way, entities that aren't near
+ * any sensor only cost a single cell lookup when they move, and sensors never need to search for entities.
+ * <br><br>
+ * Each entity keeps the list of sensors it is in, so it can be removed from them when it leaves their area.
+ * Like {@link EntityGrid}, this class isn't thread-safe, so it should only be used from the thread that updates the world.
+ *
+ * @author don_bruce
+ */
+public class EntitySensorGrid{
+	private static final int CELL_BITS = 4;
+	
+	private final Map<Long, List<EntitySensor<?>>> cells = new HashMap<Long, List<EntitySensor<?>>>();
+	private final Map<AEntityE_Interactable<?>, List<EntitySensor<?>>> entitySensors = new HashMap<AEntityE_Interactable<?>, List<EntitySensor<?>>>();
+	
+	/**
+	 *  Adds the sensor to this grid.  Entities already in the sensor's area won't be in
+	 *  the sensor until they are next updated, so callers should update them after this call.
+	 */
+	public void addSensor(EntitySensor<?> sensor){
+		BoundingBox bounds = sensor.bounds;
+		int maxX = getCell(bounds.globalCenter.x + bounds.widthRadius);
+		int maxZ = getCell(bounds.globalCenter.z + bounds.depthRadius);
+		for(int cellX=getCell(bounds.globalCenter.x - bounds.widthRadius); cellX<=maxX; ++cellX){
+			for(int cellZ=getCell(bounds.globalCenter.z - bounds.depthRadius); cellZ<=maxZ; ++cellZ){
+				Long key = getKey(cellX, cellZ);
+				List<EntitySensor<?>> cell = cells.get(key);
+				if(cell == null){
+					cell = new ArrayList<EntitySensor<?>>();
+					cells.put(key, cell);
+				}
+				cell.add(sensor);
+			}
+		}
+	}
+	
+	/**
+	 *  Removes the sensor from this grid, and removes all entities from the sensor.
+	 */
+	public void removeSensor(EntitySensor<?> sensor){
+		BoundingBox bounds = sensor.bounds;
+		int maxX = getCell(bounds.globalCenter.x + bounds.widthRadius);
+		int maxZ = getCell(bounds.globalCenter.z + bounds.depthRadius);
+		for(int cellX=getCell(bounds.globalCenter.x - bounds.widthRadius); cellX<=maxX; ++cellX){
+			for(int cellZ=getCell(bounds.globalCenter.z - bounds.depthRadius); cellZ<=maxZ; ++cellZ){
+				Long key = getKey(cellX, cellZ);
+				List<EntitySensor<?>> cell = cells.get(key);
+				if(cell != null){
+					cell.remove(sensor);
+					if(cell.isEmpty()){
+						cells.remove(key);
+					}
+				}
+			}
+		}
+		for(AEntityE_Interactable<?> entity : sensor.sensedEntities){
+			List<EntitySensor<?>> sensors = entitySensors.get(entity);
+			sensors.remove(sensor);
+			if(sensors.isEmpty()){
+				entitySensors.remove(entity);
+			}
+		}
+		sensor.sensedEntities.clear();
+	}
+	
+	/**
+	 *  Updates which sensors the entity is in to match its current position.
+	 *  Entities are removed from sensors they have left, and added to sensors they have entered.
+	 */
+	public void updateEntity(AEntityE_Interactable<?> entity){
+		List<EntitySensor<?>> sensors = entitySensors.get(entity);
+		if(sensors != null){
+			Iterator<EntitySensor<?>> iterator = sensors.iterator();
+			while(iterator.hasNext()){
+				EntitySensor<?> sensor = iterator.next();
+				if(!isEntityInside(sensor, entity)){
+					sensor.sensedEntities.remove(entity);
+					iterator.remove();
+				}
+			}
+		}
+		List<EntitySensor<?>> cell = cells.get(getKey(getCell(entity.position.x), getCell(entity.position.z)));
+		if(cell != null){
+			for(EntitySensor<?> sensor : cell){
+				if(!sensor.sensedEntities.contains(entity) && isEntityInside(sensor, entity)){
+					addToSensor(sensor, entity);
+					if(sensors == null){
+						sensors = new ArrayList<EntitySensor<?>>();
+						entitySensors.put(entity, sensors);
+					}
+					sensors.add(sensor);
+				}
+			}
+		}
+		if(sensors != null && sensors.isEmpty()){
+			entitySensors.remove(entity);
+		}
+	}
+	
+	/**
+	 *  Removes the entity from all sensors it is in.
+	 */
+	public void removeEntity(AEntityE_Interactable<?> entity){
+		List<EntitySensor<?>> sensors = entitySensors.remove(entity);
+		if(sensors != null){
+			for(EntitySensor<?> sensor : sensors){
+				sensor.sensedEntities.remove(entity);
+			}
+		}
+	}
+	
+	private static <EntityType extends AEntityE_Interactable<?>> boolean isEntityInside(EntitySensor<EntityType> sensor, AEntityE_Interactable<?> entity){
+		return sensor.entityClass.isInstance(entity) && sensor.isEntityInside(sensor.entityClass.cast(entity));
+	}
+	
+	private static <EntityType extends AEntityE_Interactable<?>> void addToSensor(EntitySensor<EntityType> sensor, AEntityE_Interactable<?> entity){
+		sensor.sensedEntities.add(sensor.entityClass.cast(entity));
+	}
+	
+	private static int getCell(double coord){
+		return ((int) Math.floor(coord)) >> CELL_BITS;
+	}
+	
+	private static long getKey(int cellX, int cellZ){
+		return (((long) cellX) << 32) | (cellZ & 0xFFFFFFFFL);
+	}
+}
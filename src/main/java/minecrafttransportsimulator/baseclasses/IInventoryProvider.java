@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.baseclasses;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.items.components.AItemBase;
@@ -17,6 +18,9 @@ import minecrafttransportsimulator.systems.ConfigSystem;
  * @author don_bruce
  */
 public interface IInventoryProvider{
+	/**Weight multipliers for items, keyed by item name.  Finding these means checking the name against every heavy item in the config,
+	 * which is far too slow to do every time we need a stack's mass, so they are found once per item and cached here.**/
+	public static final Map<String, Double> itemWeightMultipliers = new ConcurrentHashMap<String, Double>();
 	
 	/**
 	 * Returns the mass of this inventory.  Basically, what {@link AEntityA_Base#getMass()}
@@ -24,20 +28,31 @@ public interface IInventoryProvider{
 	 * and extend that class.
 	 */
 	public default double getInventoryMass(){
-		Map<String, Double> heavyItems = ConfigSystem.settings.general.itemWeights.weights;
 		double currentMass = 0;
 		for(int i=0; i<getSize(); ++i){
-			IWrapperItemStack stack = getStack(i);
-			double weightMultiplier = 1.0;
+			currentMass += getStackMass(getStack(i));
+		}
+		return currentMass;
+	}
+	
+	/**
+	 * Returns the mass of the passed-in stack.  Stacks of heavy items, as defined in the config, have more mass.
+	 */
+	public static double getStackMass(IWrapperItemStack stack){
+		String itemName = InterfaceManager.coreInterface.getStackItemName(stack);
+		Double weightMultiplier = itemWeightMultipliers.get(itemName);
+		if(weightMultiplier == null){
+			weightMultiplier = 1.0;
+			Map<String, Double> heavyItems = ConfigSystem.settings.general.itemWeights.weights;
 			for(String heavyItemName : heavyItems.keySet()){
-				if(InterfaceManager.coreInterface.getStackItemName(stack).contains(heavyItemName)){
+				if(itemName.contains(heavyItemName)){
 					weightMultiplier = heavyItems.get(heavyItemName);
 					break;
 				}
 			}
-			currentMass += 5F*stack.getSize()/stack.getMaxSize()*weightMultiplier;
+			itemWeightMultipliers.put(itemName, weightMultiplier);
 		}
-		return currentMass;
+		return 5F*stack.getSize()/stack.getMaxSize()*weightMultiplier;
 	}
 	
 	/**
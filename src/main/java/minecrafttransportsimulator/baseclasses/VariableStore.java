@@ -0,0 +1,217 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**Class that stores the generic variables for an entity.  This replaces a boxed String-Double map
+ * with an open-addressing table of variable names to slots, where each slot is backed by a primitive
+ * double array.  Slots are never re-used for other variables once assigned, so callers may hold onto a
+ * slot index for repeated access to the same variable.  Variables that are removed are simply marked as
+ * inactive, which keeps the same behavior as removing the key from a map.
+ *
+ * @author don_bruce
+ */
+public class VariableStore{
+	private static final int INITIAL_CAPACITY = 16;
+
+	//Hash table.  Contains slot index + 1 for each entry, 0 means empty.
+	private int[] table = new int[INITIAL_CAPACITY*2];
+
+	//Slot arrays.
+	private String[] names = new String[INITIAL_CAPACITY];
+	private double[] values = new double[INITIAL_CAPACITY];
+	private long[] activeBits = new long[1];
+	private int slotCount;
+	private int activeCount;
+
+	//Cached list of active names.  Only re-created when variables are added or removed.
+	private final List<String> activeNames = new ArrayList<String>();
+	private boolean activeNamesChanged;
+
+	/**
+	 *  Returns the slot for the passed-in variable, or -1 if the variable has never been set.
+	 *  Note that a slot existing does not mean the variable is active.
+	 */
+	public int getSlot(String name){
+		int mask = table.length - 1;
+		int index = mix(name.hashCode()) & mask;
+		while(true){
+			int entry = table[index];
+			if(entry == 0){
+				return -1;
+			}else if(names[entry - 1].equals(name)){
+				return entry - 1;
+			}
+			index = (index + 1) & mask;
+		}
+	}
+
+	/**
+	 *  Like {@link #getSlot(String)}, but creates a slot if one doesn't exist.
+	 *  The created slot will be inactive with a value of 0.
+	 */
+	public int getOrCreateSlot(String name){
+		int slot = getSlot(name);
+		if(slot == -1){
+			if(slotCount == names.length){
+				growSlots();
+			}
+			if((slotCount + 1)*2 > table.length){
+				growTable();
+			}
+			slot = slotCount++;
+			names[slot] = name;
+			insertIntoTable(name, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 *  Returns the name of the variable in the passed-in slot.
+	 */
+	public String getName(int slot){
+		return names[slot];
+	}
+
+	/**
+	 *  Returns the number of slots in this store.  Slots are numbered from 0 to this value.
+	 *  This includes inactive slots, so check {@link #isActive(int)} when iterating.
+	 */
+	public int getSlotCount(){
+		return slotCount;
+	}
+
+	/**
+	 *  Returns true if the variable in the passed-in slot is active.
+	 */
+	public boolean isActive(int slot){
+		return (activeBits[slot >>> 6] & (1L << slot)) != 0;
+	}
+
+	/**
+	 *  Returns true if the passed-in variable is active.
+	 */
+	public boolean isActive(String name){
+		int slot = getSlot(name);
+		return slot != -1 && isActive(slot);
+	}
+
+	/**
+	 *  Returns the value of the passed-in slot.  Inactive slots will always return 0.
+	 */
+	public double getValue(int slot){
+		return values[slot];
+	}
+
+	/**
+	 *  Returns the value of the passed-in variable, or the passed-in default value if the variable isn't active.
+	 */
+	public double getValue(String name, double defaultValue){
+		int slot = getSlot(name);
+		return slot != -1 && isActive(slot) ? values[slot] : defaultValue;
+	}
+
+	/**
+	 *  Sets the value of the passed-in slot, and marks it as active.
+	 */
+	public void setValue(int slot, double value){
+		if(!isActive(slot)){
+			activeBits[slot >>> 6] |= 1L << slot;
+			++activeCount;
+			activeNamesChanged = true;
+		}
+		values[slot] = value;
+	}
+
+	/**
+	 *  Sets the value of the passed-in variable, and marks it as active.
+	 */
+	public void setValue(String name, double value){
+		setValue(getOrCreateSlot(name), value);
+	}
+
+	/**
+	 *  Removes the variable in the passed-in slot, setting it to inactive.
+	 *  Returns true if the variable was active prior to removal.
+	 */
+	public boolean remove(int slot){
+		if(isActive(slot)){
+			activeBits[slot >>> 6] &= ~(1L << slot);
+			values[slot] = 0;
+			--activeCount;
+			activeNamesChanged = true;
+			return true;
+		}else{
+			return false;
+		}
+	}
+
+	/**
+	 *  Removes the passed-in variable, setting it to inactive.
+	 *  Returns true if the variable was active prior to removal.
+	 */
+	public boolean remove(String name){
+		int slot = getSlot(name);
+		return slot != -1 && remove(slot);
+	}
+
+	/**
+	 *  Returns the number of active variables.
+	 */
+	public int getActiveCount(){
+		return activeCount;
+	}
+
+	/**
+	 *  Returns a list of all active variable names.  This list is cached and only updated when
+	 *  variables are added or removed, so it should not be modified or held onto by callers.
+	 */
+	public List<String> getActiveNames(){
+		if(activeNamesChanged){
+			activeNames.clear();
+			for(int slot=0; slot<slotCount; ++slot){
+				if(isActive(slot)){
+					activeNames.add(names[slot]);
+				}
+			}
+			activeNamesChanged = false;
+		}
+		return activeNames;
+	}
+
+	private void insertIntoTable(String name, int slot){
+		int mask = table.length - 1;
+		int index = mix(name.hashCode()) & mask;
+		while(table[index] != 0){
+			index = (index + 1) & mask;
+		}
+		table[index] = slot + 1;
+	}
+
+	private void growSlots(){
+		int newLength = names.length*2;
+		names = Arrays.copyOf(names, newLength);
+		values = Arrays.copyOf(values, newLength);
+		int wordCount = (newLength + 63) >>> 6;
+		if(wordCount > activeBits.length){
+			activeBits = Arrays.copyOf(activeBits, wordCount);
+		}
+	}
+
+	private void growTable(){
+		table = new int[table.length*2];
+		for(int slot=0; slot<slotCount; ++slot){
+			insertIntoTable(names[slot], slot);
+		}
+	}
+
+	/**
+	 *  Spreads the bits of the hash so similar variable names, like door_1 and door_2,
+	 *  don't cluster together in the table.
+	 */
+	private static int mix(int hash){
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -26,6 +26,7 @@ public class VehicleGroundDeviceBox{
 	private final List<BoundingBox> liquidCollisionBoxes = new ArrayList<BoundingBox>();
 	private final List<PartGroundDevice> groundDevices = new ArrayList<PartGroundDevice>();
 	private final List<PartGroundDevice> liquidDevices = new ArrayList<PartGroundDevice>();
+	private final List<BoundingBox> collidingEntityBoxes = new ArrayList<BoundingBox>();
 	
 	public boolean canRollOnGround;
 	public boolean contactedEntity;
@@ -188,8 +189,9 @@ public class VehicleGroundDeviceBox{
 	/**
 	 * Updates this boxes' collision properties to take into account its new position.
 	 * If the passed-in list is non-null, all grounded ground devices will be added to it.
+	 * Only the passed-in vehicles are checked for entity collisions, so they should be all vehicles that could be hit.
 	 */
-	public void updateCollisionStatuses(Set<PartGroundDevice> groundedGroundDevices){
+	public void updateCollisionStatuses(Set<PartGroundDevice> groundedGroundDevices, List<EntityVehicleF_Physics> nearbyVehicles){
 		//Initialize all values.
 		isAirborne = true;
 		isCollided = false;
@@ -213,7 +215,7 @@ public class VehicleGroundDeviceBox{
 			solidBox.globalCenter.set(solidBox.localCenter).rotate(vehicle.orientation).rotate(vehicle.rotation).add(vehicle.position).add(vehicleMotionOffset);
 			vehicle.world.updateBoundingBoxCollisions(solidBox, vehicleMotionOffset, false);
 			
-			contactedEntity = checkEntityCollisions(vehicleMotionOffset);
+			contactedEntity = checkEntityCollisions(vehicleMotionOffset, nearbyVehicles);
 			isCollided = contactedEntity || !solidBox.collidingBlockPositions.isEmpty();
 			collisionDepth = solidBox.currentCollisionDepth.y;
 			PartGroundDevice.groundOperationOffset.set(0 , -0.5, 0);
@@ -223,7 +225,7 @@ public class VehicleGroundDeviceBox{
 			}else{
 				solidBox.globalCenter.add(PartGroundDevice.groundDetectionOffset);
 				vehicle.world.updateBoundingBoxCollisions(solidBox, groundCollisionOffset, false);
-				contactedEntity = checkEntityCollisions(groundCollisionOffset);
+				contactedEntity = checkEntityCollisions(groundCollisionOffset, nearbyVehicles);
 				solidBox.globalCenter.subtract(PartGroundDevice.groundDetectionOffset);
 				isGrounded = contactedEntity || !solidBox.collidingBlockPositions.isEmpty();
 			}
@@ -235,7 +237,7 @@ public class VehicleGroundDeviceBox{
 				groundCollisionOffset = vehicleMotionOffset.copy().add(PartGroundDevice.groundOperationOffset);
 				solidBox.globalCenter.add(PartGroundDevice.groundOperationOffset);
 				vehicle.world.updateBoundingBoxCollisions(solidBox, groundCollisionOffset, false);
-				contactedEntity = checkEntityCollisions(groundCollisionOffset);
+				contactedEntity = checkEntityCollisions(groundCollisionOffset, nearbyVehicles);
 				solidBox.globalCenter.subtract(PartGroundDevice.groundOperationOffset);
 				isAbleToDoGroundOperations = contactedEntity || !solidBox.collidingBlockPositions.isEmpty();
 			}
@@ -301,14 +303,14 @@ public class VehicleGroundDeviceBox{
 		//Transform operates off contact points, so get the world-based transform delta the transform will apply to our contact point.
 		Point3D vehicleMotionOffset = contactPoint.copy().transform(transform).subtract(contactPoint).rotate(vehicle.orientation).rotate(vehicle.rotation).addScaled(vehicle.motion, vehicle.speedFactor).add(groundMotion);
 		if(!groundDevices.isEmpty()){
-			if(vehicle.world.checkForCollisions(solidBox, vehicleMotionOffset, false)){
+			if(vehicle.world.checkForCollisions(solidBox, vehicleMotionOffset)){
 				return true;
 			}
 		}
 		
 		if(!canRollOnGround || !isAbleToDoGroundOperations){
 			if(!liquidDevices.isEmpty() || !liquidCollisionBoxes.isEmpty()){
-				if(vehicle.world.checkForCollisions(liquidBox, vehicleMotionOffset, false)){
+				if(vehicle.world.checkForCollisions(liquidBox, vehicleMotionOffset)){
 					return true;
 				}
 			}
@@ -317,29 +319,28 @@ public class VehicleGroundDeviceBox{
 	}
 	
 	/**
-	 * Helper method for checking for entity collisions.
+	 * Helper method for checking for entity collisions with the passed-in vehicles.
 	 */
-	private boolean checkEntityCollisions(Point3D collisionMotion){
+	private boolean checkEntityCollisions(Point3D collisionMotion, List<EntityVehicleF_Physics> nearbyVehicles){
 		boolean didCollision = false;
-		for(EntityVehicleF_Physics otherVehicle : vehicle.world.getEntitiesOfType(EntityVehicleF_Physics.class)){
-			if(!otherVehicle.equals(vehicle) && vehicle.canCollideWith(otherVehicle) && !otherVehicle.collidedEntities.contains(vehicle) && otherVehicle.encompassingBox.intersects(solidBox)){
+		for(EntityVehicleF_Physics otherVehicle : nearbyVehicles){
+			if(!otherVehicle.collidedEntities.contains(vehicle) && otherVehicle.encompassingBox.intersects(solidBox)){
 				//We know we could have hit this entity.  Check if we actually did.
 				BoundingBox collidingBox = null;
 				double boxCollisionDepth = 0;
-				for(BoundingBox box : otherVehicle.getCollisionBoxes()){
-					if(box.intersects(solidBox)){
-						if(collisionMotion.y > 0){
-							boxCollisionDepth = solidBox.globalCenter.y + solidBox.heightRadius - (box.globalCenter.y - box.heightRadius);
-							if(boxCollisionDepth > solidBox.currentCollisionDepth.y){
-								solidBox.currentCollisionDepth.y = boxCollisionDepth;
-								collidingBox = box;
-							}
-						}else{
-							boxCollisionDepth = box.globalCenter.y + box.heightRadius - (solidBox.globalCenter.y - solidBox.heightRadius);
-							if(boxCollisionDepth > solidBox.currentCollisionDepth.y){
-								solidBox.currentCollisionDepth.y = boxCollisionDepth;
-								collidingBox = box;
-							}
+				otherVehicle.boxTree.getBoxesInBounds(solidBox, BoundingBoxTree.COLLISION, collidingEntityBoxes);
+				for(BoundingBox box : collidingEntityBoxes){
+					if(collisionMotion.y > 0){
+						boxCollisionDepth = solidBox.globalCenter.y + solidBox.heightRadius - (box.globalCenter.y - box.heightRadius);
+						if(boxCollisionDepth > solidBox.currentCollisionDepth.y){
+							solidBox.currentCollisionDepth.y = boxCollisionDepth;
+							collidingBox = box;
+						}
+					}else{
+						boxCollisionDepth = box.globalCenter.y + box.heightRadius - (solidBox.globalCenter.y - solidBox.heightRadius);
+						if(boxCollisionDepth > solidBox.currentCollisionDepth.y){
+							solidBox.currentCollisionDepth.y = boxCollisionDepth;
+							collidingBox = box;
 						}
 					}
 				}
@@ -2,6 +2,7 @@ package minecrafttransportsimulator.baseclasses;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -15,6 +16,9 @@ import minecrafttransportsimulator.systems.ConfigSystem;
  * @author don_bruce
  */
 public class VehicleGroundDeviceCollection{
+	/**Extra distance to look for nearby vehicles.  Covers ground checks below the boxes, and other vehicles moving during the tick.**/
+	private static final double NEARBY_VEHICLE_MARGIN = 4;
+	
 	private final EntityVehicleF_Physics vehicle;
 	private final VehicleGroundDeviceBox frontLeftGDB;
 	private final VehicleGroundDeviceBox frontRightGDB;
@@ -25,6 +29,10 @@ public class VehicleGroundDeviceCollection{
 	private final TransformationMatrix transformApplied = new TransformationMatrix();
 	public final Set<PartGroundDevice> groundedGroundDevices = new HashSet<PartGroundDevice>();
 	public final Set<PartGroundDevice> drivenWheels = new HashSet<PartGroundDevice>();
+	/**Vehicles this vehicle could collide with this tick.  Found once per tick from the world's entity grid, and shared by all boxes for all collision updates that tick.**/
+	private final List<EntityVehicleF_Physics> nearbyVehicles = new ArrayList<EntityVehicleF_Physics>();
+	private final BoundingBox nearbyVehicleBounds = new BoundingBox(new Point3D(), 0, 0, 0);
+	private long nearbyVehiclesTick = -1;
 	
 	public VehicleGroundDeviceCollection(EntityVehicleF_Physics vehicle){
 		this.vehicle = vehicle;
@@ -80,11 +88,37 @@ public class VehicleGroundDeviceCollection{
 	 * Also re-calculates which ground devices are on the ground.
 	 */
 	public void updateCollisions(){
+		if(nearbyVehiclesTick != vehicle.ticksExisted){
+			updateNearbyVehicles();
+			nearbyVehiclesTick = vehicle.ticksExisted;
+		}
 		groundedGroundDevices.clear();
-		frontLeftGDB.updateCollisionStatuses(groundedGroundDevices);
-		frontRightGDB.updateCollisionStatuses(groundedGroundDevices);
-		rearLeftGDB.updateCollisionStatuses(groundedGroundDevices);
-		rearRightGDB.updateCollisionStatuses(groundedGroundDevices);
+		frontLeftGDB.updateCollisionStatuses(groundedGroundDevices, nearbyVehicles);
+		frontRightGDB.updateCollisionStatuses(groundedGroundDevices, nearbyVehicles);
+		rearLeftGDB.updateCollisionStatuses(groundedGroundDevices, nearbyVehicles);
+		rearRightGDB.updateCollisionStatuses(groundedGroundDevices, nearbyVehicles);
+	}
+	
+	/**
+	 * Updates the list of vehicles near this vehicle that it can collide with.  The area checked is our
+	 * encompassing box grown by our motion and a margin, so it covers every position the boxes are
+	 * checked at this tick.  Vehicles we can't collide with, such as ones we are towing, are removed here
+	 * so the boxes don't need to check them on every update.
+	 */
+	private void updateNearbyVehicles(){
+		double margin = vehicle.motion.length()*vehicle.speedFactor + NEARBY_VEHICLE_MARGIN;
+		nearbyVehicleBounds.globalCenter.set(vehicle.encompassingBox.globalCenter);
+		nearbyVehicleBounds.widthRadius = vehicle.encompassingBox.widthRadius + margin;
+		nearbyVehicleBounds.heightRadius = vehicle.encompassingBox.heightRadius + margin;
+		nearbyVehicleBounds.depthRadius = vehicle.encompassingBox.depthRadius + margin;
+		vehicle.world.getEntitiesInBounds(EntityVehicleF_Physics.class, nearbyVehicleBounds, nearbyVehicles);
+		Iterator<EntityVehicleF_Physics> iterator = nearbyVehicles.iterator();
+		while(iterator.hasNext()){
+			EntityVehicleF_Physics otherVehicle = iterator.next();
+			if(otherVehicle.equals(vehicle) || !vehicle.canCollideWith(otherVehicle)){
+				iterator.remove();
+			}
+		}
 	}
 	
 	/**
@@ -1,5 +1,7 @@
 package minecrafttransportsimulator.blocks.tileentities.components;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.EntitySensor;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityDecor;
 import minecrafttransportsimulator.entities.instances.PartInteractable;
@@ -11,6 +13,9 @@ import minecrafttransportsimulator.packets.instances.PacketTileEntityLoaderConne
 
 public abstract class ATileEntityLoader extends TileEntityDecor{
 	public PartInteractable connectedPart;
+	
+	/**Sensor for parts in range of this loader.  Null until added to the world on the first server update.**/
+	private LoaderSensor sensor;
 
     public ATileEntityLoader(AWrapperWorld world, Point3D position, IWrapperPlayer placingPlayer, IWrapperNBT data){
 		super(world, position, placingPlayer, data);
@@ -21,15 +26,23 @@ public abstract class ATileEntityLoader extends TileEntityDecor{
 		super.update();
 		//Do load/unload checks.  Checks only occur on servers.  Clients get packets for state changes.
 		if(!world.isClient()){
+			//Add our sensor if we haven't yet.
+			//We do this here rather than in construction as we may not be in the world yet at that point.
+			if(sensor == null){
+				sensor = new LoaderSensor();
+				world.addSensor(sensor);
+			}
+			
 			if(connectedPart == null){
-				//Check for a new part every second.  We don't want every tick as this would increase server loads.
-				if(ticksExisted%20 == 0){
+				//Check for a new part every second, but only if there are parts in range.
+				//We don't want every tick as this would increase server loads.
+				if(!sensor.sensedEntities.isEmpty() && ticksExisted%20 == 0){
 					updateNearestPart();
 				}
 			}else{
-				//Don't load parts that don't exist.
-				//Also check distance to make sure the part hasn't moved away.
-				if(!connectedPart.isValid || !connectedPart.position.isDistanceToCloserThan(position, 10)){
+				//Don't load parts that don't exist or that have moved away.
+				//The sensor drops parts for both of these cases, so we just check if it still has the part.
+				if(!sensor.sensedEntities.contains(connectedPart)){
 					updateNearestPart();
 				}
 			}
@@ -47,13 +60,10 @@ public abstract class ATileEntityLoader extends TileEntityDecor{
 	
 	protected void updateNearestPart(){
 		PartInteractable nearestPart = null;
-		double nearestDistance = 10;
-		if(canOperate()){
-			for(PartInteractable interactablePart : world.getEntitiesOfType(PartInteractable.class)){
+		if(sensor != null && canOperate()){
+			for(PartInteractable interactablePart : sensor.sensedEntities){
 				if(canLoadPart(interactablePart)){
-					if(interactablePart.position.isDistanceToCloserThan(position, nearestDistance)){
-						nearestPart = interactablePart;
-					}
+					nearestPart = interactablePart;
 				}
 			}
 		}
@@ -75,6 +85,14 @@ public abstract class ATileEntityLoader extends TileEntityDecor{
 		connectedPart = part;
 	}
 	
+	@Override
+	public void remove(){
+		super.remove();
+		if(sensor != null){
+			world.removeSensor(sensor);
+		}
+	}
+	
 	public abstract boolean isUnloader();
 	
 	protected abstract boolean canOperate();
@@ -84,4 +102,20 @@ public abstract class ATileEntityLoader extends TileEntityDecor{
 	protected abstract void doLoading();
 	
 	protected abstract void doUnloading();
+	
+	/**
+	 *  Sensor for parts this loader can connect to.  Parts are in range if their position is within 10 blocks of the loader.
+	 *  Only parts with an inventory or tank are sensed, as loaders can't load any other parts.
+	 */
+	private class LoaderSensor extends EntitySensor<PartInteractable>{
+		
+		private LoaderSensor(){
+			super(PartInteractable.class, new BoundingBox(position, 10, 10, 10));
+		}
+		
+		@Override
+		public boolean isEntityInside(PartInteractable part){
+			return (part.inventory != null || part.tank != null) && part.position.isDistanceToCloserThan(position, 10);
+		}
+	}
 }
@@ -0,0 +1,141 @@
+package minecrafttransportsimulator.blocks.tileentities.components;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import minecrafttransportsimulator.baseclasses.BezierCurve;
+import minecrafttransportsimulator.baseclasses.Point3D;
+
+/**Index of the points on all lane curves of a road.  Used to find the lane and curve a vehicle is on
+ * without checking every point of every curve.  Points are taken at 1-block steps along each curve,
+ * and are stored in a grid of 1-block cells.  As a point has to be within 1 block to match, only the
+ * cells around the queried position need to be checked, no matter how many lanes the road has.
+ * <br><br>
+ * Point data is stored in arrays indexed by point number, and cells store the numbers of their points.
+ * Indexes are made by roads when first needed, as curves don't change once the lanes are made.
+ *
+ * @author don_bruce
+ */
+public class RoadLaneIndex{
+	/**Max yaw delta to consider a point to be going the same, or opposite, direction as the querying entity.**/
+	private static final double MAX_YAW_DELTA = 10;
+	
+	private final Map<Long, int[]> cells = new HashMap<Long, int[]>();
+	private final RoadLane[] pointLanes;
+	private final BezierCurve[] pointCurves;
+	private final float[] pointSegments;
+	private final double[] pointsX;
+	private final double[] pointsY;
+	private final double[] pointsZ;
+	private final double[] pointYaws;
+	
+	public RoadLaneIndex(List<RoadLane> lanes){
+		//Get the total number of points so we can size the arrays.
+		int totalPoints = 0;
+		for(RoadLane lane : lanes){
+			for(BezierCurve curve : lane.curves){
+				totalPoints += (int) Math.ceil(curve.pathLength);
+			}
+		}
+		pointLanes = new RoadLane[totalPoints];
+		pointCurves = new BezierCurve[totalPoints];
+		pointSegments = new float[totalPoints];
+		pointsX = new double[totalPoints];
+		pointsY = new double[totalPoints];
+		pointsZ = new double[totalPoints];
+		pointYaws = new double[totalPoints];
+		
+		//Add points, and put them in their cells.
+		Map<Long, List<Integer>> cellLists = new HashMap<Long, List<Integer>>();
+		Point3D point = new Point3D();
+		int pointIndex = 0;
+		for(RoadLane lane : lanes){
+			for(BezierCurve curve : lane.curves){
+				for(float f=0; f<curve.pathLength; ++f){
+					curve.setPointToPositionAt(point, f);
+					pointLanes[pointIndex] = lane;
+					pointCurves[pointIndex] = curve;
+					pointSegments[pointIndex] = f;
+					pointsX[pointIndex] = point.x;
+					pointsY[pointIndex] = point.y;
+					pointsZ[pointIndex] = point.z;
+					pointYaws[pointIndex] = curve.getRotationAt(f).angles.y;
+					
+					long cellKey = getCellKey((int) Math.floor(point.x), (int) Math.floor(point.y), (int) Math.floor(point.z));
+					List<Integer> cellList = cellLists.get(cellKey);
+					if(cellList == null){
+						cellList = new ArrayList<Integer>();
+						cellLists.put(cellKey, cellList);
+					}
+					cellList.add(pointIndex++);
+				}
+			}
+		}
+		for(Entry<Long, List<Integer>> cellEntry : cellLists.entrySet()){
+			List<Integer> cellList = cellEntry.getValue();
+			int[] cellPoints = new int[cellList.size()];
+			for(int i=0; i<cellPoints.length; ++i){
+				cellPoints[i] = cellList.get(i);
+			}
+			cells.put(cellEntry.getKey(), cellPoints);
+		}
+	}
+	
+	/**
+	 *  Returns a following state for the closest point within 1 block of the passed-in position that
+	 *  is going in the same, or opposite, direction as the passed-in yaw.  If there is no such point, null is returned.
+	 */
+	public RoadFollowingState getFollower(Point3D position, double yaw){
+		int cellX = (int) Math.floor(position.x);
+		int cellY = (int) Math.floor(position.y);
+		int cellZ = (int) Math.floor(position.z);
+		int closestPoint = -1;
+		boolean closestSameDirection = false;
+		double closestDistanceSquared = 1;
+		for(int i=-1; i<=1; ++i){
+			for(int j=-1; j<=1; ++j){
+				for(int k=-1; k<=1; ++k){
+					int[] cellPoints = cells.get(getCellKey(cellX + i, cellY + j, cellZ + k));
+					if(cellPoints != null){
+						for(int pointIndex : cellPoints){
+							double deltaX = pointsX[pointIndex] - position.x;
+							double deltaY = pointsY[pointIndex] - position.y;
+							double deltaZ = pointsZ[pointIndex] - position.z;
+							double distanceSquared = deltaX*deltaX + deltaY*deltaY + deltaZ*deltaZ;
+							if(distanceSquared < closestDistanceSquared){
+								double yawDelta = Math.abs(getClampedYawDelta(pointYaws[pointIndex], yaw));
+								if(yawDelta < MAX_YAW_DELTA || yawDelta > 180 - MAX_YAW_DELTA){
+									closestPoint = pointIndex;
+									closestSameDirection = yawDelta < MAX_YAW_DELTA;
+									closestDistanceSquared = distanceSquared;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		return closestPoint != -1 ? new RoadFollowingState(pointLanes[closestPoint], pointCurves[closestPoint], closestSameDirection, pointSegments[closestPoint]) : null;
+	}
+	
+	private static long getCellKey(int x, int y, int z){
+		return ((long) x & 0x3FFFFFF) << 38 | ((long) y & 0xFFF) << 26 | ((long) z & 0x3FFFFFF);
+	}
+	
+	/**
+	 *  Returns the delta between the two yaws, clamped to +/- 180.  Same as {@link Point3D#getClampedYDelta(double)}.
+	 */
+	private static double getClampedYawDelta(double yaw, double otherYaw){
+		double deltaYaw = yaw - otherYaw;
+		while(deltaYaw > 180){
+			deltaYaw -= 360;
+		}
+		while(deltaYaw < -180){
+			deltaYaw += 360;
+		}
+		return deltaYaw;
+	}
+}
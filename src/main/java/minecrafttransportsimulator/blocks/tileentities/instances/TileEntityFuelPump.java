@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.blocks.tileentities.components.ITileEntityFluidTankProvider;
 import minecrafttransportsimulator.entities.instances.APart;
@@ -19,7 +18,6 @@ import minecrafttransportsimulator.jsondefs.JSONItem.ItemComponentType;
 import minecrafttransportsimulator.jsondefs.JSONPart.InteractableComponentType;
 import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.mcinterface.IWrapperEntity;
 import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
@@ -37,6 +35,8 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
     public int fuelPurchasedRemaining;
     public boolean isCreative;
 	public UUID placingPlayerID;
+	private final List<EntityVehicleF_Physics> nearbyVehicles = new ArrayList<EntityVehicleF_Physics>();
+	private final List<IWrapperPlayer> nearbyPlayers = new ArrayList<IWrapperPlayer>();
 
     public TileEntityFuelPump(AWrapperWorld world, Point3D position, IWrapperPlayer placingPlayer, IWrapperNBT data){
 		super(world, position, placingPlayer, data);
@@ -93,10 +93,9 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 			//Check distance to make sure the vehicle hasn't moved away.
 			if(!connectedVehicle.position.isDistanceToCloserThan(position, 15)){
 				InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityFuelPumpConnection(this, false));
-				for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 25, 25, 25))){
-					if(entity instanceof IWrapperPlayer){
-						((IWrapperPlayer) entity).sendPacket(new PacketPlayerChatMessage((IWrapperPlayer) entity, JSONConfigLanguage.INTERACT_FUELPUMP_TOOFAR));
-					}
+				world.getExternalEntitiesInRadius(IWrapperPlayer.class, position, 25, nearbyPlayers);
+				for(IWrapperPlayer nearbyPlayer : nearbyPlayers){
+					nearbyPlayer.sendPacket(new PacketPlayerChatMessage(nearbyPlayer, JSONConfigLanguage.INTERACT_FUELPUMP_TOOFAR));
 				}
 				connectedVehicle.beingFueled = false;
 				connectedVehicle = null;
@@ -114,10 +113,9 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 					InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityFuelPumpConnection(this, false));
 					connectedVehicle.beingFueled = false;
 					connectedVehicle = null;
-					for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 16, 16, 16))){
-						if(entity instanceof IWrapperPlayer){
-							((IWrapperPlayer) entity).sendPacket(new PacketPlayerChatMessage((IWrapperPlayer) entity, JSONConfigLanguage.INTERACT_FUELPUMP_COMPLETE));
-						}
+					world.getExternalEntitiesInRadius(IWrapperPlayer.class, position, 16, nearbyPlayers);
+					for(IWrapperPlayer nearbyPlayer : nearbyPlayers){
+						nearbyPlayer.sendPacket(new PacketPlayerChatMessage(nearbyPlayer, JSONConfigLanguage.INTERACT_FUELPUMP_COMPLETE));
 					}
 				}
 			}else{
@@ -125,10 +123,9 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 				InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityFuelPumpConnection(this, false));
 				connectedVehicle.beingFueled = false;
 				connectedVehicle = null;
-				for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 16, 16, 16))){
-					if(entity instanceof IWrapperPlayer){
-						((IWrapperPlayer) entity).sendPacket(new PacketPlayerChatMessage((IWrapperPlayer) entity, JSONConfigLanguage.INTERACT_FUELPUMP_EMPTY));
-					}
+				world.getExternalEntitiesInRadius(IWrapperPlayer.class, position, 16, nearbyPlayers);
+				for(IWrapperPlayer nearbyPlayer : nearbyPlayers){
+					nearbyPlayer.sendPacket(new PacketPlayerChatMessage(nearbyPlayer, JSONConfigLanguage.INTERACT_FUELPUMP_EMPTY));
 				}
 			}
 		}
@@ -176,7 +173,8 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 			//Get the closest vehicle within a 16-block radius.
 			EntityVehicleF_Physics nearestVehicle = null;
 			double lowestDistance = 16D;
-			for(EntityVehicleF_Physics testVehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)){
+			world.getEntitiesInRadius(EntityVehicleF_Physics.class, position, lowestDistance, nearbyVehicles);
+			for(EntityVehicleF_Physics testVehicle : nearbyVehicles){
 				double vehicleDistance = testVehicle.position.distanceTo(position);
 				if(vehicleDistance < lowestDistance){
 					lowestDistance = vehicleDistance;
@@ -18,8 +18,10 @@ import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.instances.BlockCollision;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadClickData;
+import minecrafttransportsimulator.blocks.tileentities.components.RoadFollowingState;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadLane;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadLaneConnection;
+import minecrafttransportsimulator.blocks.tileentities.components.RoadLaneIndex;
 import minecrafttransportsimulator.items.instances.ItemRoadComponent;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.jsondefs.JSONRoadComponent;
@@ -61,6 +63,7 @@ public class TileEntityRoad extends ATileEntityBase<JSONRoadComponent>{
 
 	//Dynamic variables based on states.
 	private boolean isActive;
+	private RoadLaneIndex laneIndex;
 	public final Map<RoadComponent, ItemRoadComponent> components = new HashMap<RoadComponent, ItemRoadComponent>();
 	public final Map<RoadComponent, RenderableObject> componentRenderables = new HashMap<RoadComponent, RenderableObject>();
 	public final List<RenderableObject> devRenderables = new ArrayList<RenderableObject>();
@@ -210,12 +213,25 @@ public class TileEntityRoad extends ATileEntityBase<JSONRoadComponent>{
 		return new RoadClickData(this, closestSector, clickedStart, curveStart);
 	}
 	
+	/**
+	 *  Returns a following state for the lane curve closest to the passed-in position, going in the same or
+	 *  opposite direction as the passed-in yaw.  Returns null if no curve is close enough.
+	 *  The lane index used for this is created on the first call, and re-created if the lanes change.
+	 */
+	public RoadFollowingState getFollower(Point3D position, double yaw){
+		if(laneIndex == null){
+			laneIndex = new RoadLaneIndex(lanes);
+		}
+		return laneIndex.getFollower(position, yaw);
+	}
+	
 	/**
 	 *  Helper method to populate the lanes for this road.  This depends on if we are
 	 *  a static or dynamic road.  Data is passed-in, but may be null if we're generating
 	 *  lanes for the first time.
 	 */
 	public void generateLanes(IWrapperNBT data){
+		laneIndex = null;
 		int totalLanes = 0;
 		if(definition.road.type.equals(RoadComponent.CORE_DYNAMIC)){
 			for(int i=0; i<definition.road.laneOffsets.length; ++i){
@@ -8,6 +8,7 @@ import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.baseclasses.EntitySensor;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
@@ -54,6 +55,9 @@ public class TileEntitySignalController extends TileEntityDecor{
 	/**Lane counts and intersection widths.**/
 	public final Map<Axis, IntersectionProperties> intersectionProperties = new HashMap<Axis, IntersectionProperties>();
 	
+	/**True if the sensors of the signal groups have been added to the world.**/
+	private boolean sensorsAdded;
+	
 	public TileEntitySignalController(AWrapperWorld world, Point3D position, IWrapperPlayer placingPlayer, IWrapperNBT data){
 		super(world, position, placingPlayer, data);
 		initializeController(data);
@@ -90,6 +94,19 @@ public class TileEntitySignalController extends TileEntityDecor{
 			}
 		}
 		
+		//Add sensors if we use them and haven't added them yet.
+		//We do this here rather than in construction as we may not be in the world yet at that point.
+		if(!timedMode && !sensorsAdded){
+			for(Set<SignalGroup> signalGroupSet : signalGroups.values()){
+	        	for(SignalGroup signalGroup : signalGroupSet){
+					if(signalGroup.sensor != null){
+						world.addSensor(signalGroup.sensor);
+					}
+	        	}
+			}
+			sensorsAdded = true;
+		}
+		
 		//All valid poles and components found.  Update signal blocks that have signals..
 		for(Set<SignalGroup> signalGroupSet : signalGroups.values()){
         	for(SignalGroup signalGroup : signalGroupSet){
@@ -105,6 +122,7 @@ public class TileEntitySignalController extends TileEntityDecor{
 		super.remove();
 		//Clear found poles so signals know we don't exist anymore and to remove their references.
 		clearFoundPoles();
+		removeSensors();
 	}
 	
 	@Override
@@ -155,6 +173,8 @@ public class TileEntitySignalController extends TileEntityDecor{
         componentLocations.addAll(data.getPoint3dsCompact("componentLocations"));
         
         //Create all signal groups.
+        //Old groups may have sensors in the world, so remove those first.
+        removeSensors();
         signalGroups.clear();
         for(Axis axis : Axis.values()){
         	if(axis.xzPlanar){
@@ -185,6 +205,22 @@ public class TileEntitySignalController extends TileEntityDecor{
 		clearFoundPoles();
 	}
 	
+	/**
+	 *  Removes the sensors of all signal groups from the world, if they were added.
+	 */
+	private void removeSensors(){
+		if(sensorsAdded){
+			for(Set<SignalGroup> signalGroupSet : signalGroups.values()){
+	        	for(SignalGroup signalGroup : signalGroupSet){
+					if(signalGroup.sensor != null){
+						world.removeSensor(signalGroup.sensor);
+					}
+	        	}
+			}
+			sensorsAdded = false;
+		}
+	}
+	
 	/**
 	 *  Clear found pole variables.  This is done on controller init or when we are removed.
 	 */
@@ -301,6 +337,9 @@ public class TileEntitySignalController extends TileEntityDecor{
 		public final double signalLineWidth;
 		public final Point3D signalLineCenter;
 		
+		//Sensor for vehicles waiting at this signal.  Null if this signal has no lanes to sense.
+		private final SignalSensor sensor;
+		
 		private SignalGroup(Axis axis, SignalDirection direction, IWrapperNBT data){
 			this.axis = axis;
 			this.direction = direction;
@@ -344,6 +383,7 @@ public class TileEntitySignalController extends TileEntityDecor{
 				}
 				default: throw new IllegalStateException("We'll never get here, shut up compiler!");
 			}
+			this.sensor = laneCount != 0 && signalLineWidth != 0 ? new SignalSensor(this) : null;
 		}
 		
 		protected void update(){
@@ -379,16 +419,10 @@ public class TileEntitySignalController extends TileEntityDecor{
 								if(isMainSignal && direction.equals(SignalDirection.CENTER)){
 									//Just wait until the other signals don't have any cooldown, then set them red.
 									stateChangeRequested = true;
-								}else{
-									for(EntityVehicleF_Physics vehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)){
-										Point3D adjustedPos = vehicle.position.copy().subtract(intersectionCenterPoint).reOrigin(axis.rotation);
-										if(adjustedPos.x > signalLineCenter.x - signalLineWidth/2D && adjustedPos.x < signalLineCenter.x + signalLineWidth/2D && adjustedPos.z > signalLineCenter.z && adjustedPos.z < signalLineCenter.z + 16){
-											//Vehicle present.  If we are blocked, send the respective signal states to the other signals to change them.
-											//Flag this signal as pending changes to blocked signals to avoid checking until those signals change.
-											stateChangeRequested = true;
-											break;
-										}
-									}
+								}else if(sensor != null && !sensor.sensedEntities.isEmpty()){
+									//Vehicle present.  If we are blocked, send the respective signal states to the other signals to change them.
+									//Flag this signal as pending changes to blocked signals to avoid checking until those signals change.
+									stateChangeRequested = true;
 								}
 							}
 						}
@@ -442,6 +476,31 @@ public class TileEntitySignalController extends TileEntityDecor{
 		}
 	}
 	
+	/**
+	 *  Sensor for the area of a signal group.  The area is 16 units long past the signal line, and doesn't care about height.
+	 *  Vehicles are in the area if their position is, so long vehicles only count once their center reaches it.
+	 */
+	private class SignalSensor extends EntitySensor<EntityVehicleF_Physics>{
+		private final SignalGroup signalGroup;
+		
+		private SignalSensor(SignalGroup signalGroup){
+			super(EntityVehicleF_Physics.class, new BoundingBox(new Point3D(), 0, Double.MAX_VALUE, 0));
+			this.signalGroup = signalGroup;
+			bounds.globalCenter.set(signalGroup.signalLineCenter.x, 0, signalGroup.signalLineCenter.z + 8).rotate(signalGroup.axis.rotation).add(intersectionCenterPoint);
+			for(int i=0; i<2; ++i){
+				Point3D corner = new Point3D(signalGroup.signalLineWidth/2D, 0, i == 0 ? 8 : -8).rotate(signalGroup.axis.rotation);
+				bounds.widthRadius = Math.max(bounds.widthRadius, Math.abs(corner.x));
+				bounds.depthRadius = Math.max(bounds.depthRadius, Math.abs(corner.z));
+			}
+		}
+		
+		@Override
+		public boolean isEntityInside(EntityVehicleF_Physics vehicle){
+			Point3D adjustedPos = vehicle.position.copy().subtract(intersectionCenterPoint).reOrigin(signalGroup.axis.rotation);
+			return adjustedPos.x > signalGroup.signalLineCenter.x - signalGroup.signalLineWidth/2D && adjustedPos.x < signalGroup.signalLineCenter.x + signalGroup.signalLineWidth/2D && adjustedPos.z > signalGroup.signalLineCenter.z && adjustedPos.z < signalGroup.signalLineCenter.z + 16;
+		}
+	}
+	
 	private class SignalGroupCenter extends SignalGroup{
 		
 		private SignalGroupCenter(Axis axis, IWrapperNBT data){
@@ -32,6 +32,11 @@ public abstract class AEntityA_Base{
 	public final boolean newlyCreated;
 	/**Counter for how many ticks this entity has existed in the world.  Realistically, it's the number of update cycles.**/
 	public long ticksExisted;
+	/**The entity whose mass includes the mass of this entity, if any.  Set by that entity so changes to our mass can flag changes to theirs.**/
+	public AEntityA_Base massParent;
+	
+	private double cachedMass;
+	private boolean massChanged = true;
 	
 	public AEntityA_Base(AWrapperWorld world, IWrapperNBT data){
 		this.world = world;
@@ -85,12 +90,40 @@ public abstract class AEntityA_Base{
 
 	/**
 	 * Returns the mass of this entity for physics calculations.  Normally un-used except in the multiple sub-classes,
-	 * but since anything can have mass, we put this at the A-level.
+	 * but since anything can have mass, we put this at the A-level.  Mass is cached, and only re-calculated via
+	 * {@link #calculateMass()} after {@link #markMassChanged()} is called, so this is safe to call every tick.
+	 */
+	public final double getMass(){
+		if(massChanged){
+			//Clear the flag before calculating.  This way if bad linking makes an entity's mass
+			//depend on itself, we get the cached mass rather than recursing forever.
+			massChanged = false;
+			cachedMass = calculateMass();
+		}
+		return cachedMass;
+	}
+	
+	/**
+	 * Calculates the mass of this entity.  Extending classes should add their mass to the super call here,
+	 * and call {@link #markMassChanged()} any time something this depends on changes.
 	 */
-	public double getMass(){
+	protected double calculateMass(){
 		return 0;
 	}
 	
+	/**
+	 * Flags the mass of this entity as changed, and the mass of the {@link #massParent}, if we have one.
+	 * The mass will be re-calculated on the next call to {@link #getMass()}.
+	 */
+	public void markMassChanged(){
+		if(!massChanged){
+			massChanged = true;
+			if(massParent != null){
+				massParent.markMassChanged();
+			}
+		}
+	}
+	
 	/**
 	 *  Called when the entity needs to be saved to disk.  The passed-in IWrapper
 	 *  should be written to at this point with any data needing to be saved.
@@ -1,5 +1,6 @@
 package minecrafttransportsimulator.entities.components;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
@@ -113,6 +114,15 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing{
         return ticksExisted == 0;
     }
     
+    /**
+     *  Returns the bounds to use when checking if this entity is in view of the camera.
+     *  If null is returned, then this entity will always be rendered if it is in render distance.
+     *  This should be returned for any entity that doesn't have bounds that cover its model.
+     */
+    public BoundingBox getCullingBounds(){
+        return null;
+    }
+    
     /**
      *  Called to render the main model.  At this point the matrix state will be aligned
      *  to the position and rotation of the entity relative to the player-camera.
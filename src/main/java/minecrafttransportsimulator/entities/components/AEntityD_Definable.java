@@ -15,8 +15,8 @@ import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.entities.instances.APart;
-import minecrafttransportsimulator.entities.instances.EntityParticle;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.items.components.AItemPack;
 import minecrafttransportsimulator.items.components.AItemSubTyped;
@@ -41,6 +41,8 @@ import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packloading.PackParser;
 import minecrafttransportsimulator.rendering.AModelParser;
+import minecrafttransportsimulator.rendering.AnimationVariableBinding;
+import minecrafttransportsimulator.rendering.AnimationVariableBinding.VariableType;
 import minecrafttransportsimulator.rendering.DurationDelayClock;
 import minecrafttransportsimulator.rendering.RenderText;
 import minecrafttransportsimulator.rendering.RenderableModelObject;
@@ -68,8 +70,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	/**Map containing text lines for saved text provided by this entity.**/
 	public final LinkedHashMap<JSONText, String> text = new LinkedHashMap<JSONText, String>();
 	
-	/**Map of variables.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.**/
-	protected final Map<String, Double> variables = new HashMap<String, Double>();
+	/**Store of variables.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.**/
+	protected final VariableStore variables = new VariableStore();
+	/**Set when {@link #getRawVariableValue(String, float)} gets to the generic variables of this entity.  Used to resolve binding slots.**/
+	private boolean reachedGenericVariables;
 	
 	private final List<JSONSound> allSoundDefs = new ArrayList<JSONSound>();
 	private final Map<JSONSound, AnimationSwitchbox> soundActiveSwitchboxes = new HashMap<JSONSound, AnimationSwitchbox>();
@@ -120,16 +124,16 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 		
 		//Load variables.
 		for(String variableName : data.getStrings("variables")){
-			variables.put(variableName, data.getDouble(variableName));
+			variables.setValue(variableName, data.getDouble(variableName));
 		}
 		if(newlyCreated && definition.rendering != null && definition.rendering.initialVariables != null){
 			for(String variable : definition.rendering.initialVariables){
-				variables.put(variable, 1D);
+				variables.setValue(variable, 1D);
 			}
 		}
 		if(definition.rendering != null && definition.rendering.constants != null){
 			for(String variable : definition.rendering.constants){
-				variables.put(variable, 1D);
+				variables.setValue(variable, 1D);
 			}
 		}
 	}
@@ -143,7 +147,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 		//Add constants.
 		if(definition.rendering != null && definition.rendering.constants != null){
 			for(String variable : definition.rendering.constants){
-				variables.put(variable, 1D);
+				variables.setValue(variable, 1D);
 			}
 		}
 	}
@@ -183,6 +187,8 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  This should create (and reset) all JSON clocks and other static objects that depend on the definition. 
 	 */
 	protected void initializeDefinition(){
+		//Definition may have changed mass values.
+		markMassChanged();
 		if(definition.rendering != null && definition.rendering.sounds != null){
 			allSoundDefs.clear();
 			soundActiveSwitchboxes.clear();
@@ -388,7 +394,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 					if(spawningSwitchbox != null){
 						spawningSwitchbox.runSwitchbox(partialTicks, false);
 					}
-					world.addEntity(new EntityParticle(this, particleDef, spawningSwitchbox));
+					world.particles.spawnParticle(this, particleDef, spawningSwitchbox);
 				}
 			}
     	}
@@ -627,23 +633,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  found, then the super() method should be called to return those as a default.
 	 */
 	public double getRawVariableValue(String variable, float partialTicks){
-		switch(variable){
-			case("tick"): return ticksExisted + partialTicks;
-			case("tick_sin"): return Math.sin(Math.toRadians(ticksExisted + partialTicks));
-			case("tick_cos"): return Math.cos(Math.toRadians(ticksExisted + partialTicks));
-			case("time"): return world.getTime();
-			case("rain_strength"): return (int) world.getRainStrength(position);
-			case("rain_sin"): {
-				int rainStrength = (int) world.getRainStrength(position); 
-				return rainStrength > 0 ? Math.sin(rainStrength*Math.toRadians(360*(ticksExisted + partialTicks)/20))/2D + 0.5: 0;
-			}
-			case("rain_cos"): {
-				int rainStrength = (int) world.getRainStrength(position); 
-				return rainStrength > 0 ? Math.cos(rainStrength*Math.toRadians(360*(ticksExisted + partialTicks)/20))/2D + 0.5 : 0;
-			}	
-			case("light_sunlight"): return world.getLightBrightness(position, false);
-			case("light_total"): return world.getLightBrightness(position, true);
-			case("terrain_distance"): return world.getHeight(position);
+		//Check if this is a built-in variable.
+		VariableType builtInType = AnimationVariableBinding.getBuiltInType(variable);
+		if(builtInType != null){
+			return getBuiltInVariableValue(builtInType, partialTicks);
 		}
 		
 		//Check if this is a cycle variable.
@@ -651,30 +644,116 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 			String[] parsedVariable = variable.split("_");
 			int offTime = Integer.valueOf(parsedVariable[0]);
 			int onTime = Integer.valueOf(parsedVariable[1]);
-			int totalTime = offTime + onTime + Integer.valueOf(parsedVariable[2]);
-			long timeInCycle = ticksExisted%totalTime;
-			return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+			return getCycleVariableValue(offTime, onTime, offTime + onTime + Integer.valueOf(parsedVariable[2]));
 		}
 		
 		//Check if this is a text_x_ispresent variable.
 		if(variable.startsWith("text_") && variable.endsWith("_present")){
-			if(definition.rendering != null && definition.rendering.textObjects != null){
-				int textIndex = Integer.valueOf(variable.substring("text_".length(), variable.length() - "_present".length())) - 1;
-				if(definition.rendering.textObjects.size() > textIndex){
-					return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
-				}
-			}
-			return 0;
+			return getTextPresentVariableValue(Integer.valueOf(variable.substring("text_".length(), variable.length() - "_present".length())) - 1);
 		}
 		
 		//Check if this is a generic variable.  This contains lights in most cases.
-		Double variableValue = variables.get(variable);
-		if(variableValue != null){
-			return variableValue;
+		//If we didn't find a variable, this will return NaN.
+		reachedGenericVariables = true;
+		return variables.getValue(variable, Double.NaN);
+	}
+	
+	/**
+	 *  Returns true if the passed-in variable may or may not be computed by this entity depending on its state,
+	 *  such as variables that are forwarded to other entities only when connected to them.  Bindings for these
+	 *  variables are never resolved to slots, as the variable may be computed after the binding is resolved.
+	 *  Sub-classes that compute variables based on state prior to calling the super method should override this.
+	 */
+	protected boolean isStateDependentVariable(String variable){
+		return false;
+	}
+	
+	/**
+	 *  Returns the slot in {@link #variables} for the passed-in generic variable, or -1 if the variable isn't stored.
+	 *  Variables are stored if {@link #getRawVariableValue(String, float)} gets to the generic variables without
+	 *  a sub-class computing them first.  This is the same for every call, so we only need to check it once.
+	 */
+	private int resolveVariableSlot(String variable){
+		if(!isStateDependentVariable(variable)){
+			reachedGenericVariables = false;
+			getRawVariableValue(variable, 0);
+			if(reachedGenericVariables){
+				return variables.getOrCreateSlot(variable);
+			}
 		}
-		
-		//Didn't find a variable.  Return NaN.
-		return Double.NaN;
+		return -1;
+	}
+	
+	/**
+	 *  Returns the value for the passed-in compiled variable.  This is the same value as would be
+	 *  returned by {@link #getRawVariableValue(String, float)} for the binding's variable name, but
+	 *  without the string parsing for variables that can be pre-parsed.  Sub-classes that forward 
+	 *  built-in variables to other entities should override this method to do so.
+	 *  Generic variables are resolved to their slot the first time they are used, and read directly from the slot
+	 *  if they are set.  Variables that are computed, or that aren't set, use the raw lookup.
+	 */
+	public double getBoundVariableValue(AnimationVariableBinding binding, float partialTicks){
+		switch(binding.type){
+			case GENERIC: {
+				if(binding.slotEntity != this){
+					binding.slotEntity = this;
+					binding.variableSlot = resolveVariableSlot(binding.variableName);
+				}
+				if(binding.variableSlot != -1 && variables.isActive(binding.variableSlot)){
+					return variables.getValue(binding.variableSlot);
+				}
+				return getRawVariableValue(binding.variableName, partialTicks);
+			}
+			case CYCLE: return getCycleVariableValue(binding.cycleOffTime, binding.cycleOnTime, binding.cycleTotalTime);
+			case TEXT_PRESENT: return getTextPresentVariableValue(binding.textIndex);
+			default: return getBuiltInVariableValue(binding.type, partialTicks);
+		}
+	}
+	
+	/**
+	 *  Helper method to return the value of built-in variables.  These are common to all entities.
+	 */
+	private double getBuiltInVariableValue(VariableType type, float partialTicks){
+		switch(type){
+			case TICK: return ticksExisted + partialTicks;
+			case TICK_SIN: return Math.sin(Math.toRadians(ticksExisted + partialTicks));
+			case TICK_COS: return Math.cos(Math.toRadians(ticksExisted + partialTicks));
+			case TIME: return world.getTime();
+			case RAIN_STRENGTH: return (int) world.getRainStrength(position);
+			case RAIN_SIN: {
+				int rainStrength = (int) world.getRainStrength(position); 
+				return rainStrength > 0 ? Math.sin(rainStrength*Math.toRadians(360*(ticksExisted + partialTicks)/20))/2D + 0.5: 0;
+			}
+			case RAIN_COS: {
+				int rainStrength = (int) world.getRainStrength(position); 
+				return rainStrength > 0 ? Math.cos(rainStrength*Math.toRadians(360*(ticksExisted + partialTicks)/20))/2D + 0.5 : 0;
+			}	
+			case LIGHT_SUNLIGHT: return world.getLightBrightness(position, false);
+			case LIGHT_TOTAL: return world.getLightBrightness(position, true);
+			case TERRAIN_DISTANCE: return world.getHeight(position);
+			default: return Double.NaN;
+		}
+	}
+	
+	/**
+	 *  Helper method to return the value of a cycle variable.  Cycles are off for the offTime,
+	 *  on for the onTime, and then off for the remainder of the totalTime.
+	 */
+	private double getCycleVariableValue(int offTime, int onTime, int totalTime){
+		long timeInCycle = ticksExisted%totalTime;
+		return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+	}
+	
+	/**
+	 *  Helper method to return the value of a text_x_present variable.  Index is 0-indexed.
+	 */
+	private double getTextPresentVariableValue(int textIndex){
+		if(definition.rendering != null && definition.rendering.textObjects != null){
+			if(definition.rendering.textObjects.size() > textIndex){
+				return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
+			}
+		}
+		return 0;
 	}
 	
 	/**
@@ -693,15 +772,11 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  the scale parameter as only the variable value should be scaled, not the offset..
 	 */
 	public final double getAnimatedVariableValue(DurationDelayClock clock, double scaleFactor, double offset, float partialTicks){
-		double value;
-		if(clock.animation.variable.startsWith("!")){
-			value = getRawVariableValue(clock.animation.variable.substring(1), partialTicks);
+		double value = getBoundVariableValue(clock.variableBinding, partialTicks);
+		if(clock.variableBinding.inverted){
 			value = (value == 0 || Double.isNaN(value)) ? 1 : 0;
-		}else{
-			value = getRawVariableValue(clock.animation.variable, partialTicks);
-			if(Double.isNaN(value)){
-				value = 0;
-			}
+		}else if(Double.isNaN(value)){
+			value = 0;
 		}
 		if(!clock.isUseful){
 			return clampAndScale(value, clock.animation, scaleFactor, offset);
@@ -769,21 +844,30 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  define a number, then -1 is returned.
 	 */
 	public static int getVariableNumber(String variable){
-		if(variable.matches("^.*_[0-9]+$")){
-			return Integer.parseInt(variable.substring(variable.lastIndexOf('_') + 1)) - 1;
-		}else{
-			return -1;
+		//Parse the number manually.  This gets called a lot during animations, so we don't want to use regex here.
+		int number = 0;
+		int multiplier = 1;
+		for(int i=variable.length()-1; i>=0; --i){
+			char character = variable.charAt(i);
+			if(character >= '0' && character <= '9'){
+				number += (character - '0')*multiplier;
+				multiplier *= 10;
+			}else{
+				return character == '_' && multiplier != 1 ? number - 1 : -1;
+			}
 		}
+		return -1;
 	}
 	
 	/**
 	 *  Helper method to toggle a variable for this entity.
 	 */
 	public void toggleVariable(String variable){
-		//Try to remove the variable,this requires only one key-search operation, unlike a containsKey followed by a remove.
-		if(variables.remove(variable) == null){
-			//No key was in this map prior, so this variable was off, set it on.
-			variables.put(variable, 1D);
+		//Try to remove the variable,this requires only one key-search operation, unlike an isActive followed by a remove.
+		int slot = variables.getOrCreateSlot(variable);
+		if(!variables.remove(slot)){
+			//Variable wasn't active prior, so this variable was off, set it on.
+			variables.setValue(slot, 1D);
 		}
 	}
 	
@@ -792,10 +876,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 */
 	public void setVariable(String variable, double value){
 		if(value == 0){
-			//Remove variable from the map so we don't have as many to deal with.
+			//Remove variable from the active set so we don't have as many to deal with.
 			variables.remove(variable);
 		}else{
-			variables.put(variable, value);
+			variables.setValue(variable, value);
 		}
 	}
 	
@@ -826,21 +910,16 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  Helper method to get get a variable for this entity.
 	 */
 	public double getVariable(String variable){
-		Double value = variables.get(variable);
-		if(value == null){
-			//Don't add the variable to the map, just return 0 here.
-			return 0;
-		}else{
-			return value;
-		}
+		//Don't add the variable to the store, just return 0 here if it's not active.
+		return variables.getValue(variable, 0);
 	}
 	
 	/**
 	 *  Helper method to check if a variable is non-zero.
-	 *  This is a bit quicker than getting the value due to auto-boxing off the map.
+	 *  This is a bit quicker than getting the value as we don't need to load it.
 	 */
 	public boolean isVariableActive(String variable){
-		return variables.containsKey(variable);
+		return variables.isActive(variable);
 	}
 
 	 /**
@@ -968,9 +1047,11 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 		for(String textLine : text.values()){
 			data.setString("textLine" + lineNumber++, textLine);
 		}
-		data.setStrings("variables", variables.keySet());
-		for(String variableName : variables.keySet()){
-			data.setDouble(variableName, variables.get(variableName));
+		data.setStrings("variables", variables.getActiveNames());
+		for(int slot=0; slot<variables.getSlotCount(); ++slot){
+			if(variables.isActive(slot)){
+				data.setDouble(variables.getName(slot), variables.getValue(slot));
+			}
 		}
 		return data;
 	}
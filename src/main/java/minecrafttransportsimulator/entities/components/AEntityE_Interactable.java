@@ -260,7 +260,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 	}
 	
 	@Override
-	public double getMass(){
+	protected double calculateMass(){
 		return 100*locationRiderMap.values().size();
 	}
 	
@@ -339,6 +339,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     		encompassingBox.depthRadius = (float) Math.max(encompassingBox.depthRadius, Math.abs(box.globalCenter.z - position.z + box.depthRadius));
     	}
     	encompassingBox.updateToEntity(this, null);
+    	world.updateEntityBounds(this);
     }
 	
 	@Override
@@ -468,6 +469,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 			
 			//Add rider to map, and send out packet if required.
 			locationRiderMap.put(riderLocation, rider);
+			markMassChanged();
 			if(!world.isClient()){
 				rider.setRiding(this);
 				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityRiderChange(this, rider, riderLocation));
@@ -484,6 +486,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 	public void removeRider(IWrapperEntity rider){
 		if(locationRiderMap.containsValue(rider)){
 			locationRiderMap.inverse().remove(rider);
+			markMassChanged();
 			if(!world.isClient()){
 				rider.setRiding(null);
 				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityRiderChange(this, rider, null));
@@ -545,9 +548,9 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
             if(damageAmount > definition.general.health){
                 double amountActuallyNeeded = damage.amount - (damageAmount - definition.general.health);
                 damageAmount = definition.general.health;
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, amountActuallyNeeded));
+                InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, amountActuallyNeeded), this);
             }else{
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, damage.amount));
+                InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, damage.amount), this);
             }
             setVariable(DAMAGE_VARIABLE, damageAmount);
 	    }
@@ -563,6 +566,11 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         }
     }
     
+    @Override
+    public BoundingBox getCullingBounds(){
+        return encompassingBox;
+    }
+    
     @Override
     protected void renderModel(TransformationMatrix transform, boolean blendingEnabled, float partialTicks){
         super.renderModel(transform, blendingEnabled, partialTicks);
@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
@@ -85,6 +86,11 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 	/**Map of active part slot boxes.  Contains {@link #allPartSlotBoxes}, though may not contain all of them due to them not being active.**/
 	public final Map<BoundingBox, JSONPartDefinition> activePartSlotBoxes = new HashMap<BoundingBox, JSONPartDefinition>();
 	
+	/**Tree of all boxes in the all-box lists, flagged by the lists they are in.  Use this for area, point and line checks
+	 * rather than iterating the lists, as it only checks the boxes near the query.  Updated with the lists in {@link #sortBoxes()}.**/
+	public final BoundingBoxTree boxTree = new BoundingBoxTree();
+	private boolean boxTreeNeedsRebuild = true;
+	
 	//Constants
 	private final float PART_SLOT_HITBOX_WIDTH = 0.75F;
 	private final float PART_SLOT_HITBOX_HEIGHT = 2.25F;
@@ -208,9 +214,9 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 	}
 	
 	@Override
-	public double getMass(){
+	protected double calculateMass(){
 		//Return our mass, plus our parts.
-		double currentMass = super.getMass();
+		double currentMass = super.calculateMass();
 		for(APart part : parts){
 			currentMass += part.getMass();
 		}
@@ -518,6 +524,8 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
    	 */
 	public void addPart(APart part, boolean sendPacket){
 		parts.add(part);
+		part.massParent = this;
+		markMassChanged();
 		AItemPart partItem = part.getItem();
 		//Check for null, as the part may not have an item it will return, as is
 		//the case for fake parts or flat wheels.
@@ -573,6 +581,8 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 			}else{
 				parts.remove(part);
 			}
+			part.massParent = null;
+			markMassChanged();
 			//Remove from mappings.
 			AItemPart partItem = part.getItem();
 			if(partsByItem.containsKey(partItem)){
@@ -630,6 +640,11 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 	 * to know which part it went to.
 	 */
 	public APart getPartWithBox(BoundingBox box){
+		//If the box tree is current and has this box, it knows the owner.
+		//Otherwise, the box may be from a part added since the last tree update, so check the parts.
+		if(!boxTreeNeedsRebuild && boxTree.containsBox(box)){
+			return boxTree.getOwner(box);
+		}
 		for(APart part : parts){
 			if(part.interactionBoxes.contains(box) || part.bulletCollisionBoxes.contains(box)){
 				return part;
@@ -816,6 +831,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 	 * Also must be called at construction time to create the initial slot set.
 	 */
 	private void recalculatePartSlots(){
+		boxTreeNeedsRebuild = true;
 		allPartSlotBoxes.clear();
 		for(Entry<Point3D, JSONPartDefinition> packPartEntry : getAllPossiblePackParts().entrySet()){
 			if(getPartAtLocation(packPartEntry.getKey()) == null){
@@ -915,6 +931,45 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 	    	}
 		}
 		encompassingBox.updateToEntity(this, null);
+		world.updateEntityBounds(this);
+		
+		//Update the box tree to match the lists.
+		updateBoxTree();
+	}
+	
+	/**
+	 * Updates the flags of the boxes in {@link #boxTree} to the lists they are in, and refits it to their current positions.
+	 * If parts have changed, or a box is in a list that isn't in the tree, such as one from a collision group that was
+	 * just animated on, the tree is re-made from the lists instead.  Boxes that leave the lists stay in the tree without
+	 * flags until the next re-make, so groups that animate on and off don't cause a re-make every time.
+	 */
+	private void updateBoxTree(){
+		boxTree.clearFlags();
+		if(boxTreeNeedsRebuild || !flagBoxTree()){
+			boxTree.clear();
+			boxTree.addBoxes(allEntityCollisionBoxes);
+			boxTree.addBoxes(allInteractionBoxes);
+			boxTree.addBoxes(allBulletCollisionBoxes);
+			boxTree.addBoxes(allPartSlotBoxes.keySet());
+			for(APart part : parts){
+				boxTree.setOwner(part.interactionBoxes, part);
+				boxTree.setOwner(part.bulletCollisionBoxes, part);
+			}
+			boxTree.build();
+			flagBoxTree();
+			boxTreeNeedsRebuild = false;
+		}
+		boxTree.refit();
+	}
+	
+	/**
+	 * Flags all boxes in {@link #boxTree} with the lists they are in.  Returns false if a box isn't in the tree.
+	 */
+	private boolean flagBoxTree(){
+		return boxTree.addFlags(allEntityCollisionBoxes, BoundingBoxTree.COLLISION) &&
+			boxTree.addFlags(allInteractionBoxes, BoundingBoxTree.INTERACTION) &&
+			boxTree.addFlags(allBulletCollisionBoxes, BoundingBoxTree.BULLET) &&
+			boxTree.addFlags(allPartSlotBoxes.keySet(), BoundingBoxTree.PART_SLOT);
 	}
 	
 	/**
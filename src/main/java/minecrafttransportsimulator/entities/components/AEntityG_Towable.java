@@ -3,7 +3,6 @@ package minecrafttransportsimulator.entities.components;
 import java.util.ArrayList;
 import java.util.List;
 
-import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
 import minecrafttransportsimulator.entities.instances.APart;
@@ -16,7 +15,6 @@ import minecrafttransportsimulator.jsondefs.JSONConfigLanguage.LanguageEntry;
 import minecrafttransportsimulator.jsondefs.JSONConnection;
 import minecrafttransportsimulator.jsondefs.JSONConnectionGroup;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.mcinterface.IWrapperEntity;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
@@ -34,6 +32,8 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 	public final List<TowingConnection> towingConnections = new ArrayList<TowingConnection>();
 	private TowingConnection savedTowedByConnection;
 	private final List<TowingConnection> savedTowingConnections = new ArrayList<TowingConnection>();
+	private final List<EntityVehicleF_Physics> entitiesToCheck = new ArrayList<EntityVehicleF_Physics>();
+	private final List<IWrapperPlayer> nearbyPlayers = new ArrayList<IWrapperPlayer>();
 	public static final String TOWING_CONNECTION_REQUEST_VARIABLE = "connection_requested";
 	
 	public AEntityG_Towable(AWrapperWorld world, IWrapperPlayer placingPlayer, IWrapperNBT data){
@@ -193,6 +193,12 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 		return super.getRawVariableValue(variable, partialTicks);
 	}
 	
+	@Override
+	protected boolean isStateDependentVariable(String variable){
+		//Connection variables are only computed if we have the connection.
+		return variable.startsWith("connection") || super.isStateDependentVariable(variable);
+	}
+	
     @Override
 	public void doPostUpdateLogic(){
     	super.doPostUpdateLogic();
@@ -263,8 +269,8 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 		
 		if(connectionToDisconnect == null){
 			TrailerConnectionResult result;
-			List<AEntityG_Towable<?>> entitiesToCheck = new ArrayList<AEntityG_Towable<?>>();
-			entitiesToCheck.addAll(world.getEntitiesOfType(EntityVehicleF_Physics.class));
+			//Connections can't be made more than 25 blocks from the connection definer, so only check vehicles in that range.
+			world.getEntitiesInRadius(EntityVehicleF_Physics.class, connectionDefiner.position, 25, entitiesToCheck);
 			
 			if(requestedGroup.isHookup){
 				//Find entity that can tow us.
@@ -415,6 +421,8 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 	public void connectTrailer(TowingConnection connection){
 		towingConnections.add(connection);
 		connection.towedVehicle.towedByConnection = connection;
+		connection.towedVehicle.massParent = this;
+		markMassChanged();
 		((AEntityG_Towable<?>)connection.towedVehicle).savedTowedByConnection = null;
 		
 		//Need to set initial values to avoid bad-syncing.
@@ -434,6 +442,8 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 	public void disconnectTrailer(int connectionIndex){
 		TowingConnection connection = towingConnections.remove(connectionIndex);
 		connection.towedVehicle.towedByConnection = null;
+		connection.towedVehicle.massParent = null;
+		markMassChanged();
 		if(!world.isClient()){
 			InterfaceManager.packetInterface.sendToAllClients(new PacketEntityTowingChange(this, connectionIndex));
 		}else if(AGUIBase.activeInputGUI instanceof AGUIPanel){
@@ -450,8 +460,20 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 	 * on those clients by the time the packet arrives.
 	 */
 	public void disconnectAllConnections(){
+		for(TowingConnection connection : towingConnections){
+			connection.towedVehicle.massParent = null;
+		}
 		towingConnections.clear();
 		towedByConnection = null;
+		markMassChanged();
+		
+		//Clear our own mass parent, and make it re-calculate its mass without us.
+		//This is done after marking ourselves, as we may already be marked and so wouldn't mark the parent.
+		if(massParent != null){
+			AEntityA_Base formerMassParent = massParent;
+			massParent = null;
+			formerMassParent.markMassChanged();
+		}
 	}
 	
 	@Override
@@ -492,10 +514,9 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 		}
 		
 		private void handlePacket(AEntityG_Towable<?> messageSource){
-			for(IWrapperEntity entity : messageSource.world.getEntitiesWithin(new BoundingBox(messageSource.position, 16, 16, 16))){
-				if(entity instanceof IWrapperPlayer){
-					((IWrapperPlayer) entity).sendPacket(new PacketPlayerChatMessage((IWrapperPlayer) entity, language));
-				}
+			messageSource.world.getExternalEntitiesInRadius(IWrapperPlayer.class, messageSource.position, 16, messageSource.nearbyPlayers);
+			for(IWrapperPlayer player : messageSource.nearbyPlayers){
+				player.sendPacket(new PacketPlayerChatMessage(player, language));
 			}
 		}
 	}
@@ -39,8 +39,8 @@ abstract class AEntityVehicleB_Rideable extends AEntityG_Towable<JSONVehicle>{
 	}
 	
 	@Override
-	public double getMass(){
-		return super.getMass() + definition.motorized.emptyMass;
+	protected double calculateMass(){
+		return super.calculateMass() + definition.motorized.emptyMass;
 	}
 	
 	@Override
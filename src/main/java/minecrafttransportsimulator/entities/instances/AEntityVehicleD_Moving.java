@@ -2,8 +2,8 @@ package minecrafttransportsimulator.entities.instances;
 
 import java.util.Iterator;
 
-import minecrafttransportsimulator.baseclasses.BezierCurve;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxSweeper;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
@@ -11,7 +11,6 @@ import minecrafttransportsimulator.baseclasses.VehicleGroundDeviceCollection;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
 import minecrafttransportsimulator.blocks.instances.BlockCollision;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadFollowingState;
-import minecrafttransportsimulator.blocks.tileentities.components.RoadLane;
 import minecrafttransportsimulator.blocks.tileentities.components.RoadLane.LaneSelectionRequest;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityRoad;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
@@ -72,6 +71,8 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	//Road-following data.
 	private RoadFollowingState frontFollower;
 	private RoadFollowingState rearFollower;
+	/**Road last found under this vehicle.  Checked for followers every tick, as finding roads is expensive and only done every 20 ticks.**/
+	private TileEntityRoad followerRoad;
 	private LaneSelectionRequest selectedSegment = LaneSelectionRequest.NONE;
 	private double totalPathDelta;
 	private double prevTotalPathDelta;
@@ -100,6 +101,10 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	private double pathingApplied;
 	
 	private final Point3D tempBoxPosition = new Point3D();
+	private final Point3D tempBoxMotion = new Point3D();
+	private final Point3D sweptMotion = new Point3D();
+	private final BoundingBoxSweeper boxSweeper = new BoundingBoxSweeper();
+	private boolean sweptCollision;
 	private final Point3D normalizedGroundVelocityVector = new Point3D();
 	private final Point3D normalizedGroundHeadingVector = new Point3D();
 	private AEntityE_Interactable<?> lastCollidedEntity;
@@ -175,7 +180,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 					}
 					return;
 				}else{
-					addToServerDeltas(null, null, 0);
+					addToServerDeltas();
 				}
 			}
 		}
@@ -264,35 +269,20 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	 * Returns the follower for the rear of the vehicle.  Front follower should
 	 * be obtained by getting the point from this follower the distance away from the
 	 * front and the rear position.  This may be the same curve, this may not.
+	 * The road under the vehicle is only searched for every 20 ticks, as that requires
+	 * searching the blocks around the road.  Between searches, the last road found is checked.
 	 */
 	private RoadFollowingState getFollower(){
 		Point3D contactPoint = groundDeviceCollective.getContactPoint(false);
 		if(contactPoint != null){
 			contactPoint.rotate(orientation).add(position);
-			ABlockBase block =  world.getBlock(contactPoint);
-			if(block instanceof BlockCollision){
-				TileEntityRoad road = ((BlockCollision) block).getMasterRoad(world, contactPoint);
-				if(road != null){
-					//Check to see which lane we are on, if any.
-					Point3D testPoint = new Point3D();
-					Point3D testRotation = new Point3D();
-					for(RoadLane lane : road.lanes){
-						//Check path-points on the curve.  If our angles and position are close, set this as the curve.
-						for(BezierCurve curve : lane.curves){
-							for(float f=0; f<curve.pathLength; ++f){
-								curve.setPointToPositionAt(testPoint, f);
-								if(testPoint.isDistanceToCloserThan(contactPoint, 1)){
-									testRotation = curve.getRotationAt(f).angles;
-									boolean sameDirection = Math.abs(testRotation.getClampedYDelta(orientation.angles.y)) < 10;
-									boolean oppositeDirection = Math.abs(testRotation.getClampedYDelta(orientation.angles.y)) > 170;
-									if(sameDirection || oppositeDirection){
-										return new RoadFollowingState(lane, curve, sameDirection, f);
-									}
-								}
-							}
-						}
-					}
-				}
+			if(ticksExisted%20 == 0 || (followerRoad != null && (!followerRoad.isValid || !followerRoad.isActive()))){
+				ABlockBase block = world.getBlock(contactPoint);
+				followerRoad = block instanceof BlockCollision ? ((BlockCollision) block).getMasterRoad(world, contactPoint) : null;
+			}
+			if(followerRoad != null){
+				//Check to see which lane we are on, if any.
+				return followerRoad.getFollower(contactPoint, orientation.angles.y);
 			}
 		}
 		return null;
@@ -545,7 +535,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 			if(definition.motorized.isAircraft || (towedByConnection != null && !towedByConnection.towingVehicle.lockedOnRoad)){
 				frontFollower = null;
 				rearFollower = null;
-			}else if((frontFollower == null || rearFollower == null) && ticksExisted%20 == 0){
+			}else if(frontFollower == null || rearFollower == null){
 				Point3D frontContact = groundDeviceCollective.getContactPoint(true);
 				Point3D rearContact = groundDeviceCollective.getContactPoint(false);
 				if(frontContact != null && rearContact != null){
@@ -683,7 +673,8 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 				//This prevents vehicles from phasing through walls even though they are driving on the ground.
 				//If we are being towed, apply this movement to the towing vehicle, not ourselves, as this can lead to the vehicle getting stuck.
 				world.beginProfiling("CollisionCheck_" + allBlockCollisionBoxes.size(), false);
-				if(isCollisionBoxCollided()){
+				sweptCollision = ConfigSystem.settings.general.sweptVehicleCollisions.value;
+				if(sweptCollision ? isCollisionBoxSwept() : isCollisionBoxCollided()){
 					world.beginProfiling("CollisionHandling", false);
 					if(towedByConnection != null){
 						Point3D initalMotion = motion.copy();
@@ -846,7 +837,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 					//syncServerDeltas(null, null, 0);
 				}
 			}else{
-				addToServerDeltas(null, null, 0);
+				addToServerDeltas();
 			}
 		}else{
 			//Mounted vehicles don't do most motions, only a sub-set of them.
@@ -863,7 +854,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 				rotationApplied.angles.set(orientation.angles).subtract(prevOrientation.angles).clamp180();
 				clientDeltaR.add(rotationApplied.angles);
 			}else{
-				addToServerDeltas(null, null, 0);
+				addToServerDeltas();
 			}
 		}
 		world.endProfiling();
@@ -874,18 +865,59 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	 */
 	private boolean isCollisionBoxCollided(){
 		if(motion.length() > 0.001){
-			boolean clearedCache = false;
 			for(BoundingBox box : allBlockCollisionBoxes){
 				tempBoxPosition.set(box.globalCenter).subtract(position).rotate(rotation).subtract(box.globalCenter).add(position).addScaled(motion, speedFactor);
-				if(!box.collidesWithLiquids && world.checkForCollisions(box, tempBoxPosition, !clearedCache)){
+				if(!box.collidesWithLiquids && world.checkForCollisions(box, tempBoxPosition)){
 					return true;
 				}
-				clearedCache = true;
 			}
 		}
 		return false;
 	}
 	
+	/**
+	 *  Like {@link #isCollisionBoxCollided()}, but sweeps the boxes along the motion rather than checking
+	 *  where they end up.  The motion each box can go before it hits a block is stored in {@link #sweptMotion}
+	 *  to limit the movement in {@link #correctCollidingMovement()}.
+	 *  Boxes that start inside a block, such as when rotating into a wall, are checked where they end up instead.
+	 */
+	private boolean isCollisionBoxSwept(){
+		boolean collided = false;
+		sweptMotion.set(motion);
+		boolean moving = motion.length() > 0.001;
+		if(moving || !rotation.angles.isZero()){
+			for(BoundingBox box : allBlockCollisionBoxes){
+				if(!box.collidesWithLiquids){
+					tempBoxPosition.set(box.globalCenter).subtract(position).rotate(rotation).subtract(box.globalCenter).add(position);
+					if(moving){
+						tempBoxMotion.set(motion).scale(speedFactor);
+						if(boxSweeper.sweep(world, box, tempBoxPosition, tempBoxMotion)){
+							collided = true;
+							tempBoxMotion.scale(1D/speedFactor);
+							if(Math.abs(tempBoxMotion.x) < Math.abs(sweptMotion.x)){
+								sweptMotion.x = tempBoxMotion.x;
+							}
+							if(Math.abs(tempBoxMotion.y) < Math.abs(sweptMotion.y)){
+								sweptMotion.y = tempBoxMotion.y;
+							}
+							if(Math.abs(tempBoxMotion.z) < Math.abs(sweptMotion.z)){
+								sweptMotion.z = tempBoxMotion.z;
+							}
+						}
+						//The sweep ignores blocks the box starts in, so check those where the box ends up.
+						if(boxSweeper.startedInBlock && !collided && world.checkForCollisions(box, tempBoxPosition.addScaled(motion, speedFactor))){
+							collided = true;
+						}
+					}else if(world.checkForCollisions(box, tempBoxPosition)){
+						//Only rotating, so just check where the box ends up.
+						collided = true;
+					}
+				}
+			}
+		}
+		return collided;
+	}
+	
 	/**
 	 *  If a collision box collided, we need to restrict our proposed movement.
 	 *  Do this by removing motions that cause collisions.
@@ -951,6 +983,20 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 			}
 		}
 		
+		//If we swept our boxes, make sure we don't move past the first block we hit.
+		//Depth-based checks above only see the blocks where we end up, so they can miss thin blocks.
+		if(sweptCollision){
+			if(Math.abs(motion.x) > Math.abs(sweptMotion.x)){
+				motion.x = sweptMotion.x;
+			}
+			if(Math.abs(motion.y) > Math.abs(sweptMotion.y)){
+				motion.y = sweptMotion.y;
+			}
+			if(Math.abs(motion.z) > Math.abs(sweptMotion.z)){
+				motion.z = sweptMotion.z;
+			}
+		}
+		
 		//Check the rotation.
 		if(!rotation.angles.isZero()){
 			for(BoundingBox box : allBlockCollisionBoxes){
@@ -964,29 +1010,35 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		return false;
 	}
 	
-	public void addToServerDeltas(Point3D motionAdded, Point3D rotationAdded, double pathingAdded){
-		if(rotationAdded != null){
-			//Packet call from server, add directly.
-			serverDeltaM.add(motionAdded);
-			serverDeltaR.add(rotationAdded);
-			serverDeltaP += pathingAdded;
-		}else{
-			//Internal call either from server, add normally and send packet if needed.
-			if(!motionApplied.isZero() || !rotationApplied.angles.isZero()){
-				if(!rotationApplied.angles.isZero()){
-					rotationApplied.angles.set(orientation.angles).subtract(prevOrientation.angles).clamp180();
-				}
-				serverDeltaM.add(motionApplied);
-				serverDeltaR.add(rotationApplied.angles);
-				serverDeltaP += pathingApplied;
-				InterfaceManager.packetInterface.sendToAllClients(new PacketVehicleServerMovement((EntityVehicleF_Physics) this, motionApplied, rotationApplied.angles, pathingApplied));
+	/**
+	 *  Adds this tick's movement to the server deltas, and sends a snapshot of them to clients if we moved.
+	 *  Only call this on the server.
+	 */
+	public void addToServerDeltas(){
+		if(!motionApplied.isZero() || !rotationApplied.angles.isZero()){
+			if(!rotationApplied.angles.isZero()){
+				rotationApplied.angles.set(orientation.angles).subtract(prevOrientation.angles).clamp180();
 			}
+			serverDeltaM.add(motionApplied);
+			serverDeltaR.add(rotationApplied.angles);
+			serverDeltaP += pathingApplied;
+			InterfaceManager.packetInterface.sendToTrackingClients(new PacketVehicleServerMovement((EntityVehicleF_Physics) this, serverDeltaM, serverDeltaR, serverDeltaP), this);
 		}
 	}
 	
+	/**
+	 *  Sets the server deltas to the passed-in snapshot from the server.
+	 *  Only call this on clients.
+	 */
+	public void setServerDeltas(Point3D motionSnapshot, Point3D rotationSnapshot, double pathingSnapshot){
+		serverDeltaM.set(motionSnapshot);
+		serverDeltaR.set(rotationSnapshot);
+		serverDeltaP = pathingSnapshot;
+	}
+	
 	public void syncServerDeltas(Point3D motionSnapshot, Point3D rotationSnapshot, double pathingSnapshot){
 		if(!world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(new PacketVehicleServerSync((EntityVehicleF_Physics) this, serverDeltaM, serverDeltaR, serverDeltaP));
+			InterfaceManager.packetInterface.sendToTrackingClients(new PacketVehicleServerSync((EntityVehicleF_Physics) this, serverDeltaM, serverDeltaR, serverDeltaP), this);
 		}else if(motionSnapshot != null && !serverDeltaMAtSync.isZero()){
 			serverDeltaM.add(motionSnapshot).subtract(serverDeltaMAtSync);
 			serverDeltaR.add(rotationSnapshot).subtract(serverDeltaRAtSync);
@@ -84,6 +84,7 @@ abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving{
 		this.selectedBeaconName = data.getString("selectedBeaconName");
 		this.selectedBeacon = NavBeacon.getByNameFromWorld(world, selectedBeaconName);
 		this.fuelTank = new EntityFluidTank(world, data.getDataOrNew("fuelTank"), definition.motorized.fuelCapacity);
+		fuelTank.massParent = this;
 		world.addEntity(fuelTank);
 		
 		if(newlyCreated){
@@ -287,8 +288,8 @@ abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving{
 	}
 	
 	@Override
-	public double getMass(){
-		return super.getMass() + fuelTank.getMass();
+	protected double calculateMass(){
+		return super.calculateMass() + fuelTank.getMass();
 	}
 	
 	@Override
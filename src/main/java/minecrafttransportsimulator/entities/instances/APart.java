@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
@@ -252,7 +253,7 @@ public abstract class APart extends AEntityE_Interactable<JSONPart>{
 	}
 	
 	@Override
-	public double getMass(){
+	protected double calculateMass(){
 		return definition.generic.mass;
 	}
 	
@@ -403,6 +404,12 @@ public abstract class APart extends AEntityE_Interactable<JSONPart>{
         return super.disableRendering(partialTicks) || isFake() || isInvisible;
     }
 	
+	@Override
+    public BoundingBox getCullingBounds(){
+		//Part models can be much bigger than their boxes, so use the bounds of the entity we are on.
+        return entityOn.getCullingBounds();
+    }
+	
 	@Override
     public void renderBoundingBoxes(TransformationMatrix transform){
         if(!entityOn.areVariablesBlocking(placementDefinition, InterfaceManager.clientInterface.getClientPlayer())){
@@ -1,10 +1,12 @@
 package minecrafttransportsimulator.entities.instances;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.TreeMap;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
@@ -35,6 +37,9 @@ import minecrafttransportsimulator.systems.ConfigSystem;
  */
 
 public class EntityBullet extends AEntityD_Definable<JSONBullet>{	
+	/**Range at which clients will get block hit sounds.  Further than this and they wouldn't hear them.**/
+	private static final double HIT_SOUND_RANGE = 64;
+	
 	//Properties
 	public final PartGun gun;
 	private final boolean isBomb;
@@ -53,6 +58,8 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet>{
 	private PartEngine engineTargeted;
 	private IWrapperEntity externalEntityTargeted;
 	private HitType lastHit;
+	private final List<EntityVehicleF_Physics> nearbyVehicles = new ArrayList<EntityVehicleF_Physics>();
+	private final List<BoundingBox> nearbyBoxes = new ArrayList<BoundingBox>();
 	
 	/**Generic constructor for no target.**/
     public EntityBullet(Point3D position, Point3D motion, RotationMatrix orientation, PartGun gun){
@@ -209,7 +216,8 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet>{
 		//This is a bit more involved, as we need to check all possible types and check hitbox distance.
 		Point3D endPoint = position.copy().add(motion);
 		BoundingBox bulletMovmenetBounds = new BoundingBox(position, endPoint);
-		for(EntityVehicleF_Physics hitVehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)){
+		world.getEntitiesAlongLine(EntityVehicleF_Physics.class, position, endPoint, nearbyVehicles);
+		for(EntityVehicleF_Physics hitVehicle : nearbyVehicles){
 			//Don't attack the entity that has the gun that fired us.
 			if(!hitVehicle.parts.contains(gun)){
 				//Make sure that we could even possibly hit this vehicle before we try and attack it.
@@ -217,7 +225,8 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet>{
 					//Get all collision boxes on the vehicle, and check if we hit any of them.
 					//Sort them by distance for later.
 					TreeMap<Double, BoundingBox> hitBoxes = new TreeMap<Double, BoundingBox>();
-					for(BoundingBox box : hitVehicle.allInteractionBoxes){
+					hitVehicle.boxTree.getBoxesAlongLine(position, endPoint, BoundingBoxTree.INTERACTION | BoundingBoxTree.BULLET, nearbyBoxes);
+					for(BoundingBox box : nearbyBoxes){
 					    if(!hitVehicle.allPartSlotBoxes.containsKey(box)) {
     						Point3D delta = box.getIntersectionPoint(position, endPoint); 
     						if(delta != null){
@@ -225,12 +234,6 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet>{
     						}
 					    }
 					}
-					for(BoundingBox box : hitVehicle.allBulletCollisionBoxes){
-						Point3D delta = box.getIntersectionPoint(position, endPoint); 
-						if(delta != null){
-							hitBoxes.put(delta.distanceTo(position), box);
-						}
-					}
 					
 					//Check all boxes for armor and see if we penetrated them.
 					Iterator<BoundingBox> hitBoxIterator = hitBoxes.values().iterator();
@@ -246,9 +249,9 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet>{
                             if(currentDamage > hitBox.groupDef.health){
                                 double amountActuallyNeeded = damage.amount - (currentDamage - hitBox.groupDef.health);
                                 currentDamage = hitBox.groupDef.health;
-                                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(hitEntity, variableName, amountActuallyNeeded));
+                                InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(hitEntity, variableName, amountActuallyNeeded), hitEntity);
                             }else{
-                                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(hitEntity, variableName, damage.amount));
+                                InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(hitEntity, variableName, damage.amount), hitEntity);
                             }
                             hitEntity.setVariable(variableName, currentDamage);
                             displayDebugMessage("HIT HEALTH BOX.  ATTACKED FOR: " + damage.amount + ".  BOX CURRENT DAMAGE: " + currentDamage + " OF " + hitBox.groupDef.health);
@@ -329,7 +332,7 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet>{
                         }
                     }else{
                         //Couldn't break the block or set it on fire.  Have clients do sounds.
-                        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityBulletHitBlock(hitPos));
+                        InterfaceManager.packetInterface.sendToClientsNear(new PacketEntityBulletHitBlock(hitPos), world, hitPos, HIT_SOUND_RANGE);
                     }
                 }
     		}
@@ -30,7 +30,7 @@ public class EntityFluidTank extends AEntityA_Base{
 	}
 	
 	@Override
-	public double getMass(){
+	protected double calculateMass(){
 		return fluidLevel/50D;
 	}
 	
@@ -77,6 +77,7 @@ public class EntityFluidTank extends AEntityA_Base{
 	public void manuallySet(String fluidName, double setLevel){
 		this.currentFluid = fluidName;
 		this.fluidLevel = setLevel;
+		markMassChanged();
 	}
 	
 	/**
@@ -93,6 +94,7 @@ public class EntityFluidTank extends AEntityA_Base{
 			}
 			if(doFill){
 				fluidLevel += maxAmount;
+				markMassChanged();
 				if(currentFluid.isEmpty()){
 					currentFluid = fluid;
 				}
@@ -126,6 +128,7 @@ public class EntityFluidTank extends AEntityA_Base{
 				}
 				fluidLevel -= maxAmount;
 				fluidDispensed += maxAmount;
+				markMassChanged();
 				if(fluidLevel == 0){
 					currentFluid = "";
 				}
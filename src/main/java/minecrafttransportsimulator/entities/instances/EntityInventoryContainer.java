@@ -18,15 +18,28 @@ import minecrafttransportsimulator.packets.instances.PacketInventoryContainerCha
  */
 public class EntityInventoryContainer extends AEntityA_Base implements IInventoryProvider{
 	private final List<IWrapperItemStack> inventory;
+	/**Mass of the stack in each slot.  Kept so we can update {@link #inventoryMass} when a stack changes without checking every stack.**/
+	private final double[] slotMasses;
+	private double inventoryMass;
 	
 	public EntityInventoryContainer(AWrapperWorld world, IWrapperNBT data, int maxSlots){
 		super(world, data);
 		this.inventory = data.getStacks(maxSlots);
+		this.slotMasses = new double[inventory.size()];
+		for(int i=0; i<slotMasses.length; ++i){
+			slotMasses[i] = IInventoryProvider.getStackMass(inventory.get(i));
+			inventoryMass += slotMasses[i];
+		}
+	}
+	
+	@Override
+	protected double calculateMass(){
+		return inventoryMass;
 	}
 	
 	@Override
-	public double getMass(){
-		return getInventoryMass();
+	public double getInventoryMass(){
+		return inventoryMass;
 	}
 
 	@Override
@@ -42,6 +55,10 @@ public class EntityInventoryContainer extends AEntityA_Base implements IInventor
 	@Override
 	public void setStack(IWrapperItemStack stackToSet, int index){
 		inventory.set(index, stackToSet);
+		double stackMass = IInventoryProvider.getStackMass(stackToSet);
+		inventoryMass += stackMass - slotMasses[index];
+		slotMasses[index] = stackMass;
+		markMassChanged();
 		if(!world.isClient()){
 			InterfaceManager.packetInterface.sendToAllClients(new PacketInventoryContainerChange(this, index, stackToSet));
 		}
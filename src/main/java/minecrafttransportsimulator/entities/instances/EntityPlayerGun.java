@@ -2,10 +2,10 @@ package minecrafttransportsimulator.entities.instances;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
@@ -17,7 +17,6 @@ import minecrafttransportsimulator.items.instances.ItemPartGun;
 import minecrafttransportsimulator.jsondefs.JSONPartDefinition;
 import minecrafttransportsimulator.jsondefs.JSONPlayerGun;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.mcinterface.IWrapperEntity;
 import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
@@ -56,12 +55,12 @@ public class EntityPlayerGun extends AEntityF_Multipart<JSONPlayerGun>{
 			//Get player via saved NBT.  If the player isn't found, we're not valid.
 			UUID playerUUID = data.getUUID("playerUUID");
 			IWrapperPlayer foundPlayer = null;
-			for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 16, 16, 16))){
-				if(entity instanceof IWrapperPlayer){
-					if(((IWrapperPlayer) entity).getID().equals(playerUUID)){
-						foundPlayer = (IWrapperPlayer) entity;
-						break;
-					}
+			List<IWrapperPlayer> nearbyPlayers = new ArrayList<IWrapperPlayer>();
+			world.getExternalEntitiesInRadius(IWrapperPlayer.class, position, 16, nearbyPlayers);
+			for(IWrapperPlayer nearbyPlayer : nearbyPlayers){
+				if(nearbyPlayer.getID().equals(playerUUID)){
+					foundPlayer = nearbyPlayer;
+					break;
 				}
 			}
 			if(foundPlayer != null){
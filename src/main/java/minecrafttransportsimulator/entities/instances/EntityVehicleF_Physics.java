@@ -1,15 +1,12 @@
 package minecrafttransportsimulator.entities.instances;
 
-import java.util.HashSet;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
-import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.items.components.AItemBase;
 import minecrafttransportsimulator.items.components.AItemPart;
 import minecrafttransportsimulator.jsondefs.JSONItem.ItemComponentType;
@@ -21,6 +18,8 @@ import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
+import minecrafttransportsimulator.rendering.AnimationVariableBinding;
+import minecrafttransportsimulator.rendering.AnimationVariableBinding.VariableType;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**This class adds the final layer of physics calculations on top of the
@@ -98,7 +97,6 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 	private final Point3D sideVector = new Point3D();
 	private final Point3D hitchPrevOffset = new Point3D();
 	private final Point3D hitchCurrentOffset = new Point3D();
-	private final Set<AEntityG_Towable<?>> towedEntitiesCheckedForWeights = new HashSet<AEntityG_Towable<?>>();
 	
 	//Properties.
 	@ModifiedValue
@@ -187,25 +185,12 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 	}
 	
 	@Override
-	public double getMass(){
-		//Need to use a list here to make sure we don't end up with infinite recursion due to bad trailer linkings.
-		//This could lock up a world if not detected!
-		double combinedMass = super.getMass();
-		if(!towingConnections.isEmpty()){
-			AEntityG_Towable<?> towedEntity = null;
-			for(TowingConnection connection : towingConnections){
-				//Only check once per base entity.
-				towedEntity = connection.towedVehicle;
-				if(towedEntitiesCheckedForWeights.contains(towedEntity)){
-					InterfaceManager.coreInterface.logError("Infinite loop detected on weight checking code!  Is a trailer towing the thing that's towing it?");
-					break;
-				}else{
-					towedEntitiesCheckedForWeights.add(towedEntity);
-					combinedMass += towedEntity.getMass();
-					towedEntity = null;
-					towedEntitiesCheckedForWeights.clear();
-				}
-			}
+	protected double calculateMass(){
+		//Towed entities are cached, so this won't recurse if a trailer is towing the thing that's towing it.
+		//Their cached mass will be returned instead, which prevents locking up the world.
+		double combinedMass = super.calculateMass();
+		for(TowingConnection connection : towingConnections){
+			combinedMass += connection.towedVehicle.getMass();
 		}
 		return combinedMass;
 	}
@@ -227,7 +212,7 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 			delta = -degrees;
 		}
 		setVariable(RUDDER_INPUT_VARIABLE, rudderInput + delta);
-		InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, delta));
+		InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, delta), this);
 	}
 	
 	@Override
@@ -532,13 +517,13 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 				if(throttle < MAX_THROTTLE){
 					throttle += MAX_THROTTLE/100D;
 					setVariable(THROTTLE_VARIABLE, throttle);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE/100D));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE/100D), this);
 				}
 			}else if(velocity > autopilotSetting){
 				if(throttle > 0){
 					throttle -= MAX_THROTTLE/100D;
 					setVariable(THROTTLE_VARIABLE, throttle);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE/100D));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE/100D), this);
 				}
 			}
 		}
@@ -552,11 +537,11 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 					if(motion.y < 0 && throttle < MAX_THROTTLE){
 						throttle += MAX_THROTTLE/100D;
 						setVariable(THROTTLE_VARIABLE, throttle);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE/100D));
+						InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE/100D), this);
 					}else if(motion.y > 0 && throttle < MAX_THROTTLE){
 						throttle -= MAX_THROTTLE/100D;
 						setVariable(THROTTLE_VARIABLE, throttle);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE/100D));
+						InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE/100D), this);
 					}
 				}
 				//Change pitch/roll based on movement.
@@ -566,33 +551,33 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 				double sidewaysDelta = sidewaysVelocity - prevMotion.dotProduct(sideVector, false);
 				if(forwardsDelta > 0 && forwardsVelocity > 0 && elevatorTrim < MAX_ELEVATOR_TRIM){
 					setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1), this);
 				}else if(forwardsDelta < 0 && forwardsVelocity < 0 && elevatorTrim > -MAX_ELEVATOR_TRIM){
 					setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1), this);
 				}
 				if(sidewaysVelocity > 0 && sidewaysDelta > 0 && aileronTrim < MAX_AILERON_TRIM){
 					setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1), this);
 				}else if(sidewaysVelocity < 0 && sidewaysDelta < 0  && aileronTrim > -MAX_AILERON_TRIM){
 					setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1), this);
 				}
 			}else{
 				//Reset trim to prevent directional surges.
 				if(elevatorTrim < 0){
 					setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1), this);
 				}else if(elevatorTrim > 0){
 					setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1), this);
 				}
 				if(aileronTrim < 0){
 					setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1), this);
 				}else if(aileronTrim > 0){
 					setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1), this);
 				}
 			}
 		}else if(definition.motorized.isAircraft && autopilotSetting != 0){
@@ -600,18 +585,18 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 			//If we are not flying at a steady elevation, angle the elevator to compensate
 			if(-motion.y*100 > elevatorTrim + 1 && elevatorTrim < MAX_ELEVATOR_TRIM){
 				setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 0.1);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 0.1));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 0.1), this);
 			}else if(-motion.y*100 < elevatorTrim - 1 && elevatorTrim > -MAX_ELEVATOR_TRIM){
 				setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 0.1);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -0.1));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -0.1), this);
 			}
 			//Keep the roll angle at 0.
 			if(-orientation.angles.z > aileronTrim + 0.1 && aileronTrim < MAX_AILERON_TRIM){
 				setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 0.1);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 0.1));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 0.1), this);
 			}else if(-orientation.angles.z < aileronTrim - 0.1 && aileronTrim > -MAX_AILERON_TRIM){
 				setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 0.1);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -0.1));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -0.1), this);
 			}
 		}
 		
@@ -619,35 +604,35 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 		if(getController() == null && !lockedOnRoad){
 			if(aileronInput > AILERON_DAMPEN_RATE){
 				setVariable(AILERON_INPUT_VARIABLE, aileronInput - AILERON_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_INPUT_VARIABLE, -AILERON_DAMPEN_RATE, 0, MAX_AILERON_ANGLE));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, AILERON_INPUT_VARIABLE, -AILERON_DAMPEN_RATE, 0, MAX_AILERON_ANGLE), this);
 			}else if(aileronInput < -AILERON_DAMPEN_RATE){
 				setVariable(AILERON_INPUT_VARIABLE, aileronInput + AILERON_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_INPUT_VARIABLE, AILERON_DAMPEN_RATE, -MAX_AILERON_ANGLE, 0));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, AILERON_INPUT_VARIABLE, AILERON_DAMPEN_RATE, -MAX_AILERON_ANGLE, 0), this);
 			}else if(aileronInput != 0){
 				setVariable(AILERON_INPUT_VARIABLE, 0);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, AILERON_INPUT_VARIABLE, 0));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableSet(this, AILERON_INPUT_VARIABLE, 0), this);
 			}
 			
 			if(elevatorInput > ELEVATOR_DAMPEN_RATE){
 				setVariable(ELEVATOR_INPUT_VARIABLE, elevatorInput - ELEVATOR_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_INPUT_VARIABLE, -ELEVATOR_DAMPEN_RATE, 0, MAX_ELEVATOR_ANGLE));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, ELEVATOR_INPUT_VARIABLE, -ELEVATOR_DAMPEN_RATE, 0, MAX_ELEVATOR_ANGLE), this);
 			}else if(elevatorInput < -ELEVATOR_DAMPEN_RATE){
 				setVariable(ELEVATOR_INPUT_VARIABLE, elevatorInput + ELEVATOR_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_INPUT_VARIABLE, ELEVATOR_DAMPEN_RATE, -MAX_ELEVATOR_ANGLE, 0));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, ELEVATOR_INPUT_VARIABLE, ELEVATOR_DAMPEN_RATE, -MAX_ELEVATOR_ANGLE, 0), this);
 			}else if(elevatorInput != 0){
 				setVariable(ELEVATOR_INPUT_VARIABLE, 0);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, ELEVATOR_INPUT_VARIABLE, 0));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableSet(this, ELEVATOR_INPUT_VARIABLE, 0), this);
 			}
 			
 			if(rudderInput > RUDDER_DAMPEN_RATE){
 				setVariable(RUDDER_INPUT_VARIABLE, rudderInput - RUDDER_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, -RUDDER_DAMPEN_RATE, 0, MAX_RUDDER_ANGLE));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, -RUDDER_DAMPEN_RATE, 0, MAX_RUDDER_ANGLE), this);
 			}else if(rudderInput < -RUDDER_DAMPEN_RATE){
 				setVariable(RUDDER_INPUT_VARIABLE, rudderInput + RUDDER_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, RUDDER_DAMPEN_RATE, -MAX_RUDDER_ANGLE, 0));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, RUDDER_DAMPEN_RATE, -MAX_RUDDER_ANGLE, 0), this);
 			}else if(rudderInput != 0){
 				setVariable(RUDDER_INPUT_VARIABLE, 0);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, RUDDER_INPUT_VARIABLE, 0));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableSet(this, RUDDER_INPUT_VARIABLE, 0), this);
 			}
 		}
 	}
@@ -673,6 +658,16 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
     	return ConfigSystem.client.renderingSettings.vehicleBeams.value;
     }
 	
+	@Override
+	public double getBoundVariableValue(AnimationVariableBinding binding, float partialTicks){
+		//If we are a forwarded variable and are a connected trailer, do that now.
+		//Generic variables are forwarded in the raw lookup, so we only need to check parsed variables here.
+		if(binding.type != VariableType.GENERIC && definition.motorized.isTrailer && towedByConnection != null && definition.motorized.hookupVariables.contains(binding.variableName)){
+			return towedByConnection.towingVehicle.getBoundVariableValue(binding, partialTicks);
+		}
+		return super.getBoundVariableValue(binding, partialTicks);
+	}
+	
 	@Override
 	public double getRawVariableValue(String variable, float partialTicks){
 		//If we are a forwarded variable and are a connected trailer, do that now.
@@ -752,6 +747,12 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 		return super.getRawVariableValue(variable, partialTicks);
 	}
 	
+	@Override
+	protected boolean isStateDependentVariable(String variable){
+		//Hookup variables are only forwarded if we are being towed.
+		return (definition.motorized.isTrailer && definition.motorized.hookupVariables.contains(variable)) || super.isStateDependentVariable(variable);
+	}
+	
 	@Override
     protected void renderHolographicBoxes(TransformationMatrix transform){
         //If we are holding a part, render the valid slots.
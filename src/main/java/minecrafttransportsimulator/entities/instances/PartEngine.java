@@ -1,6 +1,8 @@
 package minecrafttransportsimulator.entities.instances;
 
-import minecrafttransportsimulator.baseclasses.BoundingBox;
+import java.util.ArrayList;
+import java.util.List;
+
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
@@ -88,6 +90,7 @@ public class PartEngine extends APart{
 	private double engineTargetRPM;
 	private double engineRotation;
 	private double prevEngineRotation;
+	private final List<IWrapperPlayer> nearbyPlayers = new ArrayList<IWrapperPlayer>();
 	private double driveshaftRotation;
 	private double prevDriveshaftRotation;
 	private PartPropeller attachedPropeller;
@@ -146,10 +149,10 @@ public class PartEngine extends APart{
 					if(!entityOn.equals(damage.entityResponsible.getEntityRiding())){
 						if(!magnetoOn){
 							setVariable(MAGNETO_VARIABLE, 1);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, MAGNETO_VARIABLE));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableToggle(this, MAGNETO_VARIABLE), this);
 						}
 						handStartEngine();
-						InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.HS_ON));
+						InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.HS_ON), this);
 						return;
 					}
 				}
@@ -162,19 +165,19 @@ public class PartEngine extends APart{
 						if(!fuelLeak)fuelLeak = Math.random() < ConfigSystem.settings.damage.engineLeakProbability.value*10;
 						if(!brokenStarter)brokenStarter = Math.random() < 0.05;
 					}
-					InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, damage.amount*10*ConfigSystem.settings.general.engineHoursFactor.value, oilLeak, fuelLeak, brokenStarter));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, damage.amount*10*ConfigSystem.settings.general.engineHoursFactor.value, oilLeak, fuelLeak, brokenStarter), this);
 				}else{
 					hours += damage.amount*2*ConfigSystem.settings.general.engineHoursFactor.value;
 					if(!definition.engine.isSteamPowered){
 						if(!oilLeak)oilLeak = Math.random() < ConfigSystem.settings.damage.engineLeakProbability.value;
 						if(!fuelLeak)fuelLeak = Math.random() < ConfigSystem.settings.damage.engineLeakProbability.value;
 					}
-					InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, damage.amount*ConfigSystem.settings.general.engineHoursFactor.value, oilLeak, fuelLeak, brokenStarter));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, damage.amount*ConfigSystem.settings.general.engineHoursFactor.value, oilLeak, fuelLeak, brokenStarter), this);
 				}
 			}
 		}else{
 			stallEngine(Signal.DROWN);
-			InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.DROWN));
+			InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.DROWN), this);
 		}
 	}
 	
@@ -216,10 +219,9 @@ public class PartEngine extends APart{
 					linkedEngine.linkedEngine = null;
 					linkedEngine = null;
 					if(world.isClient()){
-						for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 16, 16, 16))){
-							if(entity instanceof IWrapperPlayer){
-								((IWrapperPlayer) entity).displayChatMessage(JSONConfigLanguage.INTERACT_JUMPERCABLE_LINKDROPPED);
-							}
+						world.getExternalEntitiesInRadius(IWrapperPlayer.class, position, 16, nearbyPlayers);
+						for(IWrapperPlayer player : nearbyPlayers){
+							player.displayChatMessage(JSONConfigLanguage.INTERACT_JUMPERCABLE_LINKDROPPED);
 						}
 					}
 				}else if(vehicleOn.electricPower + 0.5 < linkedEngine.vehicleOn.electricPower){
@@ -232,10 +234,9 @@ public class PartEngine extends APart{
 					linkedEngine.linkedEngine = null;
 					linkedEngine = null;
 					if(world.isClient()){
-						for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 16, 16, 16))){
-							if(entity instanceof IWrapperPlayer){
-								((IWrapperPlayer) entity).displayChatMessage(JSONConfigLanguage.INTERACT_JUMPERCABLE_POWEREQUAL);
-							}
+						world.getExternalEntitiesInRadius(IWrapperPlayer.class, position, 16, nearbyPlayers);
+						for(IWrapperPlayer player : nearbyPlayers){
+							player.displayChatMessage(JSONConfigLanguage.INTERACT_JUMPERCABLE_POWEREQUAL);
 						}
 					}
 				}
@@ -253,7 +254,7 @@ public class PartEngine extends APart{
 						starterLevel += 4;
 					}else{
 						setVariable(ELECTRIC_STARTER_VARIABLE, 0);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE));
+						InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE), this);
 					}
 				}
 				if(starterLevel > 0){
@@ -267,7 +268,7 @@ public class PartEngine extends APart{
 				if(autoStarterEngaged){
 					if(running){
 						setVariable(ELECTRIC_STARTER_VARIABLE, 0);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE));
+						InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE), this);
 					}
 				}
 			}else if(handStarterEngaged){
@@ -368,7 +369,7 @@ public class PartEngine extends APart{
 					if(hours > 250 && !world.isClient()){
 						if(Math.random() < (hours/2)/(250+(10000-hours))*(currentMaxSafeRPM/(rpm+currentMaxSafeRPM/1.5))){
 							backfireEngine();
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.BACKFIRE));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.BACKFIRE), this);
 						}
 					}
 					
@@ -376,22 +377,22 @@ public class PartEngine extends APart{
 					if(!world.isClient()){
 						if(!world.isClient() && isInLiquid()){
 							stallEngine(Signal.DROWN);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.DROWN));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.DROWN), this);
 						}else if(!isCreative && vehicleOn.fuelTank.getFluidLevel() == 0){
 							stallEngine(Signal.FUEL_OUT);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.FUEL_OUT));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.FUEL_OUT), this);
 						}else if(rpm < definition.engine.stallRPM){
 							stallEngine(Signal.TOO_SLOW);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.TOO_SLOW));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.TOO_SLOW), this);
 						}else if(!isActive){
 							stallEngine(Signal.FUEL_OUT);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.FUEL_OUT));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.FUEL_OUT), this);
 						}else if(vehicleOn.damageAmount == vehicleOn.definition.general.health){
 							stallEngine(Signal.DEAD_VEHICLE);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.DEAD_VEHICLE));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.DEAD_VEHICLE), this);
 						}else if(ConfigSystem.settings.general.engineDimensionWhitelist.value.isEmpty() ? ConfigSystem.settings.general.engineDimensionBlacklist.value.contains(world.getName()) : !ConfigSystem.settings.general.engineDimensionWhitelist.value.contains(world.getName())){
 							stallEngine(Signal.INVALID_DIMENSION);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.INVALID_DIMENSION));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.INVALID_DIMENSION), this);
 						}
 					}
 				}
@@ -445,7 +446,7 @@ public class PartEngine extends APart{
 					if(isCreative || vehicleOn.fuelTank.getFluidLevel() > 0){
 						if(!isInLiquid() && magnetoOn){
 							startEngine();
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.START));
+							InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.START), this);
 						}
 					}
 				}
@@ -648,7 +649,7 @@ public class PartEngine extends APart{
 	
 	@Override
 	public boolean isInLiquid(){
-		return world.isBlockLiquid(position.copy().add(0, placementDefinition.intakeOffset, 0));
+		return world.isBlockLiquid(position.x, position.y + placementDefinition.intakeOffset, position.z);
 	}
 	
 	@Override
@@ -842,10 +843,10 @@ public class PartEngine extends APart{
 				shiftCooldown = definition.engine.shiftSpeed;
 				upshiftCountdown = definition.engine.clutchTime;
 				if(!world.isClient()){
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, UP_SHIFT_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableSet(this, UP_SHIFT_VARIABLE, 1), this);
 				}
 			}else if(!world.isClient()){
-				InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.BAD_SHIFT));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.BAD_SHIFT), this);
 			}
 		}
 		return doShift;
@@ -874,10 +875,10 @@ public class PartEngine extends APart{
 				shiftCooldown = definition.engine.shiftSpeed;
 				downshiftCountdown = definition.engine.clutchTime;
 				if(!world.isClient()){
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, DOWN_SHIFT_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableSet(this, DOWN_SHIFT_VARIABLE, 1), this);
 				}
 			}else if(!world.isClient()){
-				InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.BAD_SHIFT));
+				InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartEngine(this, Signal.BAD_SHIFT), this);
 			}
 		}
 		return doShift;
@@ -895,7 +896,7 @@ public class PartEngine extends APart{
 				currentGear = 0;
 				setVariable(GEAR_VARIABLE, currentGear);
 				if(!world.isClient()){
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, NEUTRAL_SHIFT_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketEntityVariableSet(this, NEUTRAL_SHIFT_VARIABLE, 1), this);
 				}
 			}
 		}
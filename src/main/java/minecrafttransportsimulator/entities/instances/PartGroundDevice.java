@@ -120,8 +120,7 @@ public class PartGroundDevice extends APart{
 					contactThisTick = false;
 					if(Math.abs(prevAngularVelocity)/(vehicleOn.groundVelocity/(getHeight()*Math.PI)) < 0.25 && vehicleOn.velocity > 0.3){
 						//Sudden angular velocity increase.  Mark for skidding effects if the block below us is hard.
-						Point3D blockPositionBelow = position.copy().add(0, -1, 0);
-						if(!world.isAir(blockPositionBelow) && world.getBlockHardness(blockPositionBelow) >= 1.25){
+						if(!world.isAir(position.x, position.y - 1, position.z) && world.getBlockHardness(position.x, position.y - 1, position.z) >= 1.25){
 							contactThisTick = true;
 						}
 					}
@@ -253,7 +252,7 @@ public class PartGroundDevice extends APart{
 				}
 			}
 			//Valid conditions, send packet before continuing.
-			InterfaceManager.packetInterface.sendToAllClients(new PacketPartGroundDevice(this, setFlat));
+			InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartGroundDevice(this, setFlat), this);
 		}
 		
 		//Set flat state and new bounding box.
@@ -639,7 +639,7 @@ public class PartGun extends APart{
 					loadedBullet = item;
 					bulletsReloading = item.definition.bullet.quantity;
 					reloadTimeRemaining = definition.gun.reloadTime;
-					InterfaceManager.packetInterface.sendToAllClients(new PacketPartGun(this, loadedBullet));
+					InterfaceManager.packetInterface.sendToTrackingClients(new PacketPartGun(this, loadedBullet), this);
 					return true;
 				}
 			}
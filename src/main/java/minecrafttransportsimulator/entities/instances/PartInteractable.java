@@ -1,5 +1,8 @@
 package minecrafttransportsimulator.entities.instances;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
@@ -7,7 +10,6 @@ import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage.LanguageEntry;
 import minecrafttransportsimulator.jsondefs.JSONPart.InteractableComponentType;
 import minecrafttransportsimulator.jsondefs.JSONPartDefinition;
-import minecrafttransportsimulator.mcinterface.IWrapperEntity;
 import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
@@ -24,17 +26,20 @@ public final class PartInteractable extends APart{
 	public String jerrycanFluid;
 	public PartInteractable linkedPart;
 	public EntityVehicleF_Physics linkedVehicle;
+	private final List<IWrapperPlayer> nearbyPlayers = new ArrayList<IWrapperPlayer>();
 	
 	public PartInteractable(AEntityF_Multipart<?> entityOn, IWrapperPlayer placingPlayer, JSONPartDefinition placementDefinition, IWrapperNBT data, APart parentPart){
 		super(entityOn, placingPlayer, placementDefinition, data, parentPart);
 		if(definition.interactable.interactionType.equals(InteractableComponentType.FURNACE)){
 			this.furnace = new EntityFurnace(world, data.getDataOrNew("furnace"), definition.interactable);
 			this.inventory = furnace;
+			furnace.massParent = this;
 			world.addEntity(furnace);
 		}else{
 			this.furnace = null;
 			if(definition.interactable.interactionType.equals(InteractableComponentType.CRATE)){
 				this.inventory = new EntityInventoryContainer(world, data.getDataOrNew("inventory"), (int) (definition.interactable.inventoryUnits*9F));
+				inventory.massParent = this;
 				world.addEntity(inventory);
 			}else{
 				this.inventory = null;
@@ -42,6 +47,7 @@ public final class PartInteractable extends APart{
 		}
 		if(definition.interactable.interactionType.equals(InteractableComponentType.BARREL)){
 			this.tank = new EntityFluidTank(world, data.getDataOrNew("tank"), (int) definition.interactable.inventoryUnits*10000);
+			tank.massParent = this;
 			world.addEntity(tank);
 		}else{
 			this.tank = null;
@@ -160,10 +166,9 @@ public final class PartInteractable extends APart{
 			if(linkedMessage != null){
 				linkedVehicle = null;
 				linkedPart = null;
-				for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 16, 16, 16))){
-					if(entity instanceof IWrapperPlayer){
-						((IWrapperPlayer) entity).sendPacket(new PacketPlayerChatMessage((IWrapperPlayer) entity, linkedMessage));
-					}
+				world.getExternalEntitiesInRadius(IWrapperPlayer.class, position, 16, nearbyPlayers);
+				for(IWrapperPlayer player : nearbyPlayers){
+					player.sendPacket(new PacketPlayerChatMessage(player, linkedMessage));
 				}
 			}
 		}
@@ -233,9 +238,9 @@ public final class PartInteractable extends APart{
 	}
 	
 	@Override
-	public double getMass(){
+	protected double calculateMass(){
 		//Return our mass, plus our inventory or tank.
-		double currentMass = super.getMass();
+		double currentMass = super.calculateMass();
 		if(inventory != null){
 			currentMass += inventory.getMass();
 		}else if(tank != null){
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityFluidLoader;
@@ -35,6 +36,7 @@ public class GUIOverlay extends AGUIBase{
 	private GUIComponentLabel mouseoverLabel;
 	private GUIComponentItem scannerItem;
 	private List<String> tooltipText = new ArrayList<String>();
+	private final List<BoundingBox> mousedOverBoxes = new ArrayList<BoundingBox>();
 	
 	@Override
 	public void setupComponents(){
@@ -78,7 +80,8 @@ public class GUIOverlay extends AGUIBase{
 				Point3D playerEyesEndVector = playerEyesStartVector.copy().add(player.getLineOfSight(10));
 				
 				BoundingBox mousedOverBox = null;
-				for(BoundingBox box : vehicle.allPartSlotBoxes.keySet()){
+				vehicle.boxTree.getBoxesAlongLine(playerEyesStartVector, playerEyesEndVector, BoundingBoxTree.PART_SLOT, mousedOverBoxes);
+				for(BoundingBox box : mousedOverBoxes){
 					if(box.getIntersectionPoint(playerEyesStartVector, playerEyesEndVector) != null){
 						if(mousedOverBox == null || (box.globalCenter.distanceTo(playerEyesStartVector) < mousedOverBox.globalCenter.distanceTo(playerEyesStartVector))){
 							mousedOverBox = box;
@@ -35,6 +35,12 @@ public class JSONConfigClient{
 		public JSONConfigEntry<Boolean> brightLights = new JSONConfigEntry<Boolean>(true, "If false, lights from vehicles and blocks will not do brightness blending and will render as if they were part of the model at that same brightness.  Useful if you have shaders and this is causing troubles.");
 		public JSONConfigEntry<Boolean> blendedLights = new JSONConfigEntry<Boolean>(true, "If false, beam-based lights from vehicles and blocks will not do brightness blending.  This is different from the general brightness setting as this will do OpenGL blending on the world to make it brighter, not just the beams themselves.");
 		
+		public JSONConfigEntry<Boolean> renderCulling = new JSONConfigEntry<Boolean>(true, "If true, vehicles and blocks that are out of view, too far away, or too small to see will not be rendered.  Set this to false if things are vanishing when they shouldn't be.");
+		public JSONConfigEntry<Integer> vehicleRenderDistance = new JSONConfigEntry<Integer>(256, "How far away, in blocks, vehicles and their parts will render.  Set to 0 for no limit.  Only used if renderCulling is true.");
+		public JSONConfigEntry<Integer> blockRenderDistance = new JSONConfigEntry<Integer>(128, "How far away, in blocks, MTS blocks like poles and roads will render.  Set to 0 for no limit.  Only used if renderCulling is true.");
+		public JSONConfigEntry<Integer> particleRenderDistance = new JSONConfigEntry<Integer>(128, "How far away, in blocks, particles and bullets will render.  Set to 0 for no limit.  Only used if renderCulling is true.");
+		public JSONConfigEntry<Double> minPartScreenSize = new JSONConfigEntry<Double>(0.002D, "How big parts need to be on screen to render, as a fraction of half the screen height.  Parts smaller than this won't be rendered, which helps with vehicles with lots of small parts.  Only used if renderCulling is true.");
+		
 		public JSONConfigEntry<Boolean> playerTweaks = new JSONConfigEntry<Boolean>(true, "If true, player hands will be modified when holding guns, and hands and legs will be modified when riding in vehicles.  Set this to false (and restart the game) if mods cause issues, like two-hand rendering or player model issues.  Automatically set to false if some mods are detected.");
 		
 	}
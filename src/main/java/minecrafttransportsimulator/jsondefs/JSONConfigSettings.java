@@ -32,6 +32,7 @@ public class JSONConfigSettings{
 		public JSONConfigEntry<Boolean> keyRequiredToStartVehicles = new JSONConfigEntry<Boolean>(false, "If true, vehicles can only be started if the player has the key in their hand.");
 		public JSONConfigEntry<Boolean> blockBreakage = new JSONConfigEntry<Boolean>(true, "Whether or not vehicles and guns can break blocks when they hit them.  If false, vehicles will simply stop when they hit blocks, and guns won't break blocks when they hit them.  This will also disable explosive block breakage, though not explosions themselves.");
 		public JSONConfigEntry<Boolean> vehicleDestruction = new JSONConfigEntry<Boolean>(true, "Whether or not vehicles can be destroyed by ramming into blocks at high speeds.  Set this to false if you don't like loosing vehicles to badly-placed walls.");
+		public JSONConfigEntry<Boolean> sweptVehicleCollisions = new JSONConfigEntry<Boolean>(false, "If true, vehicle collision boxes will be swept along their entire motion when checking for block collisions, rather than just checked where they end up.  This prevents fast vehicles from going through thin walls, at the cost of slightly more collision checking.");
 		public JSONConfigEntry<Boolean> noclipVehicles = new JSONConfigEntry<Boolean>(false, "If true, vehicles will not be able to collide with blocks.  This also prevents them from moving if they do not have wheels on them, as otherwise they would phase through the ground into the void.");
 		public JSONConfigEntry<Boolean> creativeDamage = new JSONConfigEntry<Boolean>(false, "If true, damage from vehicles and guns will be applied to creative players.");
 		public JSONConfigEntry<Boolean> chunkloadVehicles = new JSONConfigEntry<Boolean>(true, "If true, vehicles will be chunkloaded when on roads/tracks.  This allows them to travel into unloaded chunks.");
@@ -39,6 +40,7 @@ public class JSONConfigSettings{
 		public JSONConfigEntry<Boolean> useHSV = new JSONConfigEntry<Boolean>(false, "If enabled, the MTS dev mode will export color values as HSV instead of hex.");
 		public JSONConfigEntry<Boolean> allPlanesWithNav = new JSONConfigEntry<Boolean>(false, "If true, all planes will have the ability to use beacons for navigation.  This is false to allow pack authors to define new/old planes that have this capability, but can be turned on if you don't care about realism.");
 		public JSONConfigEntry<Boolean> devMode = new JSONConfigEntry<Boolean>(false, "If enabled, MTS will allow access to the dev mode GUI while sitting in vehicles.  The GUI allows editing JSONs in-game without the need to restart.");
+		public JSONConfigEntry<Boolean> batchPacketHandling = new JSONConfigEntry<Boolean>(false, "If true, packets that arrive between ticks are all handled in one task on the main thread, rather than each packet scheduling its own task.  This can help servers with lots of players in combat, where lots of packets come in every tick.");
 		public JSONConfigEntry<Integer> roadMaxLength = new JSONConfigEntry<Integer>(32, "How long a single segment of road can be, in blocks.  While you can have longer segements, be aware they have more collision boxes and will generate more lag when broken or interacted with, and may not render if outside the chunk they are in.  Must be a whole number.");
 		public JSONConfigEntry<Double> aircraftSpeedFactor = new JSONConfigEntry<Double>(0.35D, "Factor to apply to aircraft movement.  1 is the realistic value, but this makes vehicles move too fast for Minecraft. Adjust with caution.");
 		public JSONConfigEntry<Double> carSpeedFactor = new JSONConfigEntry<Double>(0.35D, "Factor to apply to car movement.  1 is the realistic value, but this makes vehicles move too fast for Minecraft. Adjust with caution.");
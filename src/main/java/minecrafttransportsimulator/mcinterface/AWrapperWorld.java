@@ -1,11 +1,15 @@
 package minecrafttransportsimulator.mcinterface;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import mcinterface1122.BuilderEntityExisting;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxSweeper;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.EntityManager;
 import minecrafttransportsimulator.baseclasses.Point3D;
@@ -18,6 +22,7 @@ import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.items.components.AItemBase;
 import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
+import minecrafttransportsimulator.rendering.ParticleSystem;
 
 /**IWrapper to a world instance.  This contains many common methods that 
  * MC has seen fit to change over multiple versions (such as lighting) and as such
@@ -30,6 +35,14 @@ import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
  * @author don_bruce
  */
 public abstract class AWrapperWorld extends EntityManager{
+	/**Particles in this world.  These are only spawned on clients.**/
+	public final ParticleSystem particles = new ParticleSystem(this);
+	
+	/**External entities in each queried 16-block column, for {@link #getExternalEntitiesInRadius(Class, Point3D, double, List)}.  Cleared every tick.**/
+	private static final int EXTERNAL_CELL_BITS = 4;
+	private final Map<Long, List<IWrapperEntity>> externalEntityCells = new HashMap<Long, List<IWrapperEntity>>();
+	private final BoundingBox externalEntityCellBounds = new BoundingBox(new Point3D(), (1 << EXTERNAL_CELL_BITS)/2D, Double.MAX_VALUE, (1 << EXTERNAL_CELL_BITS)/2D);
+	private long externalEntityCellsTick = -1;
 	
 	/**
 	 *  Returns true if this is a client world, false if we're on the server.
@@ -43,6 +56,12 @@ public abstract class AWrapperWorld extends EntityManager{
 	 */
 	public abstract long getTime();
 	
+	/**
+	 *  Returns the number of ticks this world has run.  Unlike {@link #getTime()}, this is
+	 *  never changed by commands or day cycles, so it can be used to tell if a tick has passed.
+	 */
+	public abstract long getTick();
+	
 	/**
 	 *  Returns the name of this world (dimension).  All names are assured to be unique, so this may
 	 *  be used as a map-key or other identifier.
@@ -85,8 +104,9 @@ public abstract class AWrapperWorld extends EntityManager{
 	public abstract IWrapperNBT getData(String name);
 	
 	/**
-	 *  Sends all saved data to the passed-in player.
-	 *  This is used 
+	 *  Sets the saved data with the passed-in name.  On servers, changed data is sent to
+	 *  clients and saved to disk at the end of the tick, so feel free to call this multiple
+	 *  times a tick as only the last call will be sent and saved.
 	 */
 	public abstract void setData(String name, IWrapperNBT value);
 	
@@ -110,6 +130,48 @@ public abstract class AWrapperWorld extends EntityManager{
 	 */
 	public abstract List<IWrapperEntity> getEntitiesWithin(BoundingBox box);
 	
+	/**
+	 *  Populates the passed-in list with all external entities of the passed-in type whose position is within
+	 *  the passed-in radius of the passed-in point.  The list is cleared prior to populating.  Use this rather than
+	 *  {@link #getEntitiesWithin(BoundingBox)} to find players or other entities near a point, as it only gets the
+	 *  entities from the world once per tick for each 16-block column it checks.  Other queries in the same area
+	 *  that tick use those entities rather than getting and wrapping them again.  As such, entities are found
+	 *  at the position they had at the first query of their column that tick.
+	 */
+	public <WrapperType extends IWrapperEntity> void getExternalEntitiesInRadius(Class<WrapperType> entityClass, Point3D center, double radius, List<WrapperType> entityList){
+		entityList.clear();
+		if(externalEntityCellsTick != getTick()){
+			externalEntityCells.clear();
+			externalEntityCellsTick = getTick();
+		}
+		int maxX = ((int) Math.floor(center.x + radius)) >> EXTERNAL_CELL_BITS;
+		int maxZ = ((int) Math.floor(center.z + radius)) >> EXTERNAL_CELL_BITS;
+		for(int cellX=((int) Math.floor(center.x - radius)) >> EXTERNAL_CELL_BITS; cellX<=maxX; ++cellX){
+			for(int cellZ=((int) Math.floor(center.z - radius)) >> EXTERNAL_CELL_BITS; cellZ<=maxZ; ++cellZ){
+				Long key = (((long) cellX) << 32) | (cellZ & 0xFFFFFFFFL);
+				List<IWrapperEntity> cellEntities = externalEntityCells.get(key);
+				if(cellEntities == null){
+					//Get the entities in this column.  Entities on the border of two columns will be returned for both,
+					//so only keep the ones whose position is in this column to prevent duplicates.
+					cellEntities = new ArrayList<IWrapperEntity>();
+					externalEntityCellBounds.globalCenter.set((cellX << EXTERNAL_CELL_BITS) + externalEntityCellBounds.widthRadius, 0, (cellZ << EXTERNAL_CELL_BITS) + externalEntityCellBounds.depthRadius);
+					for(IWrapperEntity entity : getEntitiesWithin(externalEntityCellBounds)){
+						Point3D entityPosition = entity.getPosition();
+						if(((int) Math.floor(entityPosition.x)) >> EXTERNAL_CELL_BITS == cellX && ((int) Math.floor(entityPosition.z)) >> EXTERNAL_CELL_BITS == cellZ){
+							cellEntities.add(entity);
+						}
+					}
+					externalEntityCells.put(key, cellEntities);
+				}
+				for(IWrapperEntity entity : cellEntities){
+					if(entityClass.isInstance(entity) && entity.getPosition().isDistanceToCloserThan(center, radius)){
+						entityList.add(entityClass.cast(entity));
+					}
+				}
+			}
+		}
+	}
+	
 	/**
 	 *  Returns a list of all hostile entities in the specified radius.
 	 */
@@ -147,12 +209,28 @@ public abstract class AWrapperWorld extends EntityManager{
 	 *  Returns the block at the passed-in position, or null if it doesn't exist in the world.
 	 *  Only valid for blocks of type {@link ABlockBase} others will return null.
 	 */
-	public abstract ABlockBase getBlock(Point3D position);
+	public ABlockBase getBlock(Point3D position){
+		return getBlock(position.x, position.y, position.z);
+	}
+	
+	/**
+	 *  Like {@link #getBlock(Point3D)}, but takes the coordinates directly.
+	 *  Block queries that take coordinates don't create any objects, so they
+	 *  should be used by code that would otherwise make a point just for the query.
+	 */
+	public abstract ABlockBase getBlock(double x, double y, double z);
 	
 	/**
 	 *  Returns the hardness of the block at the passed-in point.
 	 */
-	public abstract float getBlockHardness(Point3D position);
+	public float getBlockHardness(Point3D position){
+		return getBlockHardness(position.x, position.y, position.z);
+	}
+	
+	/**
+	 *  Like {@link #getBlockHardness(Point3D)}, but takes the coordinates directly.
+	 */
+	public abstract float getBlockHardness(double x, double y, double z);
 	
 	/**
 	 *  Returns the slipperiness of the block at the passed-in position.
@@ -182,12 +260,26 @@ public abstract class AWrapperWorld extends EntityManager{
 	 *  Solid means that said block can be collided with, is a cube, and is generally able to have
 	 *  things placed or connected to it.
 	 */
-	public abstract boolean isBlockSolid(Point3D position, Axis axis);
+	public boolean isBlockSolid(Point3D position, Axis axis){
+		return isBlockSolid(position.x, position.y, position.z, axis);
+	}
+	
+	/**
+	 *  Like {@link #isBlockSolid(Point3D, Axis)}, but takes the coordinates directly.
+	 */
+	public abstract boolean isBlockSolid(double x, double y, double z, Axis axis);
 	
 	/**
 	 *  Returns true if the block is liquid.
 	 */
-	public abstract boolean isBlockLiquid(Point3D position);
+	public boolean isBlockLiquid(Point3D position){
+		return isBlockLiquid(position.x, position.y, position.z);
+	}
+	
+	/**
+	 *  Like {@link #isBlockLiquid(Point3D)}, but takes the coordinates directly.
+	 */
+	public abstract boolean isBlockLiquid(double x, double y, double z);
 	
 	/**
 	 *  Returns true if the block below the passed-in position is a slab, but only the
@@ -206,7 +298,14 @@ public abstract class AWrapperWorld extends EntityManager{
 	/**
 	 *  Returns the distance from the passed-in position to the top block in the world, at the position's X/Z coords.
 	 */
-	public abstract double getHeight(Point3D position);
+	public double getHeight(Point3D position){
+		return getHeight(position.x, position.y, position.z);
+	}
+	
+	/**
+	 *  Like {@link #getHeight(Point3D)}, but takes the coordinates directly.
+	 */
+	public abstract double getHeight(double x, double y, double z);
 	
 	/**
 	 * Updates the blocks and depths of collisions for the passed-in BoundingBox to the box's internal variables.
@@ -220,12 +319,18 @@ public abstract class AWrapperWorld extends EntityManager{
 	public abstract void updateBoundingBoxCollisions(BoundingBox box, Point3D collisionMotion, boolean ignoreIfGreater);
 	
 	/**
-	 * Checks the passed-in bounding box for collisions with other blocks.  Returns true if they collided,
-	 * false if they did not.  This is a bulk method designed to handle multiple checks in a row.  As such,
-	 * it stores a listing of known air blocks.  If a block has been checked before and is air, it is ignored.
-	 * To reset this list, pass in clearCache.
+	 * Checks the passed-in bounding box, offset by the passed-in offset, for collisions with other blocks.
+	 * Returns true if they collided, false if they did not.  Block collisions are cached by the world and
+	 * updated when blocks change, so this method may be called many times a tick without issue.
 	 */
-	public abstract boolean checkForCollisions(BoundingBox box, Point3D offset, boolean clearCache);
+	public abstract boolean checkForCollisions(BoundingBox box, Point3D offset);
+	
+	/**
+	 * Adds the collision boxes of all blocks in the passed-in bounds to the passed-in sweeper.
+	 * Only the portion of the bounds the blocks collide with is checked, so the bounds should
+	 * be the entire area the box being swept will cover.
+	 */
+	public abstract void addBlockObstacles(BoundingBoxSweeper sweeper, double minX, double minY, double minZ, double maxX, double maxY, double maxZ);
 	
 	/**
 	 *  Returns the current redstone power at the passed-in position.
@@ -238,8 +343,16 @@ public abstract class AWrapperWorld extends EntityManager{
 	 *  Note that this method offsets the point by 1, as it allows
 	 *  for blocks to query rain strength and not get 0 due to no rain
 	 *  being possible "in" that block.
+	 *  Values are cached for the tick, so this may be called every frame without issue.
+	 */
+	public float getRainStrength(Point3D position){
+		return getRainStrength(position.x, position.y, position.z);
+	}
+	
+	/**
+	 *  Like {@link #getRainStrength(Point3D)}, but takes the coordinates directly.
 	 */
-	public abstract float getRainStrength(Point3D position);
+	public abstract float getRainStrength(double x, double y, double z);
 	
 	/**
 	 *  Returns the current temperature at the passed-in position.
@@ -270,8 +383,16 @@ public abstract class AWrapperWorld extends EntityManager{
 	/**
 	 *  Gets the brightness at this position, as a value between 0.0-1.0. Calculated from the
 	 *  sun brightness, and possibly the block brightness if calculateBlock is true.
+	 *  Values are cached for the tick, so this may be called every frame without issue.
+	 */
+	public float getLightBrightness(Point3D position, boolean calculateBlock){
+		return getLightBrightness(position.x, position.y, position.z, calculateBlock);
+	}
+	
+	/**
+	 *  Like {@link #getLightBrightness(Point3D, boolean)}, but takes the coordinates directly.
 	 */
-	public abstract float getLightBrightness(Point3D position, boolean calculateBlock);
+	public abstract float getLightBrightness(double x, double y, double z, boolean calculateBlock);
 	
 	/**
 	 *  Updates the brightness of the block at this position.  Only works if the block
@@ -289,7 +410,14 @@ public abstract class AWrapperWorld extends EntityManager{
 	/**
 	 *  Returns true if the block at this position is air.
 	 */
-	public abstract boolean isAir(Point3D position);
+	public boolean isAir(Point3D position){
+		return isAir(position.x, position.y, position.z);
+	}
+	
+	/**
+	 *  Like {@link #isAir(Point3D)}, but takes the coordinates directly.
+	 */
+	public abstract boolean isAir(double x, double y, double z);
 	
 	/**
 	 *  Returns true if the block at this position is fire.
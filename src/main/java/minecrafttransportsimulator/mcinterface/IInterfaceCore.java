@@ -33,6 +33,11 @@ public interface IInterfaceCore{
 	 */
 	public String getModName(String modID);
 	
+	/**
+	 *  Returns the version for the passed-in mod.
+	 */
+	public String getModVersion(String modID);
+	
 	/**
 	 *  Returns a new NBT IWrapper instance with no data.
 	 */
@@ -70,6 +75,11 @@ public interface IInterfaceCore{
 	 */
 	public void logError(String message);
 	
+	/**
+	 *  Logs an informational message to the logging system.  Used for things like load times.
+	 */
+	public void logInfo(String message);
+	
 	/**
      * Called to send queued logs to the logger.  This is required as the logger
      * gets created during pre-init, but logs can be generated during construction.
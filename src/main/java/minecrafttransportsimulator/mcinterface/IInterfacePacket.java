@@ -1,6 +1,8 @@
 package minecrafttransportsimulator.mcinterface;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.packets.components.APacketBase;
 
 /**Interface to the MC networking system.  This interface allows us to send packets
@@ -33,6 +35,22 @@ public interface IInterfacePacket{
 	 */
 	public void sendToAllClients(APacketBase packet);
 	
+	/**
+	 *  Sends the passed-in packet to all clients that are tracking the passed-in entity.
+	 *  Clients that aren't tracking the entity don't have it loaded, and will get its
+	 *  current state when they start tracking it, so they don't need the packet.
+	 *  This should be used for any packet that only affects a single entity, as it
+	 *  keeps players on the other side of the world from getting every update.
+	 */
+	public void sendToTrackingClients(APacketBase packet, AEntityB_Existing entity);
+	
+	/**
+	 *  Sends the passed-in packet to all clients in the passed-in world that are
+	 *  within the passed-in radius of the passed-in point.  Used for packets that
+	 *  are tied to a location rather than an entity, such as sounds and effects.
+	 */
+	public void sendToClientsNear(APacketBase packet, AWrapperWorld world, Point3D point, double radius);
+	
 	/**
 	 *  Sends the passed-in packet to the passed-in player.
 	 *  Note that this may ONLY be called on the server, as
@@ -73,6 +73,13 @@ public interface IInterfaceRender{
 	 */
 	public void setLightingToPosition(Point3D position);
 	
+	/**
+	 *  Returns the lightmap value at the passed-in position.  This is the same value
+	 *  that {@link #setLightingToPosition(Point3D)} uses, and is used for objects that
+	 *  have per-vertex lighting in {@link RenderableObject#colors}.
+	 */
+	public int getLightmap(Point3D position);
+	
 	/**
 	 *  Manually enables and disables blending. Do NOT use this during normal model rendering, as it
 	 *  can seriously mess up states.  Only use this for simple things, like GUIs or screen overlays.
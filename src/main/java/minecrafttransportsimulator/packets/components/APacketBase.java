@@ -47,6 +47,7 @@ import minecrafttransportsimulator.packets.instances.PacketTileEntityRoadCollisi
 import minecrafttransportsimulator.packets.instances.PacketTileEntityRoadConnectionUpdate;
 import minecrafttransportsimulator.packets.instances.PacketTileEntitySignalControllerChange;
 import minecrafttransportsimulator.packets.instances.PacketVehicleBeaconChange;
+import minecrafttransportsimulator.packets.instances.PacketVehicleControl;
 import minecrafttransportsimulator.packets.instances.PacketVehicleInteract;
 import minecrafttransportsimulator.packets.instances.PacketVehicleServerMovement;
 import minecrafttransportsimulator.packets.instances.PacketVehicleServerSync;
@@ -61,6 +62,10 @@ import minecrafttransportsimulator.packloading.PackParser;
  * @author don_bruce
  */
 public abstract class APacketBase{
+	//Types for delta-compressed values.  Full values without a session aren't stored, as the other end won't be using them.
+	private static final byte DELTA_FULL = 0;
+	private static final byte DELTA_FULL_STORED = 1;
+	private static final byte DELTA_BASELINE = 2;
 	
 	/**
 	 *  Constructs the packet from the buffer.  This should
@@ -138,23 +143,149 @@ public abstract class APacketBase{
 		return new UUID(buf.readLong(), buf.readLong());
 	}
 	
+	/**
+	 *  Helper method to write a UUID to the buffer using the {@link PacketSession} for the connection.
+	 *  This should be used for UUIDs that get sent over and over, such as entity IDs.
+	 */
+	protected static void writeIndexedUUIDToBuffer(UUID uniqueUUID, ByteBuf buf){
+		int header = PacketSession.getHeader(uniqueUUID);
+		writeVarIntToBuffer(header, buf);
+		if(PacketSession.isValueInBuffer(header)){
+			writeUUIDToBuffer(uniqueUUID, buf);
+		}
+	}
+	
+	/**
+	 *  Helper method to read a UUID written by {@link #writeIndexedUUIDToBuffer(UUID, ByteBuf)}.
+	 */
+	protected static UUID readIndexedUUIDFromBuffer(ByteBuf buf){
+		int header = readVarIntFromBuffer(buf);
+		if(PacketSession.isValueInBuffer(header)){
+			UUID uniqueUUID = readUUIDFromBuffer(buf);
+			PacketSession.storeValue(header, uniqueUUID);
+			return uniqueUUID;
+		}else{
+			return (UUID) PacketSession.getValue(header);
+		}
+	}
+	
+	/**
+	 *  Helper method to write a string to the buffer using the {@link PacketSession} for the connection.
+	 *  This should only be used for identifiers, such as variable names, as every string sent is stored.
+	 *  Use {@link #writeStringToBuffer(String, ByteBuf)} for text.
+	 */
+	protected static void writeIndexedStringToBuffer(String string, ByteBuf buf){
+		int header = PacketSession.getHeader(string);
+		writeVarIntToBuffer(header, buf);
+		if(PacketSession.isValueInBuffer(header)){
+			writeStringToBuffer(string, buf);
+		}
+	}
+	
+	/**
+	 *  Helper method to read a string written by {@link #writeIndexedStringToBuffer(String, ByteBuf)}.
+	 */
+	protected static String readIndexedStringFromBuffer(ByteBuf buf){
+		int header = readVarIntFromBuffer(buf);
+		if(PacketSession.isValueInBuffer(header)){
+			String string = readStringFromBuffer(buf);
+			PacketSession.storeValue(header, string);
+			return string;
+		}else{
+			return (String) PacketSession.getValue(header);
+		}
+	}
+	
 	/**
      *  Helper method to write a pack item to the buffer.
+     *  Items are indexed in the {@link PacketSession}, so they only send their names once.
      */
     protected static void writeItemToBuffer(AItemPack<?> item, ByteBuf buf){
-        writeStringToBuffer(item.definition.packID, buf);
-        writeStringToBuffer(item.definition.systemName, buf);
-        writeStringToBuffer(item instanceof AItemSubTyped ? ((AItemSubTyped<?>) item).subName : "", buf);
+    	int header = PacketSession.getHeader(item);
+    	writeVarIntToBuffer(header, buf);
+    	if(PacketSession.isValueInBuffer(header)){
+	        writeStringToBuffer(item.definition.packID, buf);
+	        writeStringToBuffer(item.definition.systemName, buf);
+	        writeStringToBuffer(item instanceof AItemSubTyped ? ((AItemSubTyped<?>) item).subName : "", buf);
+    	}
     }
     
     /**
-     *  Helper method to read a UUID from the buffer.
+     *  Helper method to read a pack item from the buffer.
      */
     @SuppressWarnings("unchecked")
     protected static<T extends AItemPack<?>> T readItemFromBuffer(ByteBuf buf){
-        return (T) PackParser.getItem(readStringFromBuffer(buf), readStringFromBuffer(buf), readStringFromBuffer(buf));
+    	int header = readVarIntFromBuffer(buf);
+    	if(PacketSession.isValueInBuffer(header)){
+    		T item = (T) PackParser.getItem(readStringFromBuffer(buf), readStringFromBuffer(buf), readStringFromBuffer(buf));
+    		PacketSession.storeValue(header, item);
+    		return item;
+    	}else{
+    		return (T) PacketSession.getValue(header);
+    	}
     }
 	
+	/**
+	 *  Helper method to write an int to the buffer as a varint.  This takes 1 byte for values
+	 *  under 128, and 1 more byte for every 7 bits after that.  Negative values always take 5 bytes,
+	 *  so use {@link #writeSignedVarIntToBuffer(int, ByteBuf)} if the value may be negative.
+	 */
+	protected static void writeVarIntToBuffer(int value, ByteBuf buf){
+		while((value & ~0x7F) != 0){
+			buf.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buf.writeByte(value);
+	}
+	
+	/**
+	 *  Helper method to read a varint from the buffer.
+	 */
+	protected static int readVarIntFromBuffer(ByteBuf buf){
+		int value = 0;
+		for(int shift=0; shift<35; shift+=7){
+			byte nextByte = buf.readByte();
+			value |= (nextByte & 0x7F) << shift;
+			if((nextByte & 0x80) == 0){
+				return value;
+			}
+		}
+		throw new IndexOutOfBoundsException("Varint in packet is longer than 5 bytes.");
+	}
+	
+	/**
+	 *  Helper method to write a signed int to the buffer as a zig-zag varint.
+	 *  This maps small negative values to small positive ones, so they take few bytes too.
+	 */
+	protected static void writeSignedVarIntToBuffer(int value, ByteBuf buf){
+		writeVarIntToBuffer((value << 1) ^ (value >> 31), buf);
+	}
+	
+	/**
+	 *  Helper method to read a zig-zag varint from the buffer.
+	 */
+	protected static int readSignedVarIntFromBuffer(ByteBuf buf){
+		int value = readVarIntFromBuffer(buf);
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	/**
+	 *  Helper method to write a value in the passed-in range to the buffer as a short.
+	 *  Values outside the range are clamped.  The ends of the range are exact when read back.
+	 */
+	protected static void writeQuantizedToBuffer(double value, double min, double max, ByteBuf buf){
+		double normalizedValue = (2*value - (max + min))/(max - min);
+		buf.writeShort((int) Math.round(Math.max(-1, Math.min(1, normalizedValue))*Short.MAX_VALUE));
+	}
+	
+	/**
+	 *  Helper method to read a value written by {@link #writeQuantizedToBuffer(double, double, double, ByteBuf)}.
+	 *  The range must be the same as the one used when writing.
+	 */
+	protected static double readQuantizedFromBuffer(double min, double max, ByteBuf buf){
+		return (max + min)/2D + (max - min)/2D*buf.readShort()/Short.MAX_VALUE;
+	}
+	
 	/**
 	 *  Helper method to write a Point3d to the buffer.
 	 */
@@ -189,6 +320,79 @@ public abstract class APacketBase{
 		return new Point3D(buf.readInt(), buf.readInt(), buf.readInt());
 	}
 	
+	/**
+	 *  Helper method to write a set of values to the buffer, delta-compressed against the last values
+	 *  sent for the passed-in key on this connection.  Each delta is scaled by its scale, rounded, and
+	 *  sent as a zig-zag varint, with a mask for which deltas aren't 0.  The baseline is moved by the
+	 *  rounded delta, not the actual one, so rounding errors don't add up over time.  If there is no
+	 *  baseline, the full values are sent instead.  The key is normally the UUID of the entity the values are for.
+	 */
+	protected static void writeDeltaCompressedToBuffer(Object key, double[] values, double[] scales, ByteBuf buf){
+		double[] baseline = PacketSession.getBaseline(key);
+		int mask = 0;
+		long[] deltas = new long[values.length];
+		if(baseline != null){
+			for(int i=0; i<values.length; ++i){
+				deltas[i] = Math.round((values[i] - baseline[i])*scales[i]);
+				if(deltas[i] != 0){
+					mask |= 1 << i;
+					if(deltas[i] > Integer.MAX_VALUE || deltas[i] < Integer.MIN_VALUE){
+						//Too big of a change to send as a delta.  Send the full values.
+						baseline = null;
+						break;
+					}
+				}
+			}
+		}
+		if(baseline != null){
+			buf.writeByte(DELTA_BASELINE);
+			writeVarIntToBuffer(mask, buf);
+			for(int i=0; i<values.length; ++i){
+				if(deltas[i] != 0){
+					writeSignedVarIntToBuffer((int) deltas[i], buf);
+					baseline[i] += deltas[i]/scales[i];
+				}
+			}
+		}else{
+			buf.writeByte(PacketSession.isActive() ? DELTA_FULL_STORED : DELTA_FULL);
+			for(double value : values){
+				buf.writeDouble(value);
+			}
+			PacketSession.setBaseline(key, values.clone());
+		}
+	}
+	
+	/**
+	 *  Helper method to read values written by {@link #writeDeltaCompressedToBuffer(Object, double[], double[], ByteBuf)}.
+	 *  The scales must be the same as the ones used when writing.
+	 */
+	protected static double[] readDeltaCompressedFromBuffer(Object key, double[] scales, ByteBuf buf){
+		byte type = buf.readByte();
+		if(type == DELTA_BASELINE){
+			double[] baseline = PacketSession.getBaseline(key);
+			if(baseline == null){
+				throw new IllegalStateException("Got delta values without a baseline for: " + key);
+			}
+			int mask = readVarIntFromBuffer(buf);
+			for(int i=0; i<scales.length; ++i){
+				if((mask & (1 << i)) != 0){
+					long delta = readSignedVarIntFromBuffer(buf);
+					baseline[i] += delta/scales[i];
+				}
+			}
+			return baseline.clone();
+		}else{
+			double[] values = new double[scales.length];
+			for(int i=0; i<values.length; ++i){
+				values[i] = buf.readDouble();
+			}
+			if(type == DELTA_FULL_STORED){
+				PacketSession.setBaseline(key, values.clone());
+			}
+			return values;
+		}
+	}
+	
 	/**
 	 *  Forwarder to interface method for cleaner packet code.
 	 */
@@ -270,6 +474,7 @@ public abstract class APacketBase{
 		
 		//Vehicle packets.
 		InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketVehicleBeaconChange.class);
+		InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketVehicleControl.class);
 		InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketVehicleInteract.class);
 		InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketVehicleServerMovement.class);
 		InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketVehicleServerSync.class);
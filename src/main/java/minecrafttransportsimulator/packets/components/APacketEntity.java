@@ -5,6 +5,7 @@ import java.util.UUID;
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
 import minecrafttransportsimulator.entities.components.AEntityA_Base;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 
@@ -23,20 +24,32 @@ public abstract class APacketEntity<EntityType extends AEntityA_Base> extends AP
 	
 	public APacketEntity(ByteBuf buf){
 		super(buf);
-		this.uniqueUUID = readUUIDFromBuffer(buf);
+		this.uniqueUUID = readIndexedUUIDFromBuffer(buf);
 	};
 
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeUUIDToBuffer(uniqueUUID, buf);
+		writeIndexedUUIDToBuffer(uniqueUUID, buf);
+	}
+	
+	/**
+	 *  Returns the ID of the entity this packet is for.
+	 */
+	protected UUID getEntityID(){
+		return uniqueUUID;
 	}
 	
 	@Override
 	public void handle(AWrapperWorld world){
 		EntityType entity = world.getEntity(uniqueUUID);
 		if(entity != null && handle(world, entity) && !world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(this);
+			//Only send to clients that have the entity.  Others will get its state when they load it.
+			if(entity instanceof AEntityB_Existing){
+				InterfaceManager.packetInterface.sendToTrackingClients(this, (AEntityB_Existing) entity);
+			}else{
+				InterfaceManager.packetInterface.sendToAllClients(this);
+			}
 			if(entity instanceof ATileEntityBase){
 				//Need to set TEs as updated, as they don't normally do this.
 				world.markTileEntityChanged(((ATileEntityBase<?>) entity).position);
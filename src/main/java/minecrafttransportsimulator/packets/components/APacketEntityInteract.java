@@ -25,13 +25,13 @@ public abstract class APacketEntityInteract<MainEntityType extends AEntityA_Base
 	
 	public APacketEntityInteract(ByteBuf buf){
 		super(buf);
-		this.entityID = readUUIDFromBuffer(buf);
+		this.entityID = readIndexedUUIDFromBuffer(buf);
 	};
 
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeUUIDToBuffer(entityID, buf);
+		writeIndexedUUIDToBuffer(entityID, buf);
 	}
 	
 	@Override
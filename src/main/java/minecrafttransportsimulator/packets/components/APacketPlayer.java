@@ -25,13 +25,13 @@ public abstract class APacketPlayer extends APacketBase{
 	
 	public APacketPlayer(ByteBuf buf){
 		super(buf);
-		this.playerID = readUUIDFromBuffer(buf);
+		this.playerID = readIndexedUUIDFromBuffer(buf);
 	};
 
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeUUIDToBuffer(playerID, buf);
+		writeIndexedUUIDToBuffer(playerID, buf);
 	}
 	
 	@Override
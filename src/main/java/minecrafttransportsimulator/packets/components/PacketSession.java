@@ -0,0 +1,127 @@
+package minecrafttransportsimulator.packets.components;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**Dictionary for a single network connection.  Used to send identifiers that are sent over and over,
+ * such as entity UUIDs and variable names, as small indexes rather than their full values.  The first
+ * time a value is written to a connection, it is sent with its index.  After that, only the index is sent.
+ * The receiving end stores values by index as they come in, so it can look them up for later packets.
+ * <br><br>
+ * Sessions are only used for packets going from the server to a single client.  Packets sent to all
+ * clients, or to the server, don't have a session, and send values in-line.  This is done via a header:
+ * a header of 0 means the value is in-line, and not stored.  Otherwise, the header is the index plus one,
+ * shifted left one bit, with the low bit set if the value follows the header.  Sessions are set as the
+ * active session for the thread that is writing or reading a packet, which lets {@link APacketBase}
+ * helpers get them without needing them passed-in to every packet.
+ * <br><br>
+ * Sessions also hold the baselines for delta-compressed values.  Since connections are ordered and
+ * don't drop packets, the last values sent are always the last values the other end got, so both
+ * ends can use them as the baseline for the next set without the need for acknowledgments.
+ *
+ * @author don_bruce
+ */
+public class PacketSession{
+	/**Max number of values to store per session.  Any values past this are sent in-line.**/
+	private static final int MAX_VALUES = 65536;
+	private static final ThreadLocal<PacketSession> activeSession = new ThreadLocal<PacketSession>();
+	
+	private final Map<Object, Integer> writeIndexes = new HashMap<Object, Integer>();
+	private final List<Object> readValues = new ArrayList<Object>();
+	private final Map<Object, double[]> baselines = new HashMap<Object, double[]>();
+	
+	/**
+	 *  Sets the active session for this thread.  Should be set to null once the packet is done.
+	 */
+	public static void setActiveSession(PacketSession session){
+		activeSession.set(session);
+	}
+	
+	/**
+	 *  Returns the header to write for the passed-in value with the active session.
+	 */
+	static int getHeader(Object value){
+		PacketSession session = activeSession.get();
+		if(session != null){
+			Integer index = session.writeIndexes.get(value);
+			if(index != null){
+				return (index + 1) << 1;
+			}else if(session.writeIndexes.size() < MAX_VALUES){
+				index = session.writeIndexes.size();
+				session.writeIndexes.put(value, index);
+				return ((index + 1) << 1) | 1;
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 *  Returns true if the value for the passed-in header follows it in the buffer.
+	 */
+	static boolean isValueInBuffer(int header){
+		return header == 0 || (header & 1) != 0;
+	}
+	
+	/**
+	 *  Stores the passed-in value read for the passed-in header in the active session.
+	 *  Values for in-line headers aren't stored, as they don't have an index.
+	 */
+	static void storeValue(int header, Object value){
+		if(header != 0){
+			int index = (header >>> 1) - 1;
+			List<Object> values = getReadSession().readValues;
+			while(values.size() <= index){
+				values.add(null);
+			}
+			values.set(index, value);
+		}
+	}
+	
+	/**
+	 *  Returns the value stored for the passed-in header in the active session.
+	 */
+	static Object getValue(int header){
+		int index = (header >>> 1) - 1;
+		List<Object> values = getReadSession().readValues;
+		if(index >= values.size()){
+			throw new IllegalStateException("Got packet with index " + index + " that wasn't sent on this connection.");
+		}
+		return values.get(index);
+	}
+	
+	/**
+	 *  Returns true if there is an active session.
+	 */
+	static boolean isActive(){
+		return activeSession.get() != null;
+	}
+	
+	/**
+	 *  Returns the baseline for the passed-in key in the active session, or null if there isn't one.
+	 */
+	static double[] getBaseline(Object key){
+		PacketSession session = activeSession.get();
+		return session != null ? session.baselines.get(key) : null;
+	}
+	
+	/**
+	 *  Sets the baseline for the passed-in key in the active session.
+	 *  Once the session has as many baselines as it can hold, new ones are ignored.
+	 */
+	static void setBaseline(Object key, double[] values){
+		PacketSession session = activeSession.get();
+		if(session != null && (session.baselines.size() < MAX_VALUES || session.baselines.containsKey(key))){
+			session.baselines.put(key, values);
+		}
+	}
+	
+	private static PacketSession getReadSession(){
+		PacketSession session = activeSession.get();
+		if(session == null){
+			throw new IllegalStateException("Got packet with an indexed value on a connection without a session.");
+		}
+		return session;
+	}
+}
@@ -32,7 +32,7 @@ public class PacketEntityVariableIncrement extends APacketEntity<AEntityD_Defina
 	
 	public PacketEntityVariableIncrement(ByteBuf buf){
 		super(buf);
-		this.variableName = readStringFromBuffer(buf);
+		this.variableName = readIndexedStringFromBuffer(buf);
 		this.incrementValue = buf.readDouble();
 		this.minValue = buf.readDouble();
 		this.maxValue = buf.readDouble();
@@ -41,7 +41,7 @@ public class PacketEntityVariableIncrement extends APacketEntity<AEntityD_Defina
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeStringToBuffer(variableName, buf);
+		writeIndexedStringToBuffer(variableName, buf);
 		buf.writeDouble(incrementValue);
 		buf.writeDouble(minValue);
 		buf.writeDouble(maxValue);
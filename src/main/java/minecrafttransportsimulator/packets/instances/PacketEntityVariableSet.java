@@ -27,14 +27,14 @@ public class PacketEntityVariableSet extends APacketEntity<AEntityD_Definable<?>
 	
 	public PacketEntityVariableSet(ByteBuf buf){
 		super(buf);
-		this.variableName = readStringFromBuffer(buf);
+		this.variableName = readIndexedStringFromBuffer(buf);
 		this.variableValue = buf.readDouble();
 	}
 	
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeStringToBuffer(variableName, buf);
+		writeIndexedStringToBuffer(variableName, buf);
 		buf.writeDouble(variableValue);
 	}
 	
@@ -21,13 +21,13 @@ public class PacketEntityVariableToggle extends APacketEntity<AEntityD_Definable
 	
 	public PacketEntityVariableToggle(ByteBuf buf){
 		super(buf);
-		this.variableName = readStringFromBuffer(buf);
+		this.variableName = readIndexedStringFromBuffer(buf);
 	}
 	
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeStringToBuffer(variableName, buf);
+		writeIndexedStringToBuffer(variableName, buf);
 	}
 	
 	@Override
@@ -75,7 +75,7 @@ public class PacketPartEngine extends APacketEntity<PartEngine>{
 			this.brokenStarter = false;
 		}
 		if(packetType.equals(Signal.LINK)){
-			this.linkedID = readUUIDFromBuffer(buf);
+			this.linkedID = readIndexedUUIDFromBuffer(buf);
 			this.linkedPos = readPoint3dFromBuffer(buf);
 		}else{
 			this.linkedID = null;
@@ -93,7 +93,7 @@ public class PacketPartEngine extends APacketEntity<PartEngine>{
 			buf.writeBoolean(fuelLeak);
 			buf.writeBoolean(brokenStarter);
 		}else if(packetType.equals(Signal.LINK)){
-			writeUUIDToBuffer(linkedID, buf);
+			writeIndexedUUIDToBuffer(linkedID, buf);
 			writePoint3dToBuffer(linkedPos, buf);
 		}
 	}
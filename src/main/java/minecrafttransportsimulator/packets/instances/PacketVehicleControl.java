@@ -0,0 +1,134 @@
+package minecrafttransportsimulator.packets.instances;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packets.components.APacketEntity;
+
+/**Packet used to send all control inputs for a vehicle in a single tick.  Sent from clients to servers
+ * once per tick with any axis that changed, rather than sending a {@link PacketEntityVariableSet} or
+ * {@link PacketEntityVariableIncrement} for each axis.  Axis can either be set, or incremented with
+ * a clamp, just like with those packets.  Values are sent as shorts scaled to the axis range,
+ * which is far more than enough resolution for control inputs.
+ * <br><br>
+ * Once the server applies the frame, it sends the resulting values for all axis in the frame
+ * to clients as a set-only frame.  This way clients always get the actual value the server has,
+ * rather than applying increments to values that may not match the server's.
+ *
+ * @author don_bruce
+ */
+public class PacketVehicleControl extends APacketEntity<EntityVehicleF_Physics>{
+	private final byte setMask;
+	private final byte incrementMask;
+	private final double[] values = new double[ControlAxis.values().length];
+	private final ControlClamp[] clamps = new ControlClamp[ControlAxis.values().length];
+	
+	public PacketVehicleControl(EntityVehicleF_Physics vehicle, byte setMask, byte incrementMask, double[] values, ControlClamp[] clamps){
+		super(vehicle);
+		this.setMask = setMask;
+		this.incrementMask = incrementMask;
+		System.arraycopy(values, 0, this.values, 0, this.values.length);
+		System.arraycopy(clamps, 0, this.clamps, 0, this.clamps.length);
+	}
+	
+	public PacketVehicleControl(ByteBuf buf){
+		super(buf);
+		this.setMask = buf.readByte();
+		this.incrementMask = buf.readByte();
+		for(ControlAxis axis : ControlAxis.values()){
+			if(axis.isIn(setMask)){
+				values[axis.ordinal()] = readQuantizedFromBuffer(axis.min, axis.max, buf);
+			}else if(axis.isIn(incrementMask)){
+				values[axis.ordinal()] = readQuantizedFromBuffer(axis.min - axis.max, axis.max - axis.min, buf);
+				clamps[axis.ordinal()] = ControlClamp.values()[buf.readByte()];
+			}
+		}
+	}
+	
+	@Override
+	public void writeToBuffer(ByteBuf buf){
+		super.writeToBuffer(buf);
+		buf.writeByte(setMask);
+		buf.writeByte(incrementMask);
+		for(ControlAxis axis : ControlAxis.values()){
+			if(axis.isIn(setMask)){
+				writeQuantizedToBuffer(values[axis.ordinal()], axis.min, axis.max, buf);
+			}else if(axis.isIn(incrementMask)){
+				writeQuantizedToBuffer(values[axis.ordinal()], axis.min - axis.max, axis.max - axis.min, buf);
+				buf.writeByte(clamps[axis.ordinal()].ordinal());
+			}
+		}
+	}
+	
+	@Override
+	public boolean handle(AWrapperWorld world, EntityVehicleF_Physics vehicle){
+		if(world.isClient()){
+			for(ControlAxis axis : ControlAxis.values()){
+				if(axis.isIn(setMask)){
+					vehicle.setVariable(axis.variable, values[axis.ordinal()]);
+				}
+			}
+		}else{
+			//Apply the frame, and then send clients what we ended up with.
+			double[] resultingValues = new double[values.length];
+			for(ControlAxis axis : ControlAxis.values()){
+				if(axis.isIn(setMask)){
+					vehicle.setVariable(axis.variable, Math.max(axis.min, Math.min(axis.max, values[axis.ordinal()])));
+				}else if(axis.isIn(incrementMask)){
+					ControlClamp clamp = clamps[axis.ordinal()];
+					vehicle.incrementVariable(axis.variable, values[axis.ordinal()], clamp.equals(ControlClamp.ABOVE_ZERO) ? 0 : axis.min, clamp.equals(ControlClamp.BELOW_ZERO) ? 0 : axis.max);
+				}
+				resultingValues[axis.ordinal()] = vehicle.getVariable(axis.variable);
+			}
+			InterfaceManager.packetInterface.sendToTrackingClients(new PacketVehicleControl(vehicle, (byte) (setMask | incrementMask), (byte) 0, resultingValues, clamps), vehicle);
+		}
+		return false;
+	}
+	
+	/**
+	 *  Axis that can be sent in this packet.  Each axis has a variable, and the range of values that variable can have.
+	 *  There can only be 8 of these, as they are sent as a byte mask.
+	 */
+	public static enum ControlAxis{
+		THROTTLE(EntityVehicleF_Physics.THROTTLE_VARIABLE, 0, EntityVehicleF_Physics.MAX_THROTTLE),
+		BRAKE(EntityVehicleF_Physics.BRAKE_VARIABLE, 0, EntityVehicleF_Physics.MAX_BRAKE),
+		AILERON(EntityVehicleF_Physics.AILERON_INPUT_VARIABLE, -EntityVehicleF_Physics.MAX_AILERON_ANGLE, EntityVehicleF_Physics.MAX_AILERON_ANGLE),
+		ELEVATOR(EntityVehicleF_Physics.ELEVATOR_INPUT_VARIABLE, -EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE, EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE),
+		RUDDER(EntityVehicleF_Physics.RUDDER_INPUT_VARIABLE, -EntityVehicleF_Physics.MAX_RUDDER_ANGLE, EntityVehicleF_Physics.MAX_RUDDER_ANGLE),
+		AILERON_TRIM(EntityVehicleF_Physics.AILERON_TRIM_VARIABLE, -EntityVehicleF_Physics.MAX_AILERON_TRIM, EntityVehicleF_Physics.MAX_AILERON_TRIM),
+		ELEVATOR_TRIM(EntityVehicleF_Physics.ELEVATOR_TRIM_VARIABLE, -EntityVehicleF_Physics.MAX_ELEVATOR_TRIM, EntityVehicleF_Physics.MAX_ELEVATOR_TRIM),
+		RUDDER_TRIM(EntityVehicleF_Physics.RUDDER_TRIM_VARIABLE, -EntityVehicleF_Physics.MAX_RUDDER_TRIM, EntityVehicleF_Physics.MAX_RUDDER_TRIM);
+		
+		public final String variable;
+		public final double min;
+		public final double max;
+		/**Changes smaller than this won't be sent.  This keeps noisy joysticks from sending every tick.**/
+		public final double deadband;
+		
+		private ControlAxis(String variable, double min, double max){
+			this.variable = variable;
+			this.min = min;
+			this.max = max;
+			this.deadband = (max - min)/1000D;
+		}
+		
+		public byte getMask(){
+			return (byte) (1 << ordinal());
+		}
+		
+		private boolean isIn(byte mask){
+			return (mask & getMask()) != 0;
+		}
+	}
+	
+	/**
+	 *  Clamps for increments.  Increments either clamp to the axis range, or to zero
+	 *  from above or below for when controls are returning to center.
+	 */
+	public static enum ControlClamp{
+		FULL,
+		ABOVE_ZERO,
+		BELOW_ZERO;
+	}
+}
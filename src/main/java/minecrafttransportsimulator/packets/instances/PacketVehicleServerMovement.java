@@ -14,39 +14,46 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  * the position and rotation.  This system of syncing has the side-effect of significant
  * rubberbanding when server TPS suffers or networking goes bad, but it's far better than
  * the alternatives when the connection is good, hence why we use it.
+ * <br><br>
+ * This packet is a snapshot of the server's total deltas, not the deltas for a single tick.
+ * Because of this, a client that misses a tick or gets a late packet will still end up at the
+ * right total.  Snapshots are delta-compressed against the last snapshot sent to each client,
+ * so most of the time this is only a few bytes per axis that moved.
  * 
  * @author don_bruce
  */
 public class PacketVehicleServerMovement extends APacketEntity<EntityVehicleF_Physics>{
+	/**Scales for the compressed deltas.  1/1024th of a block for motion and pathing, and 1/256th of a degree for rotation.**/
+	private static final double[] DELTA_SCALES = new double[]{1024, 1024, 1024, 256, 256, 256, 1024};
+	
 	private final Point3D motion;
 	private final Point3D rotation;
 	private final double pathing;
 	
 	public PacketVehicleServerMovement(EntityVehicleF_Physics vehicle, Point3D motion, Point3D rotation, double pathing){
 		super(vehicle);
-		this.motion = motion;
-		this.rotation = rotation;
+		this.motion = motion.copy();
+		this.rotation = rotation.copy();
 		this.pathing = pathing;
 	}
 	
 	public PacketVehicleServerMovement(ByteBuf buf){
 		super(buf);
-		this.motion = readPoint3dFromBuffer(buf);
-		this.rotation = readPoint3dFromBuffer(buf);
-		this.pathing = buf.readDouble();
+		double[] values = readDeltaCompressedFromBuffer(getEntityID(), DELTA_SCALES, buf);
+		this.motion = new Point3D(values[0], values[1], values[2]);
+		this.rotation = new Point3D(values[3], values[4], values[5]);
+		this.pathing = values[6];
 	}
 	
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writePoint3dToBuffer(motion, buf);
-		writePoint3dToBuffer(rotation, buf);
-		buf.writeDouble(pathing);
+		writeDeltaCompressedToBuffer(getEntityID(), new double[]{motion.x, motion.y, motion.z, rotation.x, rotation.y, rotation.z, pathing}, DELTA_SCALES, buf);
 	}
 	
 	@Override
 	public boolean handle(AWrapperWorld world, EntityVehicleF_Physics vehicle){
-		vehicle.addToServerDeltas(motion, rotation, pathing);
+		vehicle.setServerDeltas(motion, rotation, pathing);
 		return false;
 	}
 }
@@ -0,0 +1,159 @@
+package minecrafttransportsimulator.packloading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
+
+/**Cache of pack definitions that have already been through Legacy Compatibility and validation.
+ * Each pack gets its own file in the cache directory, which stores the processed definitions for
+ * that pack in a compressed binary container.  Files are keyed by the jar path, size, modified time,
+ * and a hash of the jar contents, as well as the sub-directories loaded and the settings that affect
+ * parsing.  If any of these don't match, the file is stale and is deleted.
+ * <br><br>
+ * The content hash is made from the CRC of every entry in the jar.  Jars already store these, so we
+ * don't need to read the whole jar to get a hash that changes if any file in it changes.
+ *
+ * @author don_bruce
+ */
+class PackDefinitionCache{
+	/**Increment this if the file format changes.  The mod version covers changes to the definitions themselves.**/
+	private static final int CACHE_FORMAT = 1;
+	private static final String CACHE_SUFFIX = ".bin";
+	
+	private final File cacheDirectory;
+	private final String settingsKey;
+	
+	PackDefinitionCache(File cacheDirectory, String settingsKey){
+		this.cacheDirectory = cacheDirectory;
+		this.settingsKey = settingsKey;
+		cacheDirectory.mkdirs();
+	}
+	
+	/**
+	 *  Returns the key for the passed-in jar when loading the passed-in sub-directories.
+	 *  This should be passed to {@link #load(String, String)} and {@link #save(String, String, List)}.
+	 */
+	String getJarKey(File packJar, List<String> subDirectories) throws IOException{
+		long contentHash = 0;
+		ZipFile jarFile = new ZipFile(packJar);
+		Enumeration<? extends ZipEntry> entries = jarFile.entries();
+		while(entries.hasMoreElements()){
+			ZipEntry entry = entries.nextElement();
+			contentHash = 31*contentHash + entry.getName().hashCode();
+			contentHash = 31*contentHash + entry.getCrc();
+			contentHash = 31*contentHash + entry.getSize();
+		}
+		jarFile.close();
+		return CACHE_FORMAT + ";" + settingsKey + ";" + packJar.getAbsolutePath() + ";" + packJar.length() + ";" + packJar.lastModified() + ";" + Long.toHexString(contentHash) + ";" + subDirectories;
+	}
+	
+	/**
+	 *  Returns the cached entries for the passed-in pack, or null if there are none, or they
+	 *  are for a different jar key.  Stale or unreadable files are deleted.
+	 */
+	List<CacheEntry> load(String packID, String jarKey){
+		File cacheFile = new File(cacheDirectory, packID + CACHE_SUFFIX);
+		if(cacheFile.exists()){
+			try{
+				DataInputStream cacheStream = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(cacheFile))));
+				try{
+					if(cacheStream.readUTF().equals(jarKey)){
+						int entryCount = cacheStream.readInt();
+						List<CacheEntry> entries = new ArrayList<CacheEntry>(entryCount);
+						for(int i=0; i<entryCount; ++i){
+							ItemClassification classification = ItemClassification.values()[cacheStream.readUnsignedByte()];
+							String fileName = cacheStream.readUTF();
+							String prefixFolders = cacheStream.readUTF();
+							byte[] data = new byte[cacheStream.readInt()];
+							cacheStream.readFully(data);
+							entries.add(new CacheEntry(classification, fileName, prefixFolders, data));
+						}
+						return entries;
+					}
+				}finally{
+					cacheStream.close();
+				}
+			}catch(Exception e){
+				//Bad file.  Fall through to delete it.
+			}
+			cacheFile.delete();
+		}
+		return null;
+	}
+	
+	/**
+	 *  Saves the passed-in entries for the passed-in pack.  The file is written to a temp file
+	 *  and then moved, so a crash during saving won't leave a partial file to load next launch.
+	 */
+	void save(String packID, String jarKey, List<CacheEntry> entries) throws IOException{
+		File cacheFile = new File(cacheDirectory, packID + CACHE_SUFFIX);
+		File tempFile = new File(cacheDirectory, packID + CACHE_SUFFIX + ".tmp");
+		DataOutputStream cacheStream = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile))));
+		try{
+			cacheStream.writeUTF(jarKey);
+			cacheStream.writeInt(entries.size());
+			for(CacheEntry entry : entries){
+				cacheStream.writeByte(entry.classification.ordinal());
+				cacheStream.writeUTF(entry.fileName);
+				cacheStream.writeUTF(entry.prefixFolders);
+				cacheStream.writeInt(entry.data.length);
+				cacheStream.write(entry.data);
+			}
+		}finally{
+			cacheStream.close();
+		}
+		cacheFile.delete();
+		if(!tempFile.renameTo(cacheFile)){
+			tempFile.delete();
+			throw new IOException("Could not move cache file into place: " + cacheFile.getAbsolutePath());
+		}
+	}
+	
+	/**
+	 *  Deletes all cache files for packs that aren't in the passed-in set.
+	 *  This keeps removed packs from leaving their files behind forever.
+	 */
+	void removeUnusedEntries(Set<String> packIDs){
+		File[] cacheFiles = cacheDirectory.listFiles();
+		if(cacheFiles != null){
+			for(File cacheFile : cacheFiles){
+				String fileName = cacheFile.getName();
+				if(!fileName.endsWith(CACHE_SUFFIX) || !packIDs.contains(fileName.substring(0, fileName.length() - CACHE_SUFFIX.length()))){
+					cacheFile.delete();
+				}
+			}
+		}
+	}
+	
+	/**
+	 *  A single cached definition.  The data is the processed definition, as exported by {@link JSONParser}.
+	 */
+	static class CacheEntry{
+		final ItemClassification classification;
+		final String fileName;
+		final String prefixFolders;
+		final byte[] data;
+		
+		CacheEntry(ItemClassification classification, String fileName, String prefixFolders, byte[] data){
+			this.classification = classification;
+			this.fileName = fileName;
+			this.prefixFolders = prefixFolders;
+			this.data = data;
+		}
+	}
+}
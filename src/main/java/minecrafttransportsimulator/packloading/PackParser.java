@@ -1,6 +1,10 @@
 package minecrafttransportsimulator.packloading;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Enumeration;
@@ -11,6 +15,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -40,6 +46,7 @@ import minecrafttransportsimulator.jsondefs.JSONSkin;
 import minecrafttransportsimulator.jsondefs.JSONSubDefinition;
 import minecrafttransportsimulator.jsondefs.JSONVehicle;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packloading.PackDefinitionCache.CacheEntry;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
 import minecrafttransportsimulator.packloading.PackResourceLoader.PackStructure;
 import minecrafttransportsimulator.systems.ConfigSystem;
@@ -57,6 +64,9 @@ public final class PackParser{
 	/**All registered pack definitions are stored in this list as they are added.  Used to handle loading operations.**/
 	private static final Map<String, JSONPack> packMap = new HashMap<String, JSONPack>();
 	
+	/**Cache for processed pack definitions.  Only exists while packs are being parsed, and may be null if caching isn't possible.**/
+	private static PackDefinitionCache definitionCache;
+	
 	/**Part creators are put here during the boot process prior to parsing.  This allows for creators to be added after first parsing for custom items.**/
 	private static final List<AItemPartCreator> partCreators = new ArrayList<AItemPartCreator>();
 
@@ -115,18 +125,63 @@ public final class PackParser{
      * for pack definitions.  After this, they will be created and loaded into the main mod.
      */
     public static void parsePacks(List<File> packDirectories, boolean isClient){
-    	//First get all pack definitions from the passed-in directories.
-    	for(File directory : packDirectories){
-    		for(File file : directory.listFiles()){
-    			if(file.getName().endsWith(".jar")){
-					checkJarForPacks(file);
-				}
-    		}
+    	//Pack loading is split into stages.  Jars are checked, and the JSONs in them parsed and validated, in parallel.
+    	//Item registration is then done on this thread in pack and file order, so item ordering never changes.
+    	ForkJoinPool loadingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    	try{
+	    	//First get all pack definitions from the passed-in directories.
+	    	//Results are added in directory order, so packs in multiple jars resolve the same way every load.
+	    	long stageStartTime = System.nanoTime();
+	    	List<JarCheckTask> checkTasks = new ArrayList<JarCheckTask>();
+	    	for(File directory : packDirectories){
+	    		for(File file : directory.listFiles()){
+	    			if(file.getName().endsWith(".jar")){
+	    				JarCheckTask checkTask = new JarCheckTask(file);
+	    				loadingPool.execute(checkTask);
+	    				checkTasks.add(checkTask);
+					}
+	    		}
+	    	}
+	    	for(JarCheckTask checkTask : checkTasks){
+	    		for(JSONPack packDef : checkTask.join()){
+	    			packJarMap.put(packDef.packID, checkTask.packJar);
+	    			packMap.put(packDef.packID, packDef);
+	    		}
+	    	}
+	    	long checkTime = System.nanoTime() - stageStartTime;
+	    	
+	    	//Set up the definition cache.  HSV colors are rounded when exported, so we can't cache definitions when using them.
+	    	if(!ConfigSystem.settings.general.useHSV.value){
+	    		definitionCache = new PackDefinitionCache(new File(new File(InterfaceManager.gameDirectory, "config"), "mtspackcache"), InterfaceManager.coreInterface.getModVersion(InterfaceManager.coreModID) + ";" + ConfigSystem.settings.general.doLegacyLightCompats.value);
+	    	}
+	    	
+	    	//Next, parse all packs in those definitions.
+	    	stageStartTime = System.nanoTime();
+	    	List<PackLoadTask> loadTasks = parseAllPacks(loadingPool);
+	    	long parseTime = System.nanoTime() - stageStartTime;
+	    	
+	    	//Now register all items from the parsed packs.
+	    	stageStartTime = System.nanoTime();
+	    	registerAllPacks(loadTasks);
+	    	long registerTime = System.nanoTime() - stageStartTime;
+	    	if(definitionCache != null){
+	    		definitionCache.removeUnusedEntries(packMap.keySet());
+	    	}
+	    	
+	    	//Log how long each stage took, and how long each pack took, to let pack authors and users see what's slow.
+	    	InterfaceManager.coreInterface.logInfo(String.format("Pack loading took %dms: %dms checking %d jars, %dms parsing, %dms registering.", (checkTime + parseTime + registerTime)/1000000, checkTime/1000000, checkTasks.size(), parseTime/1000000, registerTime/1000000));
+	    	for(PackLoadTask loadTask : loadTasks){
+	    		long packParseTime = 0;
+	    		for(DefinitionParseTask parseTask : loadTask.parseTasks){
+	    			packParseTime += parseTask.parseTime;
+	    		}
+	    		InterfaceManager.coreInterface.logInfo(String.format("Pack %s: %d JSONs, %dms reading, %dms parsing (summed over threads), %dms registering.%s", loadTask.packDef.packID, loadTask.parseTasks.size(), loadTask.readTime/1000000, packParseTime/1000000, loadTask.registerTime/1000000, loadTask.loadedFromCache ? "  Loaded from cache." : ""));
+	    	}
+    	}finally{
+    		loadingPool.shutdown();
+    		definitionCache = null;
     	}
     	
-    	//Next, parse all packs in those definitions.
-    	parseAllPacks();
-    	
     	//Check for custom skins.
     	parseAllSkins();
     	
@@ -237,8 +292,12 @@ public final class PackParser{
      * on what mods and packs have been loaded alongside it.  No packs should be loaded between
      * the jar-checking code and the pack-loading code, as all possible packs and mods must
      * be loaded prior to trying to load the pack in case there are dependencies.
+     * <br><br>
+     * This may be called from any thread, so it only returns the packs in the jar.  Adding them
+     * to the pack maps is up to the caller.
      */
-    private static void checkJarForPacks(File packJar){
+    private static List<JSONPack> checkJarForPacks(File packJar){
+    	List<JSONPack> packDefs = new ArrayList<JSONPack>();
     	try{
 	    	//Try to find a JSON definition.
     		boolean foundJSON = false;
@@ -249,8 +308,7 @@ public final class PackParser{
 				if(entry.getName().endsWith("packdefinition.json")){
 					//New style, use def as-is.
 					JSONPack packDef = JSONParser.parseStream(jarFile.getInputStream(entry), JSONPack.class, null, null);
-					packJarMap.put(packDef.packID, packJar);
-					packMap.put(packDef.packID, packDef);
+					packDefs.add(packDef);
 					foundJSON = true;
 				}
 			}
@@ -267,8 +325,7 @@ public final class PackParser{
 						String[] pathComponents = entry.getName().split("/");
 						packDef.packID = pathComponents[pathComponents.length - 2];
 						packDef.packName = "Auto-Generated: " + packDef.packID;
-						packJarMap.put(packDef.packID, packJar);
-						packMap.put(packDef.packID, packDef);
+						packDefs.add(packDef);
 						break;
 					}
 				}
@@ -278,6 +335,7 @@ public final class PackParser{
 			InterfaceManager.coreInterface.logError("A fault was encountered when trying to check file " + packJar.getName() + " for pack data.  This pack will not be loaded.");
 			e.printStackTrace();
 		}
+    	return packDefs;
     } 
 	
 	/**
@@ -287,8 +345,12 @@ public final class PackParser{
      * performing any actual loading operations.  Note that all packs in this routine
      * assume the default loader.  If you want to use a custom loader, you should manually
      * create and register your pack items and use {@link #registerItem(AJSONItem)}.
+     * <br><br>
+     * Packs are parsed on the passed-in pool.  The returned tasks are in pack order, and are all
+     * complete, but nothing in them has been registered.  Use {@link #registerAllPacks(List)} for that.
      */
-    private static void parseAllPacks(){
+    private static List<PackLoadTask> parseAllPacks(ForkJoinPool loadingPool){
+    	List<PackLoadTask> loadTasks = new ArrayList<PackLoadTask>();
     	List<String> packIDs = new ArrayList<String>(packMap.keySet());
     	Iterator<String> iterator = packMap.keySet().iterator();
     	while(iterator.hasNext()){
@@ -342,81 +404,52 @@ public final class PackParser{
     			}
     		}
     		
-    		//Load the pack components into the game.
-    		//We iterate over all the sub-folders we found from the packDef checks.
-    		PackStructure structure = PackStructure.values()[packDef.fileStructure];
-    		for(String subDirectory : validSubDirectories){
-	    		String assetPathPrefix = "assets/" + packDef.packID + "/";
-				if(!subDirectory.isEmpty()){
-					assetPathPrefix += subDirectory + "/";
-				}
-				
-				try{
-		    		ZipFile jarFile = new ZipFile(packJarMap.get(packDef.packID));
-					Enumeration<? extends ZipEntry> entries = jarFile.entries();
-					while(entries.hasMoreElements()){
-						//Get next entry and path.
-						ZipEntry entry = entries.nextElement();
-						String entryFullPath = entry.getName();
-						if(entryFullPath.startsWith(assetPathPrefix) && entryFullPath.endsWith(".json")){
-							//JSON is in correct folder.  Get path properties and ensure they match our specs.
-							//Need the asset folder structure between the main prefix and the asset itself.
-							//This lets us know what asset we need to create as all assets are in their own folders.
-							String fileName = entryFullPath.substring(entryFullPath.lastIndexOf('/') + 1);
-							String assetPath = entryFullPath.substring(assetPathPrefix.length(), entryFullPath.substring(0, entryFullPath.length() - fileName.length()).lastIndexOf("/") + 1);
-							if(!structure.equals(PackStructure.MODULAR)){
-								//Need to trim the jsondefs folder to get correct sub-folder of jsondefs data.
-								//Modular structure does not have a jsondefs folder, so we don't need to trim it off for that.
-								//If we aren't modular, and aren't in a jsondefs folder, skip this entry.
-								if(assetPath.startsWith("jsondefs/")){
-									assetPath = assetPath.substring("jsondefs/".length());
-								}else{
-									continue;
-								}
-							}
-							
-							//Check to make sure json isn't an item JSON or our pack definition.
-							if(!fileName.equals("packdefinition.json") && (structure.equals(PackStructure.MODULAR) ? !fileName.endsWith("_item.json") : entryFullPath.contains("jsondefs"))){
-								//Get classification and JSON class type to use with GSON system.
-								ItemClassification classification;
-								try{
-									classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
-								}catch(Exception e){
-									InterfaceManager.coreInterface.logError("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
-									continue;
-								}
-								
-								//Create the JSON instance.
-								String systemName = fileName.substring(0, fileName.length() - ".json".length());
-								AJSONItem definition;
-								try{
-									definition = JSONParser.parseStream(jarFile.getInputStream(entry), classification.representingClass, packDef.packID, systemName);
-								}catch(Exception e){
-									InterfaceManager.coreInterface.logError("Could not parse: " + packDef.packID + ":" + fileName);
-						    		InterfaceManager.coreInterface.logError(e.getMessage());
-						    		continue;
-								}
-								
-								//Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
-								//Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
-								//if we are loading a non-default pack format.
-								definition.packID = packDef.packID;
-								definition.systemName = systemName;
-								definition.classification = classification;
-								definition.prefixFolders = assetPath.substring(classification.toDirectory().length()); 
-								registerItem(definition);
-							}
-						}
-					}
-					
-					//Done parsing.  Close the jarfile.
-					jarFile.close();
-				}catch(Exception e){
-					InterfaceManager.coreInterface.logError("Could not start parsing of pack: " + packDef.packID);
-					e.printStackTrace();
-				}
+    		//Load the pack components.  This is done on the pool, as packs don't depend on each other until registration.
+    		PackLoadTask loadTask = new PackLoadTask(packDef, validSubDirectories);
+    		loadingPool.execute(loadTask);
+    		loadTasks.add(loadTask);
+    	}
+    	
+    	//Wait for all packs to finish parsing before returning.
+    	//If a pack fails, only mark it as having errors so the other packs still load.
+    	for(PackLoadTask loadTask : loadTasks){
+    		try{
+    			loadTask.join();
+    		}catch(Exception e){
+    			loadTask.hadErrors = true;
+    			InterfaceManager.coreInterface.logError("Could not finish parsing of pack: " + loadTask.packDef.packID);
+    			e.printStackTrace();
     		}
     	}
+    	return loadTasks;
+    }
+    
+    /**
+     * Called to register all items from the passed-in pack tasks.  Items are registered in
+     * task order, and in jar order inside each task, which is the same order they would be
+     * registered in if packs were loaded one at a time.  This must be called on the main thread.
+     */
+    private static void registerAllPacks(List<PackLoadTask> loadTasks){
+    	for(PackLoadTask loadTask : loadTasks){
+    		long registerStartTime = System.nanoTime();
+    		for(DefinitionParseTask parseTask : loadTask.parseTasks){
+    			//Failed parse tasks were already logged when their pack finished loading, so just skip them.
+    			AJSONItem definition;
+    			try{
+    				definition = parseTask.join();
+    			}catch(Exception e){
+    				definition = null;
+    			}
+    			if(definition != null){
+    				try{
+    					registerPreparedItem(definition);
+    				}catch(Exception e){
+    					InterfaceManager.coreInterface.logError(e.getMessage());
+    				}
+    			}
+    		}
+    		loadTask.registerTime = System.nanoTime() - registerStartTime;
+    	}
     }
     
     /**
@@ -435,46 +468,61 @@ public final class PackParser{
      */
     public static void registerItem(AJSONItem itemDef){
     	try{
-	    	//Do legacy compats before validating the JSON.
-	    	//This will populate any required fields that were not in older versions.
-			LegacyCompatSystem.performLegacyCompats(itemDef);
-			JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
-	    			
-	    	//Create all required items.
-			if(itemDef instanceof AJSONMultiModelProvider){
-				//Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
-				//We don't create skin items right away as the pack they go to might not yet be loaded.
-				if(itemDef instanceof JSONSkin){
-					JSONSkin skinDef = (JSONSkin) itemDef;
-					if(!skinMap.containsKey(skinDef.skin.packID)){
-						skinMap.put(skinDef.skin.packID, new HashMap<String, List<JSONSkin>>());
-					}
-					if(!skinMap.get(skinDef.skin.packID).containsKey(skinDef.skin.systemName)){
-						skinMap.get(skinDef.skin.packID).put(skinDef.skin.systemName, new ArrayList<JSONSkin>());
-					}
-					skinMap.get(skinDef.skin.packID).get(skinDef.skin.systemName).add(skinDef);
-				}else{
-					parseAllDefinitions((AJSONMultiModelProvider) itemDef, ((AJSONMultiModelProvider) itemDef).definitions, itemDef.packID);
+    		prepareItem(itemDef);
+    		registerPreparedItem(itemDef);
+    	}catch(Exception e){
+    		InterfaceManager.coreInterface.logError(e.getMessage());
+    	}
+    }
+    
+    /**
+     * Performs Legacy Compatibility and validation on the passed-in definition.  This only modifies
+     * the definition itself, so it is safe to call from any thread.
+     */
+    private static void prepareItem(AJSONItem itemDef){
+    	//Do legacy compats before validating the JSON.
+    	//This will populate any required fields that were not in older versions.
+		LegacyCompatSystem.performLegacyCompats(itemDef);
+		JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
+    }
+    
+    /**
+     * Creates and registers all items for the passed-in definition.  The definition must
+     * have been through {@link #prepareItem(AJSONItem)} prior to calling this method.
+     */
+    private static void registerPreparedItem(AJSONItem itemDef){
+    	//Create all required items.
+		if(itemDef instanceof AJSONMultiModelProvider){
+			//Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
+			//We don't create skin items right away as the pack they go to might not yet be loaded.
+			if(itemDef instanceof JSONSkin){
+				JSONSkin skinDef = (JSONSkin) itemDef;
+				if(!skinMap.containsKey(skinDef.skin.packID)){
+					skinMap.put(skinDef.skin.packID, new HashMap<String, List<JSONSkin>>());
 				}
+				if(!skinMap.get(skinDef.skin.packID).containsKey(skinDef.skin.systemName)){
+					skinMap.get(skinDef.skin.packID).put(skinDef.skin.systemName, new ArrayList<JSONSkin>());
+				}
+				skinMap.get(skinDef.skin.packID).get(skinDef.skin.systemName).add(skinDef);
 			}else{
-				AItemPack<?> item;
-				switch(itemDef.classification){
-					case INSTRUMENT : item = new ItemInstrument((JSONInstrument) itemDef); break;
-					case ITEM : item = new ItemItem((JSONItem) itemDef); break;
-					default : {
-						throw new IllegalArgumentException("No corresponding classification found for asset: " + itemDef.prefixFolders + " Contact the mod author!");
-					}
+				parseAllDefinitions((AJSONMultiModelProvider) itemDef, ((AJSONMultiModelProvider) itemDef).definitions, itemDef.packID);
+			}
+		}else{
+			AItemPack<?> item;
+			switch(itemDef.classification){
+				case INSTRUMENT : item = new ItemInstrument((JSONInstrument) itemDef); break;
+				case ITEM : item = new ItemItem((JSONItem) itemDef); break;
+				default : {
+					throw new IllegalArgumentException("No corresponding classification found for asset: " + itemDef.prefixFolders + " Contact the mod author!");
 				}
-		    	
-		    	//Put the item in the map in the registry.
-		    	if(!packItemMap.containsKey(item.definition.packID)){
-		    		packItemMap.put(item.definition.packID, new HashMap<String, AItemPack<?>>());
-		    	}
-		    	packItemMap.get(item.definition.packID).put(item.definition.systemName, item);
 			}
-    	}catch(Exception e){
-    		InterfaceManager.coreInterface.logError(e.getMessage());
-    	}
+	    	
+	    	//Put the item in the map in the registry.
+	    	if(!packItemMap.containsKey(item.definition.packID)){
+	    		packItemMap.put(item.definition.packID, new HashMap<String, AItemPack<?>>());
+	    	}
+	    	packItemMap.get(item.definition.packID).put(item.definition.systemName, item);
+		}
     }
     
     /**
@@ -619,4 +667,262 @@ public final class PackParser{
     	}
     	return packItems;
     }
+
+
+    /**
+     * Task for checking a jar for packs.  The packs in the jar are the result.
+     */
+    private static class JarCheckTask extends RecursiveTask<List<JSONPack>>{
+    	private final File packJar;
+    	
+    	private JarCheckTask(File packJar){
+    		this.packJar = packJar;
+    	}
+    	
+    	@Override
+    	protected List<JSONPack> compute(){
+    		return checkJarForPacks(packJar);
+    	}
+    }
+    
+    /**
+     * Task for loading a pack.  This reads all JSONs for the pack out of its jar, and then forks a
+     * {@link DefinitionParseTask} for each one.  The parse tasks are kept in jar order for registration.
+     */
+    private static class PackLoadTask extends RecursiveTask<List<DefinitionParseTask>>{
+    	private final JSONPack packDef;
+    	private final List<String> validSubDirectories;
+    	private final List<DefinitionParseTask> parseTasks = new ArrayList<DefinitionParseTask>();
+    	private boolean loadedFromCache;
+    	private boolean hadErrors;
+    	private long readTime;
+    	private long registerTime;
+    	
+    	private PackLoadTask(JSONPack packDef, List<String> validSubDirectories){
+    		this.packDef = packDef;
+    		this.validSubDirectories = validSubDirectories;
+    	}
+    	
+    	@Override
+    	protected List<DefinitionParseTask> compute(){
+    		long readStartTime = System.nanoTime();
+    		//Check if we have this pack cached.  If so, we can skip reading it.
+    		String jarKey = null;
+    		if(definitionCache != null){
+    			try{
+    				jarKey = definitionCache.getJarKey(packJarMap.get(packDef.packID), validSubDirectories);
+    				List<CacheEntry> cacheEntries = definitionCache.load(packDef.packID, jarKey);
+    				if(cacheEntries != null){
+    					for(CacheEntry cacheEntry : cacheEntries){
+    						DefinitionParseTask parseTask = new DefinitionParseTask(cacheEntry.data, packDef.packID, cacheEntry.fileName, cacheEntry.classification, cacheEntry.prefixFolders, true);
+    						parseTask.fork();
+							parseTasks.add(parseTask);
+    					}
+    					loadedFromCache = true;
+    				}
+    			}catch(Exception e){
+    				InterfaceManager.coreInterface.logError("Could not check cache for pack: " + packDef.packID + ".  It will be loaded from its jar.");
+    				jarKey = null;
+    			}
+    		}
+    		
+    		if(!loadedFromCache){
+    			//We iterate over all the sub-folders we found from the packDef checks.
+    			PackStructure structure = PackStructure.values()[packDef.fileStructure];
+    			for(String subDirectory : validSubDirectories){
+		    		String assetPathPrefix = "assets/" + packDef.packID + "/";
+					if(!subDirectory.isEmpty()){
+						assetPathPrefix += subDirectory + "/";
+					}
+				
+					try{
+			    		ZipFile jarFile = new ZipFile(packJarMap.get(packDef.packID));
+						Enumeration<? extends ZipEntry> entries = jarFile.entries();
+						while(entries.hasMoreElements()){
+							//Get next entry and path.
+							ZipEntry entry = entries.nextElement();
+							String entryFullPath = entry.getName();
+							if(entryFullPath.startsWith(assetPathPrefix) && entryFullPath.endsWith(".json")){
+								//JSON is in correct folder.  Get path properties and ensure they match our specs.
+								//Need the asset folder structure between the main prefix and the asset itself.
+								//This lets us know what asset we need to create as all assets are in their own folders.
+								String fileName = entryFullPath.substring(entryFullPath.lastIndexOf('/') + 1);
+								String assetPath = entryFullPath.substring(assetPathPrefix.length(), entryFullPath.substring(0, entryFullPath.length() - fileName.length()).lastIndexOf("/") + 1);
+								if(!structure.equals(PackStructure.MODULAR)){
+									//Need to trim the jsondefs folder to get correct sub-folder of jsondefs data.
+									//Modular structure does not have a jsondefs folder, so we don't need to trim it off for that.
+									//If we aren't modular, and aren't in a jsondefs folder, skip this entry.
+									if(assetPath.startsWith("jsondefs/")){
+										assetPath = assetPath.substring("jsondefs/".length());
+									}else{
+										continue;
+									}
+								}
+							
+								//Check to make sure json isn't an item JSON or our pack definition.
+								if(!fileName.equals("packdefinition.json") && (structure.equals(PackStructure.MODULAR) ? !fileName.endsWith("_item.json") : entryFullPath.contains("jsondefs"))){
+									//Get classification and JSON class type to use with GSON system.
+									ItemClassification classification;
+									try{
+										classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
+									}catch(Exception e){
+										hadErrors = true;
+										InterfaceManager.coreInterface.logError("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
+										continue;
+									}
+								
+									//Read the JSON and fork a task to parse it.  We read here as the jar is only open in this task.
+									//Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
+									//Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
+									//if we are loading a non-default pack format.
+									DefinitionParseTask parseTask = new DefinitionParseTask(readEntry(jarFile, entry), packDef.packID, fileName, classification, assetPath.substring(classification.toDirectory().length()), false);
+									parseTask.fork();
+									parseTasks.add(parseTask);
+								}
+							}
+						}
+					
+						//Done reading.  Close the jarfile.
+						jarFile.close();
+					}catch(Exception e){
+						hadErrors = true;
+						InterfaceManager.coreInterface.logError("Could not start parsing of pack: " + packDef.packID);
+						e.printStackTrace();
+					}
+    			}
+    		}
+    		readTime = System.nanoTime() - readStartTime;
+    		
+    		//Wait for all JSONs to be parsed before saying we're done.
+    		for(DefinitionParseTask parseTask : parseTasks){
+    			try{
+	    			if(parseTask.join() == null){
+	    				hadErrors = true;
+	    			}
+    			}catch(Exception e){
+    				hadErrors = true;
+    				InterfaceManager.coreInterface.logError("Could not parse: " + packDef.packID + ":" + parseTask.fileName);
+    				e.printStackTrace();
+    			}
+    		}
+    		
+    		//If we read the pack from its jar, save it to the cache for next launch.
+    		//Don't save packs with errors, as we want those errors to show up every launch.
+    		//Also don't save packs with definitions that couldn't be exported, as the cache would be missing them.
+    		if(jarKey != null && !loadedFromCache && !hadErrors){
+    			List<CacheEntry> cacheEntries = new ArrayList<CacheEntry>();
+    			for(DefinitionParseTask parseTask : parseTasks){
+    				if(parseTask.cacheEntry != null){
+    					cacheEntries.add(parseTask.cacheEntry);
+    					parseTask.cacheEntry = null;
+    				}else{
+    					cacheEntries = null;
+    					break;
+    				}
+    			}
+    			if(cacheEntries != null){
+	    			try{
+	    				definitionCache.save(packDef.packID, jarKey, cacheEntries);
+	    			}catch(Exception e){
+	    				InterfaceManager.coreInterface.logError("Could not save cache for pack: " + packDef.packID);
+	    				InterfaceManager.coreInterface.logError(e.getMessage());
+	    			}
+    			}
+    		}
+    		return parseTasks;
+    	}
+    	
+    	private static byte[] readEntry(ZipFile jarFile, ZipEntry entry) throws IOException{
+    		InputStream stream = jarFile.getInputStream(entry);
+    		ByteArrayOutputStream bytes = new ByteArrayOutputStream(entry.getSize() > 0 ? (int) entry.getSize() : 4096);
+    		byte[] buffer = new byte[4096];
+    		int bytesRead;
+    		while((bytesRead = stream.read(buffer)) != -1){
+    			bytes.write(buffer, 0, bytesRead);
+    		}
+    		stream.close();
+    		return bytes.toByteArray();
+    	}
+    }
+    
+    /**
+     * Task for parsing a single JSON into a definition, and then performing Legacy Compatibility and validation
+     * on it.  The prepared definition is the result, or null if any of that failed.  Failures are logged here.
+     * If the JSON is from the cache, it has already been prepared, so it is just parsed.  Otherwise, the
+     * prepared definition is exported for the cache, if we have one.
+     */
+    private static class DefinitionParseTask extends RecursiveTask<AJSONItem>{
+    	private byte[] jsonData;
+    	private final String packID;
+    	private final String fileName;
+    	private final ItemClassification classification;
+    	private final String prefixFolders;
+    	private final boolean fromCache;
+    	private CacheEntry cacheEntry;
+    	private long parseTime;
+    	
+    	private DefinitionParseTask(byte[] jsonData, String packID, String fileName, ItemClassification classification, String prefixFolders, boolean fromCache){
+    		this.jsonData = jsonData;
+    		this.packID = packID;
+    		this.fileName = fileName;
+    		this.classification = classification;
+    		this.prefixFolders = prefixFolders;
+    		this.fromCache = fromCache;
+    	}
+    	
+    	@Override
+    	protected AJSONItem compute(){
+    		long parseStartTime = System.nanoTime();
+    		try{
+	    		//Create the JSON instance.
+				String systemName = fileName.substring(0, fileName.length() - ".json".length());
+				AJSONItem definition;
+				try{
+					definition = JSONParser.parseStream(new ByteArrayInputStream(jsonData), classification.representingClass, packID, systemName);
+				}catch(Exception e){
+					InterfaceManager.coreInterface.logError("Could not parse: " + packID + ":" + fileName);
+		    		InterfaceManager.coreInterface.logError(e.getMessage());
+		    		return null;
+				}finally{
+					//Don't need the raw data anymore, so let it be collected.
+					jsonData = null;
+				}
+				if(definition == null){
+					//Empty or null JSON files parse to nothing.
+					InterfaceManager.coreInterface.logError("Could not parse: " + packID + ":" + fileName);
+					return null;
+				}
+				definition.packID = packID;
+				definition.systemName = systemName;
+				definition.classification = classification;
+				definition.prefixFolders = prefixFolders;
+				
+				if(!fromCache){
+					try{
+						prepareItem(definition);
+					}catch(Exception e){
+						InterfaceManager.coreInterface.logError(e.getMessage());
+						return null;
+					}
+					
+					//Export before returning, as registration may modify the definition.
+					if(definitionCache != null){
+						ByteArrayOutputStream cacheStream = new ByteArrayOutputStream();
+						try{
+							JSONParser.exportStream(definition, cacheStream);
+							cacheEntry = new CacheEntry(classification, fileName, prefixFolders, cacheStream.toByteArray());
+						}catch(Exception e){
+							//Only skip caching, the definition itself is still good.
+							InterfaceManager.coreInterface.logError("Could not export " + packID + ":" + systemName + " for the pack cache.");
+							InterfaceManager.coreInterface.logError(e.getMessage());
+							cacheEntry = null;
+						}
+					}
+				}
+				return definition;
+    		}finally{
+    			parseTime = System.nanoTime() - parseStartTime;
+    		}
+    	}
+    }
 }
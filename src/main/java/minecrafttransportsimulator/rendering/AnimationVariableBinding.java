@@ -0,0 +1,128 @@
+package minecrafttransportsimulator.rendering;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+
+/**Class that holds a pre-parsed, or "compiled", version of an animation variable.
+ * Variables in JSON are strings, which means that every lookup would normally require
+ * parsing of the inversion prefix, cycle timings, and text indexes before we even get to the
+ * entity-specific variables.  This class does all that parsing once when the owning
+ * {@link DurationDelayClock} is created.  Built-in, cycle, and text-present variables are then
+ * evaluated directly from the parsed values.  Generic variables that are stored rather than
+ * computed are resolved to their slot in the entity's variables when first used, and all other
+ * generic variables are passed to {@link AEntityD_Definable#getRawVariableValue(String, float)} for lookup.
+ *
+ * @author don_bruce
+ */
+public class AnimationVariableBinding{
+	private static final Map<String, VariableType> BUILT_IN_TYPES = new HashMap<String, VariableType>();
+	static{
+		for(VariableType type : VariableType.values()){
+			if(type.builtInName != null){
+				BUILT_IN_TYPES.put(type.builtInName, type);
+			}
+		}
+	}
+	
+	/**The full variable this binding was compiled from, including any inversion prefix.**/
+	public final String variable;
+	/**The variable name with any inversion prefix removed.  This is the name passed to the entity for generic lookups.**/
+	public final String variableName;
+	/**True if the variable had a "!" prefix and should be inverted.**/
+	public final boolean inverted;
+	/**The type of this variable.  Used to evaluate the variable without string parsing.**/
+	public final VariableType type;
+	
+	//Cycle parameters, only used for cycle variables.
+	public final int cycleOffTime;
+	public final int cycleOnTime;
+	public final int cycleTotalTime;
+	
+	/**Zero-indexed text object index, only used for text-present variables.**/
+	public final int textIndex;
+	
+	/**Entity {@link #variableSlot} was resolved for.  The slot is resolved again if this binding is used for another entity.**/
+	public AEntityD_Definable<?> slotEntity;
+	/**Slot of this generic variable in the entity's variables, or -1 if the variable is computed rather than stored.**/
+	public int variableSlot = -1;
+	
+	public AnimationVariableBinding(String variable){
+		this.variable = variable;
+		this.inverted = variable.startsWith("!");
+		this.variableName = inverted ? variable.substring(1) : variable;
+		
+		VariableType parsedType = BUILT_IN_TYPES.get(variableName);
+		int parsedOffTime = 0;
+		int parsedOnTime = 0;
+		int parsedTotalTime = 0;
+		int parsedTextIndex = -1;
+		if(parsedType == null){
+			parsedType = VariableType.GENERIC;
+			if(variableName.endsWith("_cycle")){
+				//Cycle variables are in the form of OFF_ON_DELAY_cycle.
+				//If we can't parse the numbers, this isn't a cycle variable, so leave it as generic.
+				String[] parsedVariable = variableName.split("_");
+				if(parsedVariable.length == 4){
+					try{
+						parsedOffTime = Integer.parseInt(parsedVariable[0]);
+						parsedOnTime = Integer.parseInt(parsedVariable[1]);
+						parsedTotalTime = parsedOffTime + parsedOnTime + Integer.parseInt(parsedVariable[2]);
+						parsedType = VariableType.CYCLE;
+					}catch(NumberFormatException e){
+						//Not a cycle variable.
+					}
+				}
+			}else if(variableName.startsWith("text_") && variableName.endsWith("_present")){
+				try{
+					parsedTextIndex = Integer.parseInt(variableName.substring("text_".length(), variableName.length() - "_present".length())) - 1;
+					parsedType = VariableType.TEXT_PRESENT;
+				}catch(NumberFormatException e){
+					//Not a text variable.
+				}
+			}
+		}
+		this.type = parsedType;
+		this.cycleOffTime = parsedOffTime;
+		this.cycleOnTime = parsedOnTime;
+		this.cycleTotalTime = parsedTotalTime;
+		this.textIndex = parsedTextIndex;
+	}
+	
+	/**
+	 *  Returns the built-in variable type for the passed-in variable name, or null if the variable
+	 *  isn't a built-in variable.  Used by {@link AEntityD_Definable#getRawVariableValue(String, float)}
+	 *  so built-in variables don't need to be compiled prior to lookup.
+	 */
+	public static VariableType getBuiltInType(String variableName){
+		return BUILT_IN_TYPES.get(variableName);
+	}
+	
+	/**
+	 *  Types of variables.  Built-in variables have a name defined, all others are parsed.
+	 *  Note that this is NOT a list of all variables as those that are entity-specific will
+	 *  be {@link #GENERIC}, as they depend on the entity class.
+	 */
+	public static enum VariableType{
+		TICK("tick"),
+		TICK_SIN("tick_sin"),
+		TICK_COS("tick_cos"),
+		TIME("time"),
+		RAIN_STRENGTH("rain_strength"),
+		RAIN_SIN("rain_sin"),
+		RAIN_COS("rain_cos"),
+		LIGHT_SUNLIGHT("light_sunlight"),
+		LIGHT_TOTAL("light_total"),
+		TERRAIN_DISTANCE("terrain_distance"),
+		CYCLE(null),
+		TEXT_PRESENT(null),
+		GENERIC(null);
+		
+		public final String builtInName;
+		
+		private VariableType(String builtInName){
+			this.builtInName = builtInName;
+		}
+	}
+}
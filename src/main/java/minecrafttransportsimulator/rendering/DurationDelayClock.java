@@ -24,6 +24,8 @@ public class DurationDelayClock{
 	private static final double d1 = 2.75;
 	
 	public final JSONAnimationDefinition animation;
+	/**The compiled variable for the animation.  May be swapped out by callers that need to use a different variable for the same clock.**/
+	public AnimationVariableBinding variableBinding;
 	public final double animationAxisMagnitude;
 	public final Point3D animationAxisNormalized;
 	public final boolean isUseful;
@@ -39,6 +41,7 @@ public class DurationDelayClock{
 	
 	public DurationDelayClock(JSONAnimationDefinition animation){
 		this.animation = animation;
+		this.variableBinding = new AnimationVariableBinding(animation.variable);
 		this.animationAxisMagnitude = animation.axis != null ? animation.axis.length() : 1.0;
 		this.animationAxisNormalized = animation.axis != null ? animation.axis.copy().normalize() : null;
 		this.shouldDoFactoring = animation.duration != 0 || animation.forwardsDelay != 0 || animation.reverseDelay != 0;
@@ -1,10 +1,19 @@
 package minecrafttransportsimulator.rendering;
 
-import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import minecrafttransportsimulator.baseclasses.ColorRGB;
@@ -12,10 +21,18 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 
 /**Class responsible for parsing OBJ models into arrays that can be fed to the GPU.
  * Much more versatile than the Forge system.
- * 
+ * <br><br>
+ * Models are parsed straight from their bytes, without creating strings or boxed numbers for every
+ * line, as large models can have hundreds of thousands of lines.  The parsed vertices are then saved
+ * to a binary cache file in the same 8-float layout {@link RenderableObject} uses, keyed by the size
+ * and modified time of the model.  Later parses of the same model just read the vertices from the cache file.
+ *
  * @author don_bruce
  */
 public final class ModelParserOBJ extends AModelParser{
+	/**Format of the cache files.  Increment if the layout changes.  Also used to detect endian changes.**/
+	private static final int CACHE_FORMAT = 0x4D545301;
+	private static final double[] POWERS_OF_TEN = {1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11, 1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22};
 	
 	@Override
 	protected String getModelSuffix(){
@@ -24,157 +41,465 @@ public final class ModelParserOBJ extends AModelParser{
 	
 	@Override
 	protected List<RenderableObject> parseModelInternal(String modelLocation){
-		List<RenderableObject> objectList = new ArrayList<RenderableObject>();
-		BufferedReader reader;
+		URL modelURL = ModelParserOBJ.class.getResource(modelLocation);
+		byte[] data;
+		long sourceLength;
+		long sourceModified;
 		try{
-			reader = new BufferedReader(new InputStreamReader(ModelParserOBJ.class.getResourceAsStream(modelLocation)));
+			URLConnection connection = modelURL.openConnection();
+			sourceLength = connection.getContentLengthLong();
+			sourceModified = connection.getLastModified();
+			
+			//Check the cache before reading the model.  If we have it, we don't need to parse anything.
+			File cacheFile = getCacheFile(modelLocation);
+			if(cacheFile != null && sourceModified != 0 && cacheFile.exists()){
+				List<RenderableObject> objectList = loadFromCache(cacheFile, sourceLength, sourceModified);
+				if(objectList != null){
+					return objectList;
+				}
+			}
+			data = readFully(connection.getInputStream(), sourceLength);
 		}catch(Exception e){
 			throw new NullPointerException("Attempted to parse the OBJ model at: " + modelLocation + " but could not find it.  Check the path and try again.");
 		}
 		
-		String objectName = null;
-		final List<float[]> vertexList = new ArrayList<float[]>();
-		final List<float[]> normalList = new ArrayList<float[]>();
-		final List<float[]> textureList = new ArrayList<float[]>();
-		final List<String> faceList = new ArrayList<String>();
+		List<RenderableObject> objectList = new OBJReader(data, modelLocation).parse();
 		
+		//Save the model for the next parse.  If we can't, that's fine, we'll just parse it again.
+		File cacheFile = getCacheFile(modelLocation);
+		if(cacheFile != null && sourceModified != 0){
+			try{
+				saveToCache(cacheFile, sourceLength, sourceModified, objectList);
+			}catch(Exception e){
+				cacheFile.delete();
+			}
+		}
+		return objectList;
+	}
+	
+	/**
+	 *  Returns the cache file for the passed-in model, or null if we can't cache models.
+	 */
+	private static File getCacheFile(String modelLocation){
+		if(InterfaceManager.gameDirectory == null){
+			return null;
+		}
+		File cacheDirectory = new File(InterfaceManager.gameDirectory, "mtsmodelcache");
+		return new File(cacheDirectory, modelLocation.replaceAll("[^A-Za-z0-9.]", "_") + "_" + Integer.toHexString(modelLocation.hashCode()) + ".bin");
+	}
+	
+	/**
+	 *  Loads the objects in the passed-in cache file.  The file is read in a single call, and the vertices
+	 *  of each object are copied out into their own arrays, the same as parsed models.  We don't map the file,
+	 *  as mapped files can't be replaced on some systems until the mapping is collected, which would keep us
+	 *  from saving a new cache file when the model changes.  Returns null if the file is stale.
+	 */
+	private static List<RenderableObject> loadFromCache(File cacheFile, long sourceLength, long sourceModified){
 		try{
-			int lineNumber = 0;
-			while(reader.ready()){
-				String line = reader.readLine();
+			RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+			ByteBuffer buffer;
+			try{
+				buffer = ByteBuffer.allocate((int) file.length()).order(ByteOrder.nativeOrder());
+				FileChannel channel = file.getChannel();
+				while(buffer.hasRemaining()){
+					if(channel.read(buffer) == -1){
+						break;
+					}
+				}
+				buffer.flip();
+			}finally{
+				file.close();
+			}
+			if(buffer.getInt() != CACHE_FORMAT || buffer.getLong() != sourceLength || buffer.getLong() != sourceModified){
+				return null;
+			}
+			
+			int objectCount = buffer.getInt();
+			List<RenderableObject> objectList = new ArrayList<RenderableObject>(objectCount);
+			for(int i=0; i<objectCount; ++i){
+				byte[] nameBytes = new byte[buffer.getInt()];
+				buffer.get(nameBytes);
+				int floatCount = buffer.getInt();
+				
+				//Floats are aligned to 4 bytes when saved, so we can copy them out in one call.
+				buffer.position((buffer.position() + 3) & ~3);
+				float[] vertices = new float[floatCount];
+				buffer.asFloatBuffer().get(vertices);
+				buffer.position(buffer.position() + floatCount*Float.BYTES);
+				objectList.add(new RenderableObject(new String(nameBytes, StandardCharsets.UTF_8), null, ColorRGB.WHITE, FloatBuffer.wrap(vertices), true));
+			}
+			return objectList;
+		}catch(Exception e){
+			//Bad file, just parse the model.
+			return null;
+		}
+	}
+	
+	/**
+	 *  Saves the passed-in objects to the passed-in cache file.  The file is written to a temp
+	 *  file and then moved, as more than one thread may be parsing the same model at once.
+	 */
+	private static void saveToCache(File cacheFile, long sourceLength, long sourceModified, List<RenderableObject> objectList) throws IOException{
+		//Get the size of the file, including padding to align the floats.
+		int size = 4 + 8 + 8 + 4;
+		List<byte[]> names = new ArrayList<byte[]>();
+		for(RenderableObject object : objectList){
+			byte[] nameBytes = object.name.getBytes(StandardCharsets.UTF_8);
+			names.add(nameBytes);
+			size += 4 + nameBytes.length + 4;
+			size = ((size + 3) & ~3) + object.vertices.limit()*Float.BYTES;
+		}
+		
+		ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.nativeOrder());
+		buffer.putInt(CACHE_FORMAT);
+		buffer.putLong(sourceLength);
+		buffer.putLong(sourceModified);
+		buffer.putInt(objectList.size());
+		for(int i=0; i<objectList.size(); ++i){
+			FloatBuffer vertices = objectList.get(i).vertices.duplicate();
+			vertices.rewind();
+			buffer.putInt(names.get(i).length);
+			buffer.put(names.get(i));
+			buffer.putInt(vertices.limit());
+			buffer.position((buffer.position() + 3) & ~3);
+			buffer.asFloatBuffer().put(vertices);
+			buffer.position(buffer.position() + vertices.limit()*Float.BYTES);
+		}
+		buffer.flip();
+		
+		cacheFile.getParentFile().mkdirs();
+		File tempFile = new File(cacheFile.getParentFile(), cacheFile.getName() + "." + Thread.currentThread().getId() + ".tmp");
+		FileOutputStream stream = new FileOutputStream(tempFile);
+		try{
+			stream.getChannel().write(buffer);
+		}finally{
+			stream.close();
+		}
+		cacheFile.delete();
+		if(!tempFile.renameTo(cacheFile)){
+			tempFile.delete();
+		}
+	}
+	
+	private static byte[] readFully(InputStream stream, long expectedLength) throws IOException{
+		byte[] data = new byte[expectedLength > 0 ? (int) expectedLength + 1 : 8192];
+		int length = 0;
+		int bytesRead;
+		while((bytesRead = stream.read(data, length, data.length - length)) != -1){
+			length += bytesRead;
+			if(length == data.length){
+				data = Arrays.copyOf(data, data.length*2);
+			}
+		}
+		stream.close();
+		return length == data.length ? data : Arrays.copyOf(data, length);
+	}
+	
+	/**Reader that does the actual parsing.  This holds all the state for a single parse,
+	 * as the parser itself may be used by more than one thread at once.
+	 * Vertex data is kept in growable primitive arrays rather than lists of arrays.
+	 */
+	private static class OBJReader{
+		private final byte[] data;
+		private final String modelLocation;
+		private final List<RenderableObject> objectList = new ArrayList<RenderableObject>();
+		private int position;
+		private int lineEnd;
+		private int lineNumber;
+		
+		private float[] vertices = new float[3*1024];
+		private int vertexCount;
+		private float[] normals = new float[3*1024];
+		private int normalCount;
+		private float[] textures = new float[2*1024];
+		private int textureCount;
+		
+		/**Face vertex indexes, in V/T/N order, for the current object.  Faces are already split into triangles.**/
+		private int[] faceIndexes = new int[3*3*1024];
+		private int faceIndexCount;
+		private boolean faceFormatError;
+		
+		private OBJReader(byte[] data, String modelLocation){
+			this.data = data;
+			this.modelLocation = modelLocation;
+		}
+		
+		private List<RenderableObject> parse(){
+			String objectName = null;
+			while(position < data.length){
+				//Find the end of this line.  Lines may end in CRLF or LF.
+				lineEnd = position;
+				while(lineEnd < data.length && data[lineEnd] != '\n'){
+					++lineEnd;
+				}
+				int nextLine = lineEnd + 1;
+				if(lineEnd > position && data[lineEnd - 1] == '\r'){
+					--lineEnd;
+				}
 				++lineNumber;
 				
 				//Do normal parsing.
-				if(line.startsWith("o ")){
+				if(isLineType('o', ' ')){
 					//Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
 					if(objectName != null){
-						if(faceList.isEmpty()){
+						if(faceIndexCount == 0 && !faceFormatError){
 							InterfaceManager.coreInterface.logError("Object " + objectName + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
 						}else{
-							compileVertexArray(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
+							compileVertexArray(objectName);
 							objectName = null;
 						}
 					}
-					try{
-						objectName = line.trim().substring(2, line.length());
-					}catch(Exception e){
+					position += 2;
+					skipSpaces();
+					int nameEnd = lineEnd;
+					while(nameEnd > position && data[nameEnd - 1] <= ' '){
+						--nameEnd;
+					}
+					if(nameEnd > position){
+						objectName = new String(data, position, nameEnd - position, StandardCharsets.UTF_8);
+					}else{
 						InterfaceManager.coreInterface.logError("Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
 					}
-				}else if(line.startsWith("v ")){
+				}else if(isLineType('v', ' ')){
 					try{
-						float[] coords = new float[3];
-						line = line.trim().substring(2, line.trim().length()).trim();
-						coords[0] = Float.valueOf(line.substring(0, line.indexOf(' ')));
-						coords[1] = Float.valueOf(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-						coords[2] = Float.valueOf(line.substring(line.lastIndexOf(' ') + 1, line.length()));
-						vertexList.add(coords);
+						position += 2;
+						if(vertexCount + 3 > vertices.length){
+							vertices = Arrays.copyOf(vertices, vertices.length*2);
+						}
+						vertices[vertexCount] = parseFloat();
+						vertices[vertexCount + 1] = parseFloat();
+						vertices[vertexCount + 2] = parseFloat();
+						vertexCount += 3;
 					}catch(Exception e){
 						InterfaceManager.coreInterface.logError("Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
 					}
-				}else if(line.startsWith("vt ")){
+				}else if(isLineType('v', 't')){
 					try{
-						float[] coords = new float[2];
-						line = line.trim().substring(3, line.trim().length()).trim();
-						int space = line.indexOf(' ');
-						int vertexEnd = line.lastIndexOf(' ') == space ? line.length() : line.lastIndexOf(' ');
-						coords[0] = Float.valueOf(line.substring(0, space));
+						position += 3;
+						if(textureCount + 2 > textures.length){
+							textures = Arrays.copyOf(textures, textures.length*2);
+						}
+						textures[textureCount] = parseFloat();
 						//Need to invert the V of the UV to change from texture origin being top-left to OpenGL origin being bottom-left.
-						coords[1] = 1 - Float.valueOf(line.substring(space + 1, vertexEnd));
-						textureList.add(coords);
+						textures[textureCount + 1] = 1 - parseFloat();
+						textureCount += 2;
 					}catch(Exception e){
 						InterfaceManager.coreInterface.logError("Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
 					}
-				}else if(line.startsWith("vn ")){
+				}else if(isLineType('v', 'n')){
 					try{
-						float[] coords = new float[3];
-						line = line.trim().substring(2, line.trim().length()).trim();
-						coords[0] = Float.valueOf(line.substring(0, line.indexOf(' ')));
-						coords[1] = Float.valueOf(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-						coords[2] = Float.valueOf(line.substring(line.lastIndexOf(' ') + 1, line.length()));
-						normalList.add(coords);
+						position += 3;
+						if(normalCount + 3 > normals.length){
+							normals = Arrays.copyOf(normals, normals.length*2);
+						}
+						normals[normalCount] = parseFloat();
+						normals[normalCount + 1] = parseFloat();
+						normals[normalCount + 2] = parseFloat();
+						normalCount += 3;
 					}catch(Exception e){
 						InterfaceManager.coreInterface.logError("Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
 					}
-				}else if(line.startsWith("f ")){
+				}else if(isLineType('f', ' ')){
+					int faceStartCount = faceIndexCount;
 					try{
-						faceList.add(line.trim().substring(2, line.trim().length()));
+						position += 2;
+						parseFace();
 					}catch(Exception e){
-						InterfaceManager.coreInterface.logError("Could not parse face info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Face lines must consist of sets of three numbers in the format (V1/T1/N1, V2/T2/N2, ...).");
+						//Remove any partial face and flag the object.  We'll log it when we compile.
+						faceIndexCount = faceStartCount;
+						faceFormatError = true;
 					}
 				}
+				position = nextLine;
 			}
 			
-			//End of file.  Save the last part in process and close the file.
-			compileVertexArray(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-			reader.close();
+			//End of file.  Save the last part in process.
+			compileVertexArray(objectName);
 			return objectList;
-			
-		}catch(IOException e){
-			throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
 		}
-	}
-	
-	private static void compileVertexArray(List<RenderableObject> objectList, List<float[]> vertexList, List<float[]> normalList, List<float[]> textureList, List<String> faceList, String modelLocation, String objectName){
-		if(objectName == null){
-			InterfaceManager.coreInterface.logError("No object name found in the entire OBJ model file of " + modelLocation + ".  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
-			objectName = "model";
+		
+		/**
+		 *  Returns true if the current line starts with the passed-in two chars.
+		 */
+		private boolean isLineType(char first, char second){
+			return position + 2 <= lineEnd && data[position] == first && data[position + 1] == second && (second == ' ' || (position + 3 <= lineEnd && data[position + 2] == ' '));
 		}
 		
-		try{
-			List<Integer[]> vertexDataSets = new ArrayList<Integer[]>();
-			for(String faceString : faceList){
-				List<Integer[]> faceVertexData = new ArrayList<Integer[]>();	
-				while(!faceString.isEmpty()){
-					//Get the face string in format X/Y/Z.  Use the space as a separator between vertices making up the face.
-					int defEnd = faceString.indexOf(' ');
-					String faceDef;
-					if(defEnd != -1){
-						//Take the faceDef from the faceString and store it.
-						faceDef = faceString.substring(0, defEnd);
-						faceString = faceString.substring(defEnd + 1);
-					}else{
-						//We are at the last face vertex here, so just mark the face as the existing string.
-						faceDef = faceString;
-						faceString = "";
-					}
-					
-					//Vertex number is the first entry before the slash.
-					//Texture number is the second entry between the two slashes.
-					//Normal number is the third entry after the second slash.
-					//Parse all these out and store them in the array.
-					int firstSlash = faceDef.indexOf('/');
-					int secondSlash = faceDef.lastIndexOf('/');
-					int vertexNumber = Integer.valueOf(faceDef.substring(0, firstSlash)) - 1;
-					int textureNumber = Integer.valueOf(faceDef.substring(firstSlash + 1, secondSlash)) - 1;
-					int normalNumber = Integer.valueOf(faceDef.substring(secondSlash + 1)) - 1;
-					
-					//If we have three or more points in faceValues, it means we need to make a triangle out of this shape.
-					//Add the first point, the most recent point, and this point to make a triangle.
-					//Otherwise, just add the face as-is.
-					if(faceVertexData.size() >= 3){
-						faceVertexData.add(faceVertexData.get(0));
-						faceVertexData.add(faceVertexData.get(faceVertexData.size() - 2));
+		private void skipSpaces(){
+			while(position < lineEnd && (data[position] == ' ' || data[position] == '\t')){
+				++position;
+			}
+		}
+		
+		/**
+		 *  Parses a face line into triangles.  Faces with more than three points are split into a fan
+		 *  of triangles using the first point of the face, the prior point, and the current point.
+		 */
+		private void parseFace(){
+			int firstIndex = -1;
+			int priorIndex = -1;
+			int pointCount = 0;
+			skipSpaces();
+			while(position < lineEnd){
+				//Get the vertex, texture, and normal numbers in the format V/T/N.
+				int vertexNumber = parseInt() - 1;
+				expectSlash();
+				int textureNumber = parseInt() - 1;
+				expectSlash();
+				int normalNumber = parseInt() - 1;
+				skipSpaces();
+				
+				//If we have three or more points, we need to make a triangle out of the first, prior, and this point.
+				if(faceIndexCount + 9 > faceIndexes.length){
+					faceIndexes = Arrays.copyOf(faceIndexes, faceIndexes.length*2);
+				}
+				if(pointCount >= 3){
+					System.arraycopy(faceIndexes, firstIndex, faceIndexes, faceIndexCount, 3);
+					System.arraycopy(faceIndexes, priorIndex, faceIndexes, faceIndexCount + 3, 3);
+					faceIndexCount += 6;
+				}
+				priorIndex = faceIndexCount;
+				if(pointCount == 0){
+					firstIndex = faceIndexCount;
+				}
+				faceIndexes[faceIndexCount++] = vertexNumber;
+				faceIndexes[faceIndexCount++] = textureNumber;
+				faceIndexes[faceIndexCount++] = normalNumber;
+				++pointCount;
+			}
+			if(pointCount < 3){
+				throw new IllegalArgumentException();
+			}
+		}
+		
+		private void expectSlash(){
+			if(position >= lineEnd || data[position] != '/'){
+				throw new NumberFormatException();
+			}
+			++position;
+		}
+		
+		private int parseInt(){
+			int start = position;
+			int value = 0;
+			while(position < lineEnd && data[position] >= '0' && data[position] <= '9'){
+				value = value*10 + (data[position++] - '0');
+			}
+			if(position == start){
+				throw new NumberFormatException();
+			}
+			return value;
+		}
+		
+		/**
+		 *  Parses the next number on the line as a float.  Digits are accumulated into a long, and then
+		 *  scaled by the exponent.  Anything we don't handle here, like NaN, is passed to Java's parser.
+		 */
+		private float parseFloat(){
+			skipSpaces();
+			int start = position;
+			boolean negative = false;
+			if(position < lineEnd && (data[position] == '-' || data[position] == '+')){
+				negative = data[position++] == '-';
+			}
+			
+			long mantissa = 0;
+			int exponent = 0;
+			int digits = 0;
+			boolean seenDigit = false;
+			boolean seenDot = false;
+			while(position < lineEnd){
+				byte current = data[position];
+				if(current >= '0' && current <= '9'){
+					seenDigit = true;
+					if(digits < 18){
+						mantissa = mantissa*10 + (current - '0');
+						if(mantissa != 0){
+							++digits;
+						}
+						if(seenDot){
+							--exponent;
+						}
+					}else if(!seenDot){
+						//Too many digits to hold, just track the magnitude.
+						++exponent;
 					}
-					faceVertexData.add(new Integer[]{vertexNumber, textureNumber, normalNumber});
+					++position;
+				}else if(current == '.' && !seenDot){
+					seenDot = true;
+					++position;
+				}else{
+					break;
 				}
-				vertexDataSets.addAll(faceVertexData);
 			}
-	
-			//Compile buffer.
-			FloatBuffer compiledBuffer = FloatBuffer.allocate(vertexDataSets.size()*8);
-			for(int i=0; i<vertexDataSets.size(); ++i){
-				Integer[] vertexData = vertexDataSets.get(i);
-				compiledBuffer.put(normalList.get(vertexData[2]));
-				compiledBuffer.put(textureList.get(vertexData[1]));
-				compiledBuffer.put(vertexList.get(vertexData[0]));
-			}
-			compiledBuffer.flip();
-			objectList.add(new RenderableObject(objectName, null, ColorRGB.WHITE, compiledBuffer, true));
-		}catch(Exception e){
-			InterfaceManager.coreInterface.logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
+			if(position < lineEnd && (data[position] == 'e' || data[position] == 'E')){
+				++position;
+				boolean negativeExponent = false;
+				if(position < lineEnd && (data[position] == '-' || data[position] == '+')){
+					negativeExponent = data[position++] == '-';
+				}
+				int explicitExponent = parseInt();
+				exponent += negativeExponent ? -explicitExponent : explicitExponent;
+			}
+			
+			if(!seenDigit || (position < lineEnd && data[position] != ' ' && data[position] != '\t')){
+				//Not something we can parse.  Let Java try, which will throw if it's really bad.
+				int end = start;
+				while(end < lineEnd && data[end] != ' ' && data[end] != '\t'){
+					++end;
+				}
+				position = end;
+				return Float.parseFloat(new String(data, start, end - start, StandardCharsets.US_ASCII));
+			}
+			
+			double value = mantissa;
+			if(exponent < 0){
+				value = -exponent < POWERS_OF_TEN.length ? value/POWERS_OF_TEN[-exponent] : value/Math.pow(10, -exponent);
+			}else if(exponent > 0){
+				value = exponent < POWERS_OF_TEN.length ? value*POWERS_OF_TEN[exponent] : value*Math.pow(10, exponent);
+			}
+			return (float) (negative ? -value : value);
 		}
 		
-		//Clear face list as we don't want to compile them on the next pass.
-		faceList.clear();
+		/**
+		 *  Compiles the faces for the current object into a vertex buffer and adds the object to the list.
+		 *  The buffer is in the normal, texture, vertex order that {@link RenderableObject} expects.
+		 */
+		private void compileVertexArray(String objectName){
+			if(objectName == null){
+				InterfaceManager.coreInterface.logError("No object name found in the entire OBJ model file of " + modelLocation + ".  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
+				objectName = "model";
+			}
+			
+			//Faces can reference points anywhere in the file, so we can only check the indexes once the object is done.
+			float[] compiledVertices = new float[faceIndexCount/3*8];
+			int compiledIndex = 0;
+			for(int i=0; i<faceIndexCount && !faceFormatError; i+=3){
+				int vertexIndex = faceIndexes[i]*3;
+				int textureIndex = faceIndexes[i + 1]*2;
+				int normalIndex = faceIndexes[i + 2]*3;
+				if(vertexIndex < 0 || vertexIndex >= vertexCount || textureIndex < 0 || textureIndex >= textureCount || normalIndex < 0 || normalIndex >= normalCount){
+					faceFormatError = true;
+				}else{
+					compiledVertices[compiledIndex++] = normals[normalIndex];
+					compiledVertices[compiledIndex++] = normals[normalIndex + 1];
+					compiledVertices[compiledIndex++] = normals[normalIndex + 2];
+					compiledVertices[compiledIndex++] = textures[textureIndex];
+					compiledVertices[compiledIndex++] = textures[textureIndex + 1];
+					compiledVertices[compiledIndex++] = vertices[vertexIndex];
+					compiledVertices[compiledIndex++] = vertices[vertexIndex + 1];
+					compiledVertices[compiledIndex++] = vertices[vertexIndex + 2];
+				}
+			}
+			if(faceFormatError){
+				InterfaceManager.coreInterface.logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
+			}else{
+				objectList.add(new RenderableObject(objectName, null, ColorRGB.WHITE, FloatBuffer.wrap(compiledVertices), true));
+			}
+			
+			//Clear faces as we don't want to compile them on the next pass.
+			faceIndexCount = 0;
+			faceFormatError = false;
+		}
 	}
 }
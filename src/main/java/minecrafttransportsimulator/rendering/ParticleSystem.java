@@ -0,0 +1,642 @@
+package minecrafttransportsimulator.rendering;
+
+import java.nio.FloatBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**System that handles all particles in a world.  Particles aren't entities, as there can be thousands
+ * of them, and making each one a full entity with its own points, matrixes, and boxes is far too heavy.
+ * Instead, particles are stored in primitive arrays, with one set of arrays for each {@link JSONParticle}
+ * definition.  Slots for removed particles are put in a free-list and re-used by the next particle spawned,
+ * so arrays only grow when there are more particles alive than ever before.  Since all particles in a set
+ * of arrays have the same type, motion is done one type at a time in tight loops over the arrays.
+ * <br><br>
+ * Rendering is done in batches.  All particles that share a texture are put into a single buffer that is
+ * re-used every frame, and rendered in one call.  Colors, alpha, and lighting for each particle are
+ * put in the {@link RenderableObject#colors} buffer, as they differ for every particle.
+ * This mimics MC's particle logic, except we can manually set movement logic.
+ *
+ * @author don_bruce
+ */
+public class ParticleSystem{
+	private static final int PARTICLES_PER_ROWCOL = 16;
+	private static final int VERTICES_PER_PARTICLE = 6;
+	private static final int INITIAL_CAPACITY = 64;
+	/**Corner offsets and UV indexes for the 6 vertices of a particle.  UV indexes are 0 for min and 1 for max.**/
+	private static final float[][] VERTEX_CORNERS = new float[][]{
+		new float[]{0.5F, -0.5F, 1, 1},//Bottom-right
+		new float[]{0.5F, 0.5F, 1, 0},//Top-right
+		new float[]{-0.5F, 0.5F, 0, 0},//Top-left
+		new float[]{0.5F, -0.5F, 1, 1},//Bottom-right
+		new float[]{-0.5F, 0.5F, 0, 0},//Top-left
+		new float[]{-0.5F, -0.5F, 0, 1}//Bottom-left
+	};
+	private static final TransformationMatrix helperTransform = new TransformationMatrix();
+	private static final Point3D helperOffset = new Point3D();
+	
+	private final AWrapperWorld world;
+	private final Map<JSONParticle, ParticleGroup> groups = new HashMap<JSONParticle, ParticleGroup>();
+	private final Map<String, ParticleBatch> litBatches = new HashMap<String, ParticleBatch>();
+	private final Map<String, ParticleBatch> unlitBatches = new HashMap<String, ParticleBatch>();
+	private final Point3D collisionCenter = new Point3D();
+	private final Point3D collisionMotion = new Point3D();
+	private final BoundingBox collisionBox = new BoundingBox(collisionCenter, 0, 0, 0);
+	private final float[] uvBounds = new float[4];
+	
+	private int particleCount;
+	private long updateTime;
+	
+	public ParticleSystem(AWrapperWorld world){
+		this.world = world;
+	}
+	
+	/**
+	 *  Spawns a particle for the passed-in definition from the passed-in entity.
+	 *  The switchbox is optional, and is used to offset the spawning position if present.
+	 */
+	public void spawnParticle(AEntityD_Definable<?> entitySpawning, JSONParticle definition, AnimationSwitchbox switchbox){
+		ParticleGroup group = groups.get(definition);
+		if(group == null){
+			group = new ParticleGroup(definition);
+			groups.put(definition, group);
+		}
+		
+		helperTransform.resetTransforms().set(entitySpawning.orientation);
+		if(switchbox != null){
+			helperTransform.multiply(switchbox.netMatrix);
+		}
+		if(definition.pos != null){
+			helperOffset.set(definition.pos).multiply(entitySpawning.scale);
+		}else{
+			helperOffset.set(0, 0, 0);
+		}
+		helperOffset.transform(helperTransform).add(entitySpawning.position);
+		int index = group.addParticle(helperOffset, entitySpawning.scale);
+		
+		if(definition.initialVelocity != null){
+			//Set initial velocity, but add some randomness so particles don't all go in a line.
+			helperOffset.set(definition.initialVelocity).rotate(helperTransform);
+			group.motionX[index] = helperOffset.x/10D + 0.02 - Math.random()*0.04;
+			group.motionY[index] = helperOffset.y/10D + 0.02 - Math.random()*0.04;
+			group.motionZ[index] = helperOffset.z/10D + 0.02 - Math.random()*0.04;
+		}
+		if(definition.type.equals(ParticleType.BREAK)){
+			helperOffset.set(group.positionX[index], group.positionY[index] - 1, group.positionZ[index]);
+			float[] uvPoints = InterfaceManager.renderingInterface.getBlockBreakTexture(world, helperOffset);
+			System.arraycopy(uvPoints, 0, group.breakUVs, index*4, 4);
+		}
+		++particleCount;
+	}
+	
+	/**
+	 *  Updates all particles.  Should be called once every tick on the client.
+	 */
+	public void update(){
+		long startTime = System.nanoTime();
+		Iterator<ParticleGroup> iterator = groups.values().iterator();
+		while(iterator.hasNext()){
+			ParticleGroup group = iterator.next();
+			particleCount -= group.update();
+			if(group.count == 0){
+				//Don't keep groups for definitions that aren't spawning anymore.
+				//Spawning is rare enough compared to updating that re-creating them is fine.
+				iterator.remove();
+			}
+		}
+		updateTime = System.nanoTime() - startTime;
+	}
+	
+	/**
+	 *  Renders all particles.  Particles are always translucent, so this should only be called on the blended pass.
+	 */
+	public void render(float partialTicks){
+		if(particleCount != 0){
+			IWrapperPlayer clientPlayer = InterfaceManager.clientInterface.getClientPlayer();
+			Point3D renderPosition = InterfaceManager.clientInterface.getRenderViewEntity().getRenderedPosition(partialTicks);
+			Point3D eyePosition = clientPlayer.getPosition().add(0, clientPlayer.getEyeHeight(), 0).add(InterfaceManager.clientInterface.getCameraPosition());
+			for(ParticleBatch batch : litBatches.values()){
+				batch.reset();
+			}
+			for(ParticleBatch batch : unlitBatches.values()){
+				batch.reset();
+			}
+			for(ParticleGroup group : groups.values()){
+				Map<String, ParticleBatch> batches = group.definition.type.equals(ParticleType.FLAME) ? unlitBatches : litBatches;
+				ParticleBatch batch = batches.get(group.texture);
+				if(batch == null){
+					batch = new ParticleBatch(group.texture, batches == unlitBatches);
+					batches.put(group.texture, batch);
+				}
+				group.render(batch, renderPosition, eyePosition, partialTicks);
+			}
+			for(ParticleBatch batch : litBatches.values()){
+				batch.render();
+			}
+			for(ParticleBatch batch : unlitBatches.values()){
+				batch.render();
+			}
+		}
+	}
+	
+	/**
+	 *  Removes all particles.  Used when the world is unloaded.
+	 */
+	public void clear(){
+		groups.clear();
+		particleCount = 0;
+	}
+	
+	/**
+	 *  Returns the number of particles currently active.
+	 */
+	public int getParticleCount(){
+		return particleCount;
+	}
+	
+	/**
+	 *  Returns the time, in nanoseconds, the last call to {@link #update()} took.
+	 */
+	public long getUpdateTime(){
+		return updateTime;
+	}
+	
+	/**
+	 *  Gets the max age of a particle.  This tries to use the definition's
+	 *  maxAge, but will use Vanilla values if not set.  The Vanilla values
+	 *  have a random element, so this returns different values on each call for them.
+	 */
+	private static int generateMaxAge(JSONParticle definition){
+		if(definition.duration != 0){
+			return definition.duration;
+		}else{
+			switch(definition.type){
+				case SMOKE: return (int)(8.0D / (Math.random() * 0.8D + 0.2D));
+				case FLAME: return (int)(8.0D / (Math.random() * 0.8D + 0.2D)) + 4;
+				case DRIP: return  (int)(64.0D / (Math.random() * 0.8D + 0.2D));
+				case BUBBLE: return (int)(8.0D / (Math.random() * 0.8D + 0.2D));
+				case BREAK: return (int)(4.0D / (Math.random() * 0.9D + 0.1D));
+				case GENERIC: return (int)(8.0D / (Math.random() * 0.8D + 0.2D));
+			}
+			//We'll never get here, but it makes the compiler happy.
+			return 0;
+		}
+	}
+	
+	/**
+	 *  All particles for a single definition.  Each particle is an index into the arrays.
+	 *  Indexes of removed particles are kept in {@link #freeIndexes} for re-use.
+	 *  The arrays are only valid up to {@link #highestIndex}, and any index below that
+	 *  that isn't {@link #active} is in the free-list.
+	 */
+	private class ParticleGroup{
+		private final JSONParticle definition;
+		private final String texture;
+		/**Size used for collision.  Does not take the scale of the particle into account.**/
+		private final double size;
+		private final ColorRGB startColor;
+		private final ColorRGB endColor;
+		
+		private double[] positionX;
+		private double[] positionY;
+		private double[] positionZ;
+		private double[] prevPositionX;
+		private double[] prevPositionY;
+		private double[] prevPositionZ;
+		private double[] motionX;
+		private double[] motionY;
+		private double[] motionZ;
+		/**1 if the particle is free to move, 0 if it is touching blocks.  Used as a multiplier to stop motion.**/
+		private double[] airborne;
+		private float[] scaleX;
+		private float[] scaleY;
+		private float[] breakUVs;
+		private float[] lightmaps;
+		private int[] ages;
+		private int[] maxAges;
+		private boolean[] active;
+		private int[] freeIndexes;
+		private int freeCount;
+		private int highestIndex;
+		private int count;
+		
+		private ParticleGroup(JSONParticle definition){
+			this.definition = definition;
+			this.texture = definition.texture != null ? definition.texture : (definition.type.equals(ParticleType.BREAK) ? RenderableObject.GLOBAL_TEXTURE_NAME : RenderableObject.PARTICLE_TEXTURE_NAME);
+			this.size = definition.type.equals(ParticleType.DRIP) || definition.type.equals(ParticleType.BREAK) ? 0.1D : 0.2D;
+			if(definition.color != null){
+				this.startColor = definition.color;
+				this.endColor = definition.toColor != null ? definition.toColor : definition.color;
+			}else{
+				this.startColor = ColorRGB.WHITE;
+				this.endColor = ColorRGB.WHITE;
+			}
+			allocate(INITIAL_CAPACITY);
+		}
+		
+		/**
+		 *  Sets the capacity of this group's arrays, keeping all existing particles.
+		 */
+		private void allocate(int capacity){
+			positionX = copyOf(positionX, capacity);
+			positionY = copyOf(positionY, capacity);
+			positionZ = copyOf(positionZ, capacity);
+			prevPositionX = copyOf(prevPositionX, capacity);
+			prevPositionY = copyOf(prevPositionY, capacity);
+			prevPositionZ = copyOf(prevPositionZ, capacity);
+			motionX = copyOf(motionX, capacity);
+			motionY = copyOf(motionY, capacity);
+			motionZ = copyOf(motionZ, capacity);
+			airborne = copyOf(airborne, capacity);
+			scaleX = copyOf(scaleX, capacity);
+			scaleY = copyOf(scaleY, capacity);
+			breakUVs = copyOf(breakUVs, capacity*4);
+			lightmaps = copyOf(lightmaps, capacity);
+			
+			int[] newAges = new int[capacity];
+			int[] newMaxAges = new int[capacity];
+			boolean[] newActive = new boolean[capacity];
+			int[] newFreeIndexes = new int[capacity];
+			if(ages != null){
+				System.arraycopy(ages, 0, newAges, 0, ages.length);
+				System.arraycopy(maxAges, 0, newMaxAges, 0, maxAges.length);
+				System.arraycopy(active, 0, newActive, 0, active.length);
+				System.arraycopy(freeIndexes, 0, newFreeIndexes, 0, freeIndexes.length);
+			}
+			ages = newAges;
+			maxAges = newMaxAges;
+			active = newActive;
+			freeIndexes = newFreeIndexes;
+		}
+		
+		/**
+		 *  Adds a particle at the passed-in position, and returns its index.  Motion is zero.
+		 */
+		private int addParticle(Point3D position, Point3D entityScale){
+			int index;
+			if(freeCount > 0){
+				index = freeIndexes[--freeCount];
+			}else{
+				if(highestIndex == active.length){
+					allocate(active.length*2);
+				}
+				index = highestIndex++;
+			}
+			positionX[index] = position.x;
+			positionY[index] = position.y;
+			positionZ[index] = position.z;
+			prevPositionX[index] = position.x;
+			prevPositionY[index] = position.y;
+			prevPositionZ[index] = position.z;
+			motionX[index] = 0;
+			motionY[index] = 0;
+			motionZ[index] = 0;
+			airborne[index] = 1;
+			scaleX[index] = (float) entityScale.x;
+			scaleY[index] = (float) entityScale.y;
+			ages[index] = 0;
+			maxAges[index] = generateMaxAge(definition);
+			lightmaps[index] = InterfaceManager.renderingInterface.getLightmap(position);
+			active[index] = true;
+			++count;
+			return index;
+		}
+		
+		/**
+		 *  Removes the particle at the passed-in index, and puts the index in the free-list.
+		 *  The motion loops still run on free indexes, so their motion may change after this,
+		 *  but that's harmless as {@link #addParticle(Point3D, Point3D)} resets the index before re-use.
+		 */
+		private void removeParticle(int index){
+			active[index] = false;
+			motionX[index] = 0;
+			motionY[index] = 0;
+			motionZ[index] = 0;
+			freeIndexes[freeCount++] = index;
+			--count;
+		}
+		
+		/**
+		 *  Updates all particles in this group.  Returns the number of particles removed.
+		 */
+		private int update(){
+			int startingCount = count;
+			System.arraycopy(positionX, 0, prevPositionX, 0, highestIndex);
+			System.arraycopy(positionY, 0, prevPositionY, 0, highestIndex);
+			System.arraycopy(positionZ, 0, prevPositionZ, 0, highestIndex);
+			
+			//Set movement.  All particles in this group are the same type, so we do one loop per type.
+			//These loops run over free indexes too, and may give them motion, but nothing reads them until
+			//they are re-used, at which point addParticle resets them.
+			if(definition.movementVelocity != null){
+				Point3D velocity = definition.movementVelocity;
+				Point3D terminal = definition.terminalVelocity;
+				for(int i=0; i<highestIndex; ++i){
+					motionX[i] = Math.max(-terminal.x, Math.min(terminal.x, motionX[i] + velocity.x));
+					motionY[i] = Math.max(-terminal.y, Math.min(terminal.y, motionY[i] + velocity.y));
+					motionZ[i] = Math.max(-terminal.z, Math.min(terminal.z, motionZ[i] + velocity.z));
+				}
+			}else{
+				switch(definition.type){
+					case SMOKE: {
+						//Update the motions to make the smoke float up.
+						for(int i=0; i<highestIndex; ++i){
+							motionX[i] *= 0.9;
+							motionY[i] += 0.004;
+							motionZ[i] *= 0.9;
+						}
+						break;
+					}
+					case FLAME: {
+						//Flame just slowly drifts in the direction it was going.
+						for(int i=0; i<highestIndex; ++i){
+							motionX[i] *= 0.96;
+							motionY[i] *= 0.96;
+							motionZ[i] *= 0.96;
+						}
+						break;
+					}
+					case DRIP: {
+						//Keep moving until we touch a block, then stop.
+						for(int i=0; i<highestIndex; ++i){
+							motionX[i] = motionX[i]*0.96*airborne[i];
+							motionY[i] = (motionY[i]*0.96 - 0.06)*airborne[i];
+							motionZ[i] = motionZ[i]*0.96*airborne[i];
+						}
+						break;
+					}
+					case BUBBLE: {
+						//Bubbles float up until they break the surface of the water, then they pop.
+						for(int i=0; i<highestIndex; ++i){
+							if(active[i]){
+								if(!world.isBlockLiquid(positionX[i], positionY[i], positionZ[i])){
+									removeParticle(i);
+								}
+							}
+						}
+						for(int i=0; i<highestIndex; ++i){
+							motionX[i] *= 0.85;
+							motionY[i] = motionY[i]*0.85 + 0.002D;
+							motionZ[i] *= 0.85;
+						}
+						break;
+					}
+					case BREAK: {
+						//Breaking just fall down quickly.
+						for(int i=0; i<highestIndex; ++i){
+							motionX[i] = motionX[i]*0.98*airborne[i];
+							motionY[i] = (motionY[i]*0.98 - 0.04)*airborne[i];
+							motionZ[i] = motionZ[i]*0.98*airborne[i];
+						}
+						break;
+					}
+					case GENERIC: {
+						//Generic particles don't do any movement by default.
+						break;
+					}
+				}
+			}
+			
+			//Check collision movement.  If we hit a block, don't move.
+			collisionBox.widthRadius = size/2D;
+			collisionBox.heightRadius = collisionBox.widthRadius;
+			collisionBox.depthRadius = collisionBox.widthRadius;
+			boolean lit = !definition.type.equals(ParticleType.FLAME);
+			for(int i=0; i<highestIndex; ++i){
+				if(active[i]){
+					collisionCenter.set(positionX[i], positionY[i], positionZ[i]);
+					collisionMotion.set(motionX[i], motionY[i], motionZ[i]);
+					if(collisionBox.updateMovingCollisions(world, collisionMotion)){
+						airborne[i] = 0;
+						motionX[i] -= collisionBox.currentCollisionDepth.x*Math.signum(motionX[i]);
+						motionY[i] -= collisionBox.currentCollisionDepth.y*Math.signum(motionY[i]);
+						motionZ[i] -= collisionBox.currentCollisionDepth.z*Math.signum(motionZ[i]);
+					}else{
+						airborne[i] = 1;
+					}
+					positionX[i] += motionX[i];
+					positionY[i] += motionY[i];
+					positionZ[i] += motionZ[i];
+					
+					//Check age to see if we are on our last tick.
+					if(++ages[i] == maxAges[i]){
+						removeParticle(i);
+					}else if(lit){
+						collisionCenter.set(positionX[i], positionY[i], positionZ[i]);
+						lightmaps[i] = InterfaceManager.renderingInterface.getLightmap(collisionCenter);
+					}
+				}
+			}
+			
+			if(count == 0){
+				//Nothing left, reset the free-list so we don't loop over empty indexes.
+				freeCount = 0;
+				highestIndex = 0;
+			}
+			return startingCount - count;
+		}
+		
+		/**
+		 *  Adds all particles in this group to the passed-in batch.  Particles face the passed-in eye
+		 *  position, and are offset by the render position.
+		 */
+		private void render(ParticleBatch batch, Point3D renderPosition, Point3D eyePosition, float partialTicks){
+			batch.ensureCapacity(count);
+			FloatBuffer vertices = batch.renderable.vertices;
+			FloatBuffer colors = batch.renderable.colors;
+			for(int i=0; i<highestIndex; ++i){
+				if(active[i]){
+					float ageFactor = (ages[i] + partialTicks)/maxAges[i];
+					boolean touchingBlocks = airborne[i] == 0;
+					double x = prevPositionX[i] + (positionX[i] - prevPositionX[i])*partialTicks;
+					double y = prevPositionY[i] + (positionY[i] - prevPositionY[i])*partialTicks;
+					double z = prevPositionZ[i] + (positionZ[i] - prevPositionZ[i])*partialTicks;
+					
+					//Get the normal and the axis of the quad.  Particles always face the player.
+					double normalX = eyePosition.x - x;
+					double normalY = eyePosition.y - y;
+					double normalZ = eyePosition.z - z;
+					double length = Math.sqrt(normalX*normalX + normalY*normalY + normalZ*normalZ);
+					if(length == 0){
+						continue;
+					}
+					normalX /= length;
+					normalY /= length;
+					normalZ /= length;
+					double rightX = normalZ;
+					double rightZ = -normalX;
+					double rightLength = Math.sqrt(rightX*rightX + rightZ*rightZ);
+					if(rightLength < 0.0001){
+						//Looking straight up or down, pick any right axis.
+						rightX = 1;
+						rightZ = 0;
+					}else{
+						rightX /= rightLength;
+						rightZ /= rightLength;
+					}
+					double upX = normalY*rightZ;
+					double upY = normalZ*rightX - normalX*rightZ;
+					double upZ = -normalY*rightX;
+					
+					float totalScale = (float) size*getScale(ageFactor, touchingBlocks);
+					float width = totalScale*scaleX[i];
+					float height = totalScale*scaleY[i];
+					x -= renderPosition.x;
+					y -= renderPosition.y;
+					z -= renderPosition.z;
+					
+					//Set texture bounds.
+					switch(definition.type){
+						case SMOKE: setTextureBounds(7 - ages[i]*8/maxAges[i], 0); break;//Smoke gets smaller as it ages.
+						case FLAME: setTextureBounds(0, 3); break;
+						case DRIP: setTextureBounds(touchingBlocks ? 1 : 0, 7); break;//Drips become flat when they hit the ground.
+						case BUBBLE: setTextureBounds(0, 2); break;
+						case BREAK: System.arraycopy(breakUVs, i*4, uvBounds, 0, 4); break;//Set at spawning.
+						case GENERIC: uvBounds[0] = 0; uvBounds[1] = 1; uvBounds[2] = 0; uvBounds[3] = 1; break;//Full texture.
+					}
+					
+					float red = startColor.red + (endColor.red - startColor.red)*ageFactor;
+					float green = startColor.green + (endColor.green - startColor.green)*ageFactor;
+					float blue = startColor.blue + (endColor.blue - startColor.blue)*ageFactor;
+					float alpha = getAlpha(ageFactor);
+					for(float[] corner : VERTEX_CORNERS){
+						vertices.put((float) normalX);
+						vertices.put((float) normalY);
+						vertices.put((float) normalZ);
+						vertices.put(uvBounds[(int) corner[2]]);
+						vertices.put(uvBounds[2 + (int) corner[3]]);
+						vertices.put((float) (x + rightX*corner[0]*width + upX*corner[1]*height));
+						vertices.put((float) (y + upY*corner[1]*height));
+						vertices.put((float) (z + rightZ*corner[0]*width + upZ*corner[1]*height));
+						colors.put(red);
+						colors.put(green);
+						colors.put(blue);
+						colors.put(alpha);
+						colors.put(lightmaps[i]);
+					}
+				}
+			}
+		}
+		
+		/**
+		 *  Gets the current alpha value of the particle.  This parameter
+		 *  is used to make the particle translucent.
+		 */
+		private float getAlpha(float ageFactor){
+			if(definition.transparency != 0){
+				if(definition.toTransparency != 0){
+					return definition.transparency + (definition.toTransparency - definition.transparency)*ageFactor;
+				}else{
+					return definition.transparency;
+				}
+			}else{
+				return 1.0F;
+			}
+		}
+		
+		/**
+		 *  Gets the current scale of the particle.
+		 *  This is for rendering only; it does not affect collision.
+		 */
+		private float getScale(float ageFactor, boolean touchingBlocks){
+			if(definition.scale != 0){
+				if(definition.toScale != 0){
+					return definition.scale + (definition.toScale - definition.scale)*ageFactor;
+				}else{
+					return definition.scale;
+				}
+			}else{
+				switch(definition.type){
+					case FLAME:  return (float) (1.0F - Math.pow(ageFactor, 2)/2F);
+					case DRIP: return touchingBlocks ? 3.0F : 1.0F;
+					default: return 1.0F;
+				}
+			}
+		}
+		
+		/**
+		 *  Sets the UV bounds to the passed-in cell of the particle texture.
+		 */
+		private void setTextureBounds(int uRow, int vCol){
+			uvBounds[0] = uRow/(float)PARTICLES_PER_ROWCOL;
+			uvBounds[1] = (uRow + 1)/(float)PARTICLES_PER_ROWCOL;
+			uvBounds[2] = vCol/(float)PARTICLES_PER_ROWCOL;
+			uvBounds[3] = (vCol + 1)/(float)PARTICLES_PER_ROWCOL;
+		}
+	}
+	
+	/**
+	 *  Buffers for all particles that share a texture.  These are filled every frame, and only grow.
+	 *  Lit and un-lit particles are in different batches, as lighting is a state for the whole render call.
+	 */
+	private static class ParticleBatch{
+		private final RenderableObject renderable;
+		
+		private ParticleBatch(String texture, boolean disableLighting){
+			this.renderable = new RenderableObject("particle", texture, new ColorRGB(), FloatBuffer.allocate(INITIAL_CAPACITY*VERTICES_PER_PARTICLE*8), false);
+			renderable.colors = FloatBuffer.allocate(INITIAL_CAPACITY*VERTICES_PER_PARTICLE*5);
+			renderable.disableLighting = disableLighting;
+			renderable.ignoreWorldShading = true;
+		}
+		
+		private void reset(){
+			renderable.vertices.clear();
+			renderable.colors.clear();
+		}
+		
+		/**
+		 *  Makes sure the buffers can hold the passed-in number of particles more than they have now.
+		 */
+		private void ensureCapacity(int particles){
+			int neededVertices = renderable.vertices.position() + particles*VERTICES_PER_PARTICLE*8;
+			if(neededVertices > renderable.vertices.capacity()){
+				int newCapacity = Math.max(neededVertices, renderable.vertices.capacity()*2);
+				FloatBuffer newVertices = FloatBuffer.allocate(newCapacity);
+				renderable.vertices.flip();
+				newVertices.put(renderable.vertices);
+				renderable.vertices = newVertices;
+				
+				FloatBuffer newColors = FloatBuffer.allocate(newCapacity/8*5);
+				renderable.colors.flip();
+				newColors.put(renderable.colors);
+				renderable.colors = newColors;
+			}
+		}
+		
+		private void render(){
+			if(renderable.vertices.position() != 0){
+				renderable.vertices.flip();
+				renderable.colors.flip();
+				renderable.render();
+			}
+		}
+	}
+	
+	private static double[] copyOf(double[] array, int capacity){
+		double[] newArray = new double[capacity];
+		if(array != null){
+			System.arraycopy(array, 0, newArray, 0, array.length);
+		}
+		return newArray;
+	}
+	
+	private static float[] copyOf(float[] array, int capacity){
+		float[] newArray = new float[capacity];
+		if(array != null){
+			System.arraycopy(array, 0, newArray, 0, array.length);
+		}
+		return newArray;
+	}
+}
@@ -0,0 +1,139 @@
+package minecrafttransportsimulator.rendering;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
+import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
+import minecrafttransportsimulator.entities.instances.APart;
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+import minecrafttransportsimulator.jsondefs.JSONConfigClient.JSONRenderingSettings;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**Class that works out which entities need to be rendered in a frame.  Entities are culled if they are
+ * outside the camera frustum, further away than the render distance for their type, or if they are a part
+ * that would be too small on screen to see.  This is done once a frame, and the resulting list is then used
+ * for all render passes in that frame.  No GL calls are made here: the frustum planes are passed-in by the
+ * interface, so this class only ever deals with plain math.
+ * <br><br>
+ * Frustum planes are in the form of ax + by + cz + d, with the normal pointing into the frustum, and are relative
+ * to the camera position.  Entities that return null for {@link AEntityC_Renderable#getCullingBounds()} are never
+ * frustum-culled, as we don't know how big they are.
+ *
+ * @author don_bruce
+ */
+public class RenderCuller{
+	/**Extra size to add to bounds for frustum checks.  Models can stick out of their collision boxes a bit.**/
+	private static final double FRUSTUM_MARGIN = 2.0;
+
+	private final float[][] frustumPlanes = new float[6][4];
+	private final Point3D cameraPosition = new Point3D();
+	private double tanHalfFieldOfView = 1;
+	private final List<AEntityC_Renderable> visibleEntities = new ArrayList<AEntityC_Renderable>();
+
+	/**
+	 *  Sets the camera properties for the next update.  The field of view is the vertical
+	 *  field of view, in degrees, and is used to calculate how big entities are on screen.
+	 */
+	public void setCamera(Point3D cameraPosition, float[][] frustumPlanes, double fieldOfView){
+		this.cameraPosition.set(cameraPosition);
+		for(int i=0; i<this.frustumPlanes.length; ++i){
+			System.arraycopy(frustumPlanes[i], 0, this.frustumPlanes[i], 0, 4);
+		}
+		this.tanHalfFieldOfView = Math.tan(Math.toRadians(fieldOfView/2D));
+	}
+
+	/**
+	 *  Updates the list of visible entities from the passed-in entities and returns it.
+	 *  The returned list is re-used every update, so it should not be held onto.
+	 */
+	public List<AEntityC_Renderable> updateVisibleEntities(Collection<AEntityC_Renderable> entities){
+		visibleEntities.clear();
+		if(ConfigSystem.client.renderingSettings.renderCulling.value){
+			for(AEntityC_Renderable entity : entities){
+				if(isVisible(entity)){
+					visibleEntities.add(entity);
+				}
+			}
+		}else{
+			visibleEntities.addAll(entities);
+		}
+		return visibleEntities;
+	}
+
+	/**
+	 *  Returns the list of visible entities from the last update.
+	 */
+	public List<AEntityC_Renderable> getVisibleEntities(){
+		return visibleEntities;
+	}
+
+	/**
+	 *  Returns true if the passed-in entity is visible with the current camera settings.
+	 */
+	public boolean isVisible(AEntityC_Renderable entity){
+		BoundingBox bounds = entity.getCullingBounds();
+		double renderDistance = getRenderDistance(entity);
+		if(bounds == null){
+			//Don't know the size, so just check distance.
+			return renderDistance == 0 || entity.position.isDistanceToCloserThan(cameraPosition, renderDistance);
+		}
+
+		//Get bounds relative to the camera.  Add how far we moved this tick, as we render at interpolated positions.
+		double margin = FRUSTUM_MARGIN;
+		if(entity.prevPosition != null){
+			margin += entity.position.distanceTo(entity.prevPosition);
+		}
+		double minX = bounds.globalCenter.x - bounds.widthRadius - margin - cameraPosition.x;
+		double minY = bounds.globalCenter.y - bounds.heightRadius - margin - cameraPosition.y;
+		double minZ = bounds.globalCenter.z - bounds.depthRadius - margin - cameraPosition.z;
+		double maxX = bounds.globalCenter.x + bounds.widthRadius + margin - cameraPosition.x;
+		double maxY = bounds.globalCenter.y + bounds.heightRadius + margin - cameraPosition.y;
+		double maxZ = bounds.globalCenter.z + bounds.depthRadius + margin - cameraPosition.z;
+
+		//Check distance to the closest point on the bounds.
+		double deltaX = Math.max(Math.max(minX, -maxX), 0);
+		double deltaY = Math.max(Math.max(minY, -maxY), 0);
+		double deltaZ = Math.max(Math.max(minZ, -maxZ), 0);
+		double distanceSquared = deltaX*deltaX + deltaY*deltaY + deltaZ*deltaZ;
+		if(renderDistance != 0 && distanceSquared > renderDistance*renderDistance){
+			return false;
+		}
+
+		//Check if small parts are too small to see.  Parts cull with the bounds of the entity they are on,
+		//so use the part's own box here.  Distance is to the entity bounds, but that's close enough for this.
+		if(entity instanceof APart && distanceSquared > 0){
+			BoundingBox partBounds = ((APart) entity).encompassingBox;
+			double maxRadius = Math.max(partBounds.widthRadius, Math.max(partBounds.heightRadius, partBounds.depthRadius));
+			if(maxRadius/(Math.sqrt(distanceSquared)*tanHalfFieldOfView) < ConfigSystem.client.renderingSettings.minPartScreenSize.value){
+				return false;
+			}
+		}
+
+		//Check frustum.  If the furthest corner in the direction of any plane is behind it, the bounds are outside.
+		for(float[] plane : frustumPlanes){
+			if(plane[0]*(plane[0] > 0 ? maxX : minX) + plane[1]*(plane[1] > 0 ? maxY : minY) + plane[2]*(plane[2] > 0 ? maxZ : minZ) + plane[3] <= 0){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *  Returns the render distance for the passed-in entity, based on its type.  0 means there's no limit.
+	 *  Parts use the vehicle distance, as they would look odd vanishing before the vehicle they are on.
+	 */
+	private static double getRenderDistance(AEntityC_Renderable entity){
+		JSONRenderingSettings settings = ConfigSystem.client.renderingSettings;
+		if(entity instanceof EntityVehicleF_Physics || entity instanceof APart){
+			return settings.vehicleRenderDistance.value;
+		}else if(entity instanceof ATileEntityBase){
+			return settings.blockRenderDistance.value;
+		}else{
+			return settings.particleRenderDistance.value;
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package minecrafttransportsimulator.rendering;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
@@ -123,13 +126,15 @@ public final class RenderInstrument{
 	 */
 	public static class InstrumentSwitchbox extends AnimationSwitchbox{
 		private final JSONInstrumentComponent component;
+		private final Map<DurationDelayClock, AnimationVariableBinding> suffixedBindings = new HashMap<DurationDelayClock, AnimationVariableBinding>();
+		private int suffixedPartNumber = -1;
 
 		public InstrumentSwitchbox(AEntityD_Definable<?> entity, JSONInstrumentComponent component){
 			super(entity, component.animations, null);
 			this.component = component;
 		}
 		
-		private String convertAnimationPartNumber(DurationDelayClock clock){
+		private AnimationVariableBinding convertAnimationPartNumber(DurationDelayClock clock){
 			//If the partNumber is non-zero, we need to check if we are applying a part-based animation.
 			//If so, we need to let the animation system know by adding a suffix to the variable.
 			//Otherwise, as we don't pass-in the part, it will assume it's an entity variable.
@@ -141,21 +146,32 @@ public final class RenderInstrument{
 			if(partNumber == 0 && addSuffix){
 				partNumber = 1;
 			}
-			String oldVariable = clock.animation.variable;
+			AnimationVariableBinding oldBinding = clock.variableBinding;
 			if(addSuffix){
-				clock.animation.variable += "_" + partNumber;
+				//Cache the suffixed bindings so we don't have to re-compile them every frame.
+				//If the part number changes, then we need to re-create them all.
+				if(suffixedPartNumber != partNumber){
+					suffixedBindings.clear();
+					suffixedPartNumber = partNumber;
+				}
+				AnimationVariableBinding suffixedBinding = suffixedBindings.get(clock);
+				if(suffixedBinding == null){
+					suffixedBinding = new AnimationVariableBinding(clock.animation.variable + "_" + partNumber);
+					suffixedBindings.put(clock, suffixedBinding);
+				}
+				clock.variableBinding = suffixedBinding;
 			}
-			return oldVariable;
+			return oldBinding;
 		}
 		
 		@Override
 		public void runTranslation(DurationDelayClock clock, float partialTicks){
 			//Offset the coords based on the translated amount.
 			//Adjust the window to either move or scale depending on settings.
-			String oldVariable = convertAnimationPartNumber(clock);
+			AnimationVariableBinding oldBinding = convertAnimationPartNumber(clock);
 			double xTranslation = entity.getAnimatedVariableValue(clock, clock.animation.axis.x, partialTicks);
 			double yTranslation = entity.getAnimatedVariableValue(clock, clock.animation.axis.y, partialTicks);
-			clock.animation.variable = oldVariable;
+			clock.variableBinding = oldBinding;
 			
 			if(component.extendWindow){
 				//We need to add to the edge of the window in this case rather than move the entire window.
@@ -197,9 +213,9 @@ public final class RenderInstrument{
 		
 		@Override
 		public void runRotation(DurationDelayClock clock, float partialTicks){
-			String oldVariable = convertAnimationPartNumber(clock);
+			AnimationVariableBinding oldBinding = convertAnimationPartNumber(clock);
 			double variableValue = -entity.getAnimatedVariableValue(clock, clock.animation.axis.z, partialTicks);
-			clock.animation.variable = oldVariable;
+			clock.variableBinding = oldBinding;
 			
 			//Depending on what variables are set we do different rendering operations.
 			//If we are rotating the window, but not the texture we should offset the texture points to that rotated point.
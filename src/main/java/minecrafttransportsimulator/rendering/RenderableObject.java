@@ -6,6 +6,7 @@ import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.mcinterface.IInterfaceRender;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 
 /**Class designed to represent a renderable object.  Said object has at minimum some
@@ -53,6 +54,10 @@ public class RenderableObject{
 	public String texture;
 	public final ColorRGB color;
 	public FloatBuffer vertices;
+	/**Optional per-vertex colors.  If set, this has the red, green, blue, alpha, and lightmap for each vertex, in that order.
+	 * These replace {@link #color}, {@link #alpha}, and the lighting for the position, and are used when batching objects
+	 * that would otherwise need different colors, such as particles.  Lightmaps are from {@link IInterfaceRender#getLightmap(Point3D)}.**/
+	public FloatBuffer colors;
 	public final boolean cacheVertices;
 	
 	public boolean isTranslucent;
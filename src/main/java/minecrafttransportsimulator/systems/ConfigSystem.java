@@ -8,6 +8,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import minecrafttransportsimulator.baseclasses.IInventoryProvider;
 import minecrafttransportsimulator.items.components.AItemPack;
 import minecrafttransportsimulator.items.components.AItemSubTyped;
 import minecrafttransportsimulator.jsondefs.AJSONItem;
@@ -56,6 +57,8 @@ public final class ConfigSystem{
 		if(settings == null){
 			settings = new JSONConfigSettings();
 		}
+		//Item weights may have changed, so clear the multipliers found from the old settings.
+		IInventoryProvider.itemWeightMultipliers.clear();
 		
 		//Do the same for the client and language file, normally only displayed on clients, but names may be used on servers for debug messages.
 		languageFile = new File(configDirectory, "mtslanguage_" + (onClient ? InterfaceManager.clientInterface.getLanguageName() : "en_us") + ".json");
@@ -1,6 +1,10 @@
 package minecrafttransportsimulator.systems;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityPlayerGun;
@@ -18,11 +22,13 @@ import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage.LanguageEntry;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packets.instances.PacketPartGun;
 import minecrafttransportsimulator.packets.instances.PacketPartSeat;
+import minecrafttransportsimulator.packets.instances.PacketVehicleControl;
+import minecrafttransportsimulator.packets.instances.PacketVehicleControl.ControlAxis;
+import minecrafttransportsimulator.packets.instances.PacketVehicleControl.ControlClamp;
 import minecrafttransportsimulator.packets.instances.PacketVehicleInteract;
 
 /**Class that handles all control operations.
@@ -41,8 +47,15 @@ public final class ControlSystem{
 	
 	private static boolean parkingBrakePressedLastCheck = false;
 	
+	//Control frame for the current tick.  Sent as a single packet once all controls are checked.
+	private static byte controlSetMask = 0;
+	private static byte controlIncrementMask = 0;
+	private static final double[] controlValues = new double[ControlAxis.values().length];
+	private static final ControlClamp[] controlClamps = new ControlClamp[ControlAxis.values().length];
+	
 	private static BoundingBox closestBox = null;
 	private static EntityVehicleF_Physics closestVehicle = null;
+	private static final List<BoundingBox> clickedBoxes = new ArrayList<BoundingBox>();
 	
 	/**
 	 * Static initializer for the IWrapper inputs, as we need to iterate through the enums to initialize them
@@ -118,8 +131,9 @@ public final class ControlSystem{
 			for(EntityVehicleF_Physics vehicle : player.getWorld().getEntitiesOfType(EntityVehicleF_Physics.class)){
 				if(vehicle.encompassingBox.intersects(clickBounds)){
 					//Could have hit this vehicle, check if and what we did via raytracing.
-					for(BoundingBox box : vehicle.allInteractionBoxes){
-						if(box.intersects(clickBounds) && box.getIntersectionPoint(startPosition, endPosition) != null){
+					vehicle.boxTree.getBoxesAlongLine(startPosition, endPosition, BoundingBoxTree.INTERACTION, clickedBoxes);
+					for(BoundingBox box : clickedBoxes){
+						if(box.getIntersectionPoint(startPosition, endPosition) != null){
 							if(closestBox == null || startPosition.isFirstCloserThanSecond(box.globalCenter, closestBox.globalCenter)){
 								closestBox = box;
 								closestVehicle = vehicle;
@@ -144,6 +158,50 @@ public final class ControlSystem{
 		}else{
 			controlGroundVehicle(vehicle, isPlayerController);
 		}
+		
+		//Send any control changes we had this tick.
+		if(controlSetMask != 0 || controlIncrementMask != 0){
+			InterfaceManager.packetInterface.sendToServer(new PacketVehicleControl(vehicle, controlSetMask, controlIncrementMask, controlValues, controlClamps));
+			controlSetMask = 0;
+			controlIncrementMask = 0;
+		}
+	}
+	
+	/**
+	 *  Sets the passed-in axis to the passed-in value in this tick's control frame.  If the value is already
+	 *  what the vehicle has, or is within the deadband of it, nothing is sent.  The value is also set on the
+	 *  vehicle right away, so we don't keep sending it while we wait for the server to send it back.
+	 */
+	private static void setControl(EntityVehicleF_Physics vehicle, ControlAxis axis, double value){
+		double currentValue = vehicle.getVariable(axis.variable);
+		if(value != currentValue && (value == 0 || Math.abs(value - currentValue) >= axis.deadband)){
+			vehicle.setVariable(axis.variable, value);
+			controlValues[axis.ordinal()] = value;
+			controlSetMask |= axis.getMask();
+			controlIncrementMask &= ~axis.getMask();
+		}
+	}
+	
+	/**
+	 *  Increments the passed-in axis by the passed-in value in this tick's control frame.
+	 *  If the axis was already incremented this tick, the increments are summed, as they
+	 *  would have been sent separately before.  If the clamp would keep the value from
+	 *  changing, nothing is sent.
+	 */
+	private static void incrementControl(EntityVehicleF_Physics vehicle, ControlAxis axis, double value, ControlClamp clamp){
+		boolean alreadyIncremented = (controlIncrementMask & axis.getMask()) != 0;
+		double delta = alreadyIncremented ? controlValues[axis.ordinal()] + value : value;
+		double currentValue = vehicle.getVariable(axis.variable);
+		double newValue = Math.max(clamp.equals(ControlClamp.ABOVE_ZERO) ? 0 : axis.min, Math.min(clamp.equals(ControlClamp.BELOW_ZERO) ? 0 : axis.max, currentValue + delta));
+		if(newValue != currentValue){
+			controlValues[axis.ordinal()] = delta;
+			controlClamps[axis.ordinal()] = clamp;
+			controlIncrementMask |= axis.getMask();
+			controlSetMask &= ~axis.getMask();
+		}else if(alreadyIncremented){
+			//Increments cancelled out, so don't send this axis.
+			controlIncrementMask &= ~axis.getMask();
+		}
 	}
 	
 	private static void controlCamera(ControlsKeyboard camLock, ControlsKeyboard zoomIn, ControlsKeyboard zoomOut, ControlsJoystick changeView){
@@ -205,7 +263,7 @@ public final class ControlSystem{
 		}else{
 			parkingBrakePressedLastCheck = false;
 			double brakeValue = InterfaceManager.inputInterface.isJoystickPresent(brakeJoystick.config.joystickName) ? brakeJoystick.getAxisState(true) : (brakeMod.mainControl.isPressed() || brakeButton.isPressed() ? EntityVehicleF_Physics.MAX_BRAKE : 0);
-			InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(vehicle, EntityVehicleF_Physics.BRAKE_VARIABLE, brakeValue));
+			setControl(vehicle, ControlAxis.BRAKE, brakeValue);
 		}
 	}
 	
@@ -244,32 +302,32 @@ public final class ControlSystem{
 		}
 	}
 	
-	private static void controlControlSurface(EntityVehicleF_Physics vehicle, ControlsJoystick axis, ControlsKeyboard increment, ControlsKeyboard decrement, double rate, double bounds, String variable, double currentValue){
+	private static void controlControlSurface(EntityVehicleF_Physics vehicle, ControlsJoystick axis, ControlsKeyboard increment, ControlsKeyboard decrement, double rate, ControlAxis controlAxis, double currentValue){
 		if(InterfaceManager.inputInterface.isJoystickPresent(axis.config.joystickName)){
 			double axisValue = axis.getAxisState(false);
 			if(Double.isNaN(axisValue)){
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(vehicle, variable, 0));
+				setControl(vehicle, controlAxis, 0);
 			}else{
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(vehicle, variable, bounds*(-1 + 2*axisValue)));
+				setControl(vehicle, controlAxis, controlAxis.max*(-1 + 2*axisValue));
 			}
 		}else{
 			if(increment.isPressed()){
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(vehicle, variable, rate*(currentValue < 0 ? 2 : 1), -bounds, bounds));
+				incrementControl(vehicle, controlAxis, rate*(currentValue < 0 ? 2 : 1), ControlClamp.FULL);
 			}else if(decrement.isPressed()){
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(vehicle, variable, -rate*(currentValue > 0 ? 2 : 1), -bounds, bounds));
+				incrementControl(vehicle, controlAxis, -rate*(currentValue > 0 ? 2 : 1), ControlClamp.FULL);
 			}else if(currentValue > 0){
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(vehicle, variable, -rate, 0, bounds));
+				incrementControl(vehicle, controlAxis, -rate, ControlClamp.ABOVE_ZERO);
 			}else if(currentValue < 0){
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(vehicle, variable, rate, -bounds, 0));
+				incrementControl(vehicle, controlAxis, rate, ControlClamp.BELOW_ZERO);
 			}
 		}
 	}
 	
-	private static void controlControlTrim(EntityVehicleF_Physics vehicle, ControlsJoystick increment, ControlsJoystick decrement, double bounds, String variable){
+	private static void controlControlTrim(EntityVehicleF_Physics vehicle, ControlsJoystick increment, ControlsJoystick decrement, ControlAxis controlAxis){
 		if(increment.isPressed()){
-			InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(vehicle, variable, 0.1, -bounds, bounds));
+			incrementControl(vehicle, controlAxis, 0.1, ControlClamp.FULL);
 		}else if(decrement.isPressed()){
-			InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(vehicle, variable, -0.1, -bounds, bounds));
+			incrementControl(vehicle, controlAxis, -0.1, ControlClamp.FULL);
 		}
 	}
 	
@@ -309,13 +367,13 @@ public final class ControlSystem{
 		
 		//Increment or decrement throttle.
 		if(InterfaceManager.inputInterface.isJoystickPresent(ControlsJoystick.AIRCRAFT_THROTTLE.config.joystickName)){
-			InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(aircraft, EntityVehicleF_Physics.THROTTLE_VARIABLE, ControlsJoystick.AIRCRAFT_THROTTLE.getAxisState(true)*EntityVehicleF_Physics.MAX_THROTTLE));
+			setControl(aircraft, ControlAxis.THROTTLE, ControlsJoystick.AIRCRAFT_THROTTLE.getAxisState(true)*EntityVehicleF_Physics.MAX_THROTTLE);
 		}else{
 			if(ControlsKeyboard.AIRCRAFT_THROTTLE_U.isPressed()){
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(aircraft, EntityVehicleF_Physics.THROTTLE_VARIABLE, EntityVehicleF_Physics.MAX_THROTTLE/100D, 0, EntityVehicleF_Physics.MAX_THROTTLE));
+				incrementControl(aircraft, ControlAxis.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE/100D, ControlClamp.FULL);
 			}
 			if(ControlsKeyboard.AIRCRAFT_THROTTLE_D.isPressed()){
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(aircraft, EntityVehicleF_Physics.THROTTLE_VARIABLE, -EntityVehicleF_Physics.MAX_THROTTLE/100D, 0, EntityVehicleF_Physics.MAX_THROTTLE));
+				incrementControl(aircraft, ControlAxis.THROTTLE, -EntityVehicleF_Physics.MAX_THROTTLE/100D, ControlClamp.FULL);
 			}
 		}		
 		
@@ -330,8 +388,8 @@ public final class ControlSystem{
 		}
 		
 		//Check yaw.
-		controlControlSurface(aircraft, ControlsJoystick.AIRCRAFT_YAW, ControlsKeyboard.AIRCRAFT_YAW_R, ControlsKeyboard.AIRCRAFT_YAW_L, ConfigSystem.client.controlSettings.steeringControlRate.value, EntityVehicleF_Physics.MAX_RUDDER_ANGLE, EntityVehicleF_Physics.RUDDER_INPUT_VARIABLE, aircraft.rudderInput);
-		controlControlTrim(aircraft, ControlsJoystick.AIRCRAFT_TRIM_YAW_R, ControlsJoystick.AIRCRAFT_TRIM_YAW_L, EntityVehicleF_Physics.MAX_RUDDER_TRIM, EntityVehicleF_Physics.RUDDER_TRIM_VARIABLE);
+		controlControlSurface(aircraft, ControlsJoystick.AIRCRAFT_YAW, ControlsKeyboard.AIRCRAFT_YAW_R, ControlsKeyboard.AIRCRAFT_YAW_L, ConfigSystem.client.controlSettings.steeringControlRate.value, ControlAxis.RUDDER, aircraft.rudderInput);
+		controlControlTrim(aircraft, ControlsJoystick.AIRCRAFT_TRIM_YAW_R, ControlsJoystick.AIRCRAFT_TRIM_YAW_L, ControlAxis.RUDDER_TRIM);
 		
 		//Check is mouse yoke is enabled.  If so do controls by mouse rather than buttons.
 		if(ConfigSystem.client.controlSettings.mouseYoke.value){
@@ -339,18 +397,18 @@ public final class ControlSystem{
 				long mouseDelta = InterfaceManager.inputInterface.getMouseDelta();
 				double deltaAileron = ConfigSystem.client.controlSettings.flightControlRate.value*((short) (mouseDelta >> Integer.SIZE));
 				double deltaElevator = ConfigSystem.client.controlSettings.flightControlRate.value*((short) ((int) -mouseDelta));
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(aircraft, EntityVehicleF_Physics.AILERON_INPUT_VARIABLE, deltaAileron, -EntityVehicleF_Physics.MAX_AILERON_ANGLE, EntityVehicleF_Physics.MAX_AILERON_ANGLE));
-				InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(aircraft, EntityVehicleF_Physics.ELEVATOR_INPUT_VARIABLE, deltaElevator, -EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE, EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE));
+				incrementControl(aircraft, ControlAxis.AILERON, deltaAileron, ControlClamp.FULL);
+				incrementControl(aircraft, ControlAxis.ELEVATOR, deltaElevator, ControlClamp.FULL);
 				
 			}
 		}else{
 			//Check pitch.
-			controlControlSurface(aircraft, ControlsJoystick.AIRCRAFT_PITCH, ControlsKeyboard.AIRCRAFT_PITCH_U, ControlsKeyboard.AIRCRAFT_PITCH_D, ConfigSystem.client.controlSettings.flightControlRate.value, EntityVehicleF_Physics.MAX_ELEVATOR_ANGLE, EntityVehicleF_Physics.ELEVATOR_INPUT_VARIABLE, aircraft.elevatorInput);
-			controlControlTrim(aircraft, ControlsJoystick.AIRCRAFT_TRIM_PITCH_U, ControlsJoystick.AIRCRAFT_TRIM_PITCH_D, EntityVehicleF_Physics.MAX_ELEVATOR_TRIM, EntityVehicleF_Physics.ELEVATOR_TRIM_VARIABLE);
+			controlControlSurface(aircraft, ControlsJoystick.AIRCRAFT_PITCH, ControlsKeyboard.AIRCRAFT_PITCH_U, ControlsKeyboard.AIRCRAFT_PITCH_D, ConfigSystem.client.controlSettings.flightControlRate.value, ControlAxis.ELEVATOR, aircraft.elevatorInput);
+			controlControlTrim(aircraft, ControlsJoystick.AIRCRAFT_TRIM_PITCH_U, ControlsJoystick.AIRCRAFT_TRIM_PITCH_D, ControlAxis.ELEVATOR_TRIM);
 			
 			//Check roll.
-			controlControlSurface(aircraft, ControlsJoystick.AIRCRAFT_ROLL, ControlsKeyboard.AIRCRAFT_ROLL_R, ControlsKeyboard.AIRCRAFT_ROLL_L, ConfigSystem.client.controlSettings.flightControlRate.value, EntityVehicleF_Physics.MAX_AILERON_ANGLE, EntityVehicleF_Physics.AILERON_INPUT_VARIABLE, aircraft.aileronInput);
-			controlControlTrim(aircraft, ControlsJoystick.AIRCRAFT_TRIM_ROLL_R, ControlsJoystick.AIRCRAFT_TRIM_ROLL_L, EntityVehicleF_Physics.MAX_AILERON_TRIM, EntityVehicleF_Physics.AILERON_TRIM_VARIABLE);
+			controlControlSurface(aircraft, ControlsJoystick.AIRCRAFT_ROLL, ControlsKeyboard.AIRCRAFT_ROLL_R, ControlsKeyboard.AIRCRAFT_ROLL_L, ConfigSystem.client.controlSettings.flightControlRate.value, ControlAxis.AILERON, aircraft.aileronInput);
+			controlControlTrim(aircraft, ControlsJoystick.AIRCRAFT_TRIM_ROLL_R, ControlsJoystick.AIRCRAFT_TRIM_ROLL_L, ControlAxis.AILERON_TRIM);
 		}
 		
 		//Check to see if we request a different auto-level state.
@@ -389,14 +447,14 @@ public final class ControlSystem{
 				//Send throttle over if throttle if cruise control is off, or if throttle is less than the axis level.
 				double throttleLevel = ControlsJoystick.CAR_GAS.getAxisState(true)*EntityVehicleF_Physics.MAX_THROTTLE;
 				if(powered.autopilotSetting == 0 || powered.throttle < throttleLevel){
-					InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, throttleLevel));
+					setControl(powered, ControlAxis.THROTTLE, throttleLevel);
 				}
 			}else{
 				if(ControlsKeyboard.CAR_GAS.isPressed()){
-					InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, EntityVehicleF_Physics.MAX_THROTTLE/100D, 0, EntityVehicleF_Physics.MAX_THROTTLE));
+					incrementControl(powered, ControlAxis.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE/100D, ControlClamp.FULL);
 				}
 				if(ControlsKeyboard.CAR_BRAKE.isPressed() || ControlsJoystick.CAR_BRAKE_DIGITAL.isPressed()){
-					InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, -EntityVehicleF_Physics.MAX_THROTTLE/100D, 0, EntityVehicleF_Physics.MAX_THROTTLE));
+					incrementControl(powered, ControlAxis.THROTTLE, -EntityVehicleF_Physics.MAX_THROTTLE/100D, ControlClamp.FULL);
 				}
 			}
 		}else{
@@ -453,13 +511,13 @@ public final class ControlSystem{
 					//Otherwise send normal values if we are in neutral or forwards,
 					//and invert controls if we are in a reverse gear.
 					if(throttleValue == 0 && brakeValue == 0 && powered.axialVelocity < PartEngine.MAX_SHIFT_SPEED){
-						InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.BRAKE_VARIABLE, EntityVehicleF_Physics.MAX_BRAKE));
+						setControl(powered, ControlAxis.BRAKE, EntityVehicleF_Physics.MAX_BRAKE);
 					}else if(currentGear >= 0){
-						InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.BRAKE_VARIABLE, brakeValue));
-						InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, throttleValue));
+						setControl(powered, ControlAxis.BRAKE, brakeValue);
+						setControl(powered, ControlAxis.THROTTLE, throttleValue);
 					}else{
-						InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.BRAKE_VARIABLE, throttleValue));
-						InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, brakeValue));
+						setControl(powered, ControlAxis.BRAKE, throttleValue);
+						setControl(powered, ControlAxis.THROTTLE, brakeValue);
 					}
 				}
 			}else{
@@ -469,25 +527,25 @@ public final class ControlSystem{
 					//Send throttle over if throttle if cruise control is off, or if throttle is less than the axis level.
 					double throttleLevel = ControlsJoystick.CAR_GAS.getAxisState(true);
 					if(powered.autopilotSetting == 0 || powered.throttle < throttleLevel){
-						InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, throttleLevel));
+						setControl(powered, ControlAxis.THROTTLE, throttleLevel);
 					}
 				}else{
 					if(ControlsKeyboardDynamic.CAR_SLOW.isPressed()){
 						if(!ConfigSystem.client.controlSettings.halfThrottle.value){
-							InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, EntityVehicleF_Physics.MAX_THROTTLE/2D));
+							setControl(powered, ControlAxis.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE/2D);
 						}else{
-							InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, EntityVehicleF_Physics.MAX_THROTTLE));
+							setControl(powered, ControlAxis.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE);
 						}
 					}else if(ControlsKeyboard.CAR_GAS.isPressed()){
 						if(!ConfigSystem.client.controlSettings.halfThrottle.value){
-							InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, EntityVehicleF_Physics.MAX_THROTTLE));
+							setControl(powered, ControlAxis.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE);
 						}else{
-							InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, EntityVehicleF_Physics.MAX_THROTTLE/2D));
+							setControl(powered, ControlAxis.THROTTLE, EntityVehicleF_Physics.MAX_THROTTLE/2D);
 						}
 					}else{
 						//Send gas off packet if we don't have cruise on.
 						if(powered.autopilotSetting == 0){
-							InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableSet(powered, EntityVehicleF_Physics.THROTTLE_VARIABLE, 0D));
+							setControl(powered, ControlAxis.THROTTLE, 0D);
 						}
 					}
 				}
@@ -500,10 +558,10 @@ public final class ControlSystem{
 				if(EntityVehicleF_Physics.lockCameraToMovement && AGUIBase.activeInputGUI == null){
 					long mouseDelta = InterfaceManager.inputInterface.getMouseDelta();
 					double deltaRudder = ConfigSystem.client.controlSettings.flightControlRate.value*((short) (mouseDelta >> Integer.SIZE));
-					InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIncrement(powered, EntityVehicleF_Physics.RUDDER_INPUT_VARIABLE, deltaRudder, -EntityVehicleF_Physics.MAX_RUDDER_ANGLE, EntityVehicleF_Physics.MAX_RUDDER_ANGLE));
+					incrementControl(powered, ControlAxis.RUDDER, deltaRudder, ControlClamp.FULL);
 				}
 			}else{
-				controlControlSurface(powered, ControlsJoystick.CAR_TURN, ControlsKeyboard.CAR_TURN_R, ControlsKeyboard.CAR_TURN_L, ConfigSystem.client.controlSettings.steeringControlRate.value, EntityVehicleF_Physics.MAX_RUDDER_ANGLE, EntityVehicleF_Physics.RUDDER_INPUT_VARIABLE, powered.rudderInput);
+				controlControlSurface(powered, ControlsJoystick.CAR_TURN, ControlsKeyboard.CAR_TURN_R, ControlsKeyboard.CAR_TURN_L, ConfigSystem.client.controlSettings.steeringControlRate.value, ControlAxis.RUDDER, powered.rudderInput);
 			}
 		}
 		